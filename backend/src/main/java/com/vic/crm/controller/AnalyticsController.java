@@ -0,0 +1,65 @@
+package com.vic.crm.controller;
+
+import com.vic.crm.dto.FunnelResponse;
+import com.vic.crm.dto.StageDwellResponse;
+import com.vic.crm.enums.CandidateStage;
+import com.vic.crm.enums.FunnelGranularity;
+import com.vic.crm.enums.FunnelScope;
+import com.vic.crm.service.FunnelRollupService;
+import com.vic.crm.service.StageDwellService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final StageDwellService stageDwellService;
+    private final FunnelRollupService funnelRollupService;
+
+    @GetMapping("/stage-dwell")
+    public StageDwellResponse getStageDwell(@RequestParam(required = false) Set<CandidateStage> stages,
+            @RequestParam(required = false) Long batchId,
+            @RequestParam(required = false) Long recruiterId) {
+        return stageDwellService.getStageDwell(stages, batchId, recruiterId);
+    }
+
+    @GetMapping("/funnel")
+    public FunnelResponse getFunnel(@RequestParam(required = false) Long vendorId,
+            @RequestParam(required = false) Long clientId,
+            @RequestParam(defaultValue = "WEEK") FunnelGranularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if ((vendorId == null) == (clientId == null)) {
+            throw new IllegalArgumentException("Exactly one of vendorId and clientId is required");
+        }
+        return vendorId != null
+                ? funnelRollupService.getFunnel(FunnelScope.VENDOR, vendorId, granularity, from, to)
+                : funnelRollupService.getFunnel(FunnelScope.CLIENT, clientId, granularity, from, to);
+    }
+
+    @GetMapping("/funnel/vendors")
+    public List<FunnelResponse> compareVendorFunnels(
+            @RequestParam(defaultValue = "MONTH") FunnelGranularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return funnelRollupService.compareFunnels(FunnelScope.VENDOR, granularity, from, to);
+    }
+
+    @GetMapping("/funnel/clients")
+    public List<FunnelResponse> compareClientFunnels(
+            @RequestParam(defaultValue = "MONTH") FunnelGranularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return funnelRollupService.compareFunnels(FunnelScope.CLIENT, granularity, from, to);
+    }
+}
@@ -1,21 +1,41 @@
 package com.vic.crm.controller;
 
+import com.vic.crm.dto.AllowedTransitionsResponse;
+import com.vic.crm.dto.BulkTransitionRequest;
+import com.vic.crm.dto.BulkTransitionResponse;
+import com.vic.crm.dto.CandidateBoardResponse;
+import com.vic.crm.dto.CandidateFilter;
+import com.vic.crm.dto.CandidateImportResponse;
+import com.vic.crm.dto.CandidateStatsResponse;
+import com.vic.crm.dto.CursorPage;
+import com.vic.crm.dto.DuplicatePair;
 import com.vic.crm.dto.SubStatusUpdateRequest;
 import com.vic.crm.dto.TimelineEventRequest;
+import com.vic.crm.dto.TimelineEventView;
 import com.vic.crm.dto.TransitionRequest;
 import com.vic.crm.dto.CandidateEngagementResponse;
 import com.vic.crm.entity.Candidate;
 import com.vic.crm.entity.TimelineEvent;
 import com.vic.crm.entity.User;
 import com.vic.crm.enums.CandidateStage;
+import com.vic.crm.enums.TimelineEventType;
 import com.vic.crm.service.CandidateEngagementService;
+import com.vic.crm.service.CandidateDedupeService;
+import com.vic.crm.service.CandidateImportService;
 import com.vic.crm.service.CandidateService;
+import com.vic.crm.service.CandidateStatsService;
+import com.vic.crm.service.CandidateVersionService;
+import com.vic.crm.service.IdempotencyService;
 import com.vic.crm.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/candidates")
@@ -24,6 +44,11 @@ public class CandidateController {
 
     private final CandidateService candidateService;
     private final CandidateEngagementService engagementService;
+    private final CandidateStatsService candidateStatsService;
+    private final CandidateDedupeService candidateDedupeService;
+    private final CandidateImportService candidateImportService;
+    private final CandidateVersionService candidateVersionService;
+    private final IdempotencyService idempotencyService;
     private final UserService userService;
 
     @GetMapping
@@ -34,20 +59,69 @@ public class CandidateController {
         return candidateService.findAll();
     }
 
+    @GetMapping(params = "limit")
+    public CursorPage<Candidate> getPage(@RequestParam(required = false) CandidateStage stage,
+            @RequestParam(required = false) String cursor,
+            @RequestParam Integer limit) {
+        return candidateService.findPage(stage, cursor, limit);
+    }
+
+    @GetMapping("/search")
+    public CursorPage<Candidate> search(CandidateFilter filter) {
+        return candidateService.search(filter);
+    }
+
+    @GetMapping("/stats")
+    public CandidateStatsResponse getStats(@RequestParam(required = false) Long batchId,
+            @RequestParam(required = false) Long recruiterId) {
+        return candidateStatsService.getStats(batchId, recruiterId);
+    }
+
+    @GetMapping("/duplicates")
+    public List<DuplicatePair> getDuplicates(@RequestParam(defaultValue = "1.0") double minScore,
+            @RequestParam(defaultValue = "100") int limit) {
+        return candidateDedupeService.scan(minScore, limit);
+    }
+
+    @GetMapping("/board")
+    public CandidateBoardResponse getBoard(@RequestParam(required = false) Integer cardsPerColumn) {
+        return candidateService.getBoard(cardsPerColumn);
+    }
+
     @GetMapping("/{id}")
-    public Candidate getById(@PathVariable Long id) {
+    public Candidate getById(@PathVariable Long id, WebRequest request) {
+        CandidateVersionService.Version version = candidateVersionService.candidate(id);
+        if (request.checkNotModified(version.getEtag(), version.getLastModified())) {
+            return null;
+        }
         return candidateService.findById(id);
     }
 
     @GetMapping("/{id}/engagements")
-    public List<CandidateEngagementResponse> getEngagements(@PathVariable Long id) {
+    public List<CandidateEngagementResponse> getEngagements(@PathVariable Long id, WebRequest request) {
+        if (request.checkNotModified(candidateVersionService.engagements(id).getEtag())) {
+            return null;
+        }
         return engagementService.getEngagements(id);
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public Candidate create(@RequestBody Candidate candidate) {
-        return candidateService.create(candidate);
+    public Candidate create(@RequestBody Candidate candidate,
+            @RequestParam(defaultValue = "false") boolean allowDuplicate) {
+        return candidateService.create(candidate, allowDuplicate);
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public CandidateImportResponse importCsv(InputStream body,
+            @RequestParam(defaultValue = "false") boolean allowDuplicate) {
+        return candidateImportService.importCsv(body, allowDuplicate);
+    }
+
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    public CandidateImportResponse importNdjson(InputStream body,
+            @RequestParam(defaultValue = "false") boolean allowDuplicate) {
+        return candidateImportService.importNdjson(body, allowDuplicate);
     }
 
     @PutMapping("/{id}")
@@ -55,38 +129,76 @@ public class CandidateController {
         return candidateService.update(id, candidate);
     }
 
-    @PostMapping("/{id}/transition")
-    public Candidate transition(@PathVariable Long id, @RequestBody TransitionRequest request) {
+    @PostMapping("/transitions:bulk")
+    public BulkTransitionResponse bulkTransition(@RequestBody BulkTransitionRequest request) {
+        TransitionRequest transition = request.getTransition();
         User actor = null;
-        if (request.getActorId() != null) {
-            actor = userService.findById(request.getActorId());
+        if (transition != null && transition.getActorId() != null) {
+            actor = userService.findById(transition.getActorId());
         }
-        return candidateService.transition(id, request, actor);
+        return candidateService.bulkTransition(request.getCandidateIds(), transition, actor);
+    }
+
+    @GetMapping("/{id}/allowed-transitions")
+    public AllowedTransitionsResponse getAllowedTransitions(@PathVariable Long id) {
+        return candidateService.getAllowedTransitions(id);
+    }
+
+    @PostMapping("/{id}/transition")
+    public ResponseEntity<?> transition(@PathVariable Long id, @RequestBody TransitionRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "POST /api/candidates/" + id + "/transition", request,
+                HttpStatus.OK, () -> {
+                    User actor = null;
+                    if (request.getActorId() != null) {
+                        actor = userService.findById(request.getActorId());
+                    }
+                    return candidateService.transition(id, request, actor);
+                });
     }
 
     @PostMapping("/{id}/substatus")
-    public Candidate updateSubStatus(@PathVariable Long id, @RequestBody SubStatusUpdateRequest request) {
-        User actor = null;
-        if (request.getActorId() != null) {
-            actor = userService.findById(request.getActorId());
-        }
-        return candidateService.updateSubStatus(id, request.getSubStatus(), request.getReason(), actor);
+    public ResponseEntity<?> updateSubStatus(@PathVariable Long id, @RequestBody SubStatusUpdateRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "POST /api/candidates/" + id + "/substatus", request,
+                HttpStatus.OK, () -> {
+                    User actor = null;
+                    if (request.getActorId() != null) {
+                        actor = userService.findById(request.getActorId());
+                    }
+                    return candidateService.updateSubStatus(id, request.getSubStatus(), request.getReason(), actor);
+                });
     }
 
     @GetMapping("/{id}/timeline")
-    public List<TimelineEvent> getTimeline(@PathVariable Long id) {
+    public List<TimelineEvent> getTimeline(@PathVariable Long id, WebRequest request) {
+        if (request.checkNotModified(candidateVersionService.timeline(id).getEtag())) {
+            return null;
+        }
         return candidateService.getTimeline(id);
     }
 
+    @GetMapping(value = "/{id}/timeline", params = "limit")
+    public CursorPage<TimelineEventView> getTimelinePage(@PathVariable Long id,
+            @RequestParam(required = false) Set<TimelineEventType> types,
+            @RequestParam(defaultValue = "false") boolean includeMeta,
+            @RequestParam(required = false) String cursor,
+            @RequestParam Integer limit) {
+        return candidateService.getTimelinePage(id, types, includeMeta, cursor, limit);
+    }
+
     @PostMapping("/{id}/timeline")
-    @ResponseStatus(HttpStatus.CREATED)
-    public TimelineEvent addTimelineEvent(@PathVariable Long id, @RequestBody TimelineEventRequest request) {
-        User actor = null;
-        if (request.getActorId() != null) {
-            actor = userService.findById(request.getActorId());
-        }
-        return candidateService.addTimelineEvent(id, request.getEventType(), request.getSubType(),
-                request.getTitle(), request.getDescription(), request.getCloseReason(),
-                request.getSubStatus(), request.getMetaJson(), request.getEventDate(), actor);
+    public ResponseEntity<?> addTimelineEvent(@PathVariable Long id, @RequestBody TimelineEventRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "POST /api/candidates/" + id + "/timeline", request,
+                HttpStatus.CREATED, () -> {
+                    User actor = null;
+                    if (request.getActorId() != null) {
+                        actor = userService.findById(request.getActorId());
+                    }
+                    return candidateService.addTimelineEvent(id, request.getEventType(), request.getSubType(),
+                            request.getTitle(), request.getDescription(), request.getCloseReason(),
+                            request.getSubStatus(), request.getMetaJson(), request.getEventDate(), actor);
+                });
     }
 }
@@ -0,0 +1,52 @@
+package com.vic.crm.controller;
+
+import com.vic.crm.enums.ExportFormat;
+import com.vic.crm.service.ExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/export")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private final ExportService exportService;
+
+    @GetMapping("/candidates")
+    public ResponseEntity<StreamingResponseBody> exportCandidates(
+            @RequestParam(defaultValue = "CSV") ExportFormat format) {
+        return stream("candidates", format, out -> exportService.exportCandidates(format, out));
+    }
+
+    @GetMapping("/timeline")
+    public ResponseEntity<StreamingResponseBody> exportTimeline(
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(required = false) Long candidateId) {
+        return stream("timeline", format, out -> exportService.exportTimeline(format, candidateId, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(String name, ExportFormat format, StreamingResponseBody body) {
+        String extension = format == ExportFormat.NDJSON ? "ndjson" : "csv";
+        MediaType contentType = format == ExportFormat.NDJSON
+                ? MediaType.APPLICATION_NDJSON
+                : new MediaType("text", "csv", StandardCharsets.UTF_8);
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename(name + "-" + LocalDate.now() + "." + extension)
+                .build();
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(body);
+    }
+}
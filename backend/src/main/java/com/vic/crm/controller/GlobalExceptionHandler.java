@@ -1,7 +1,10 @@
 package com.vic.crm.controller;
 
+import com.vic.crm.exception.DuplicateCandidateException;
+import com.vic.crm.exception.IdempotencyKeyInProgressException;
 import com.vic.crm.exception.InvalidTransitionException;
 import com.vic.crm.exception.ResourceNotFoundException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -31,6 +34,34 @@ public class GlobalExceptionHandler {
         ));
     }
 
+    @ExceptionHandler(DuplicateCandidateException.class)
+    public ResponseEntity<Map<String, Object>> handleDuplicate(DuplicateCandidateException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+            "error", "Duplicate Candidate",
+            "message", ex.getMessage(),
+            "duplicates", ex.getMatches(),
+            "timestamp", LocalDateTime.now()
+        ));
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> handleConcurrentUpdate(OptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+            "error", "Concurrent Update",
+            "message", "The record was modified by another request; reload and try again",
+            "timestamp", LocalDateTime.now()
+        ));
+    }
+
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    public ResponseEntity<Map<String, Object>> handleIdempotencyKeyInProgress(IdempotencyKeyInProgressException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+            "error", "Request In Progress",
+            "message", ex.getMessage(),
+            "timestamp", LocalDateTime.now()
+        ));
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Map<String, Object>> handleBadRequest(IllegalArgumentException ex) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
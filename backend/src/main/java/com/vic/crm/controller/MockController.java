@@ -1,7 +1,9 @@
 package com.vic.crm.controller;
 
 import com.vic.crm.entity.Mock;
+import com.vic.crm.service.IdempotencyService;
 import com.vic.crm.service.MockService;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -13,9 +15,11 @@ import java.util.List;
 public class MockController {
 
     private final MockService mockService;
+    private final IdempotencyService idempotencyService;
 
-    public MockController(MockService mockService) {
+    public MockController(MockService mockService, IdempotencyService idempotencyService) {
         this.mockService = mockService;
+        this.idempotencyService = idempotencyService;
     }
 
     @GetMapping
@@ -40,8 +44,10 @@ public class MockController {
     }
 
     @PostMapping
-    public Mock create(@RequestBody Mock mock) {
-        return mockService.create(mock);
+    public ResponseEntity<?> create(@RequestBody Mock mock,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "POST /api/mocks", mock, HttpStatus.OK,
+                () -> mockService.create(mock));
     }
 
     @PutMapping("/{id}")
@@ -0,0 +1,25 @@
+package com.vic.crm.controller;
+
+import com.vic.crm.dto.SearchResponse;
+import com.vic.crm.enums.SearchDocumentType;
+import com.vic.crm.service.SearchIndexService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final SearchIndexService searchIndexService;
+
+    @GetMapping
+    public SearchResponse search(@RequestParam String q,
+            @RequestParam(required = false) SearchDocumentType type,
+            @RequestParam(required = false) Integer limit) {
+        return searchIndexService.search(q, type, limit);
+    }
+}
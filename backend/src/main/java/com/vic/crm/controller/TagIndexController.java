@@ -0,0 +1,36 @@
+package com.vic.crm.controller;
+
+import com.vic.crm.dto.TagQueryResponse;
+import com.vic.crm.enums.TagIndexType;
+import com.vic.crm.service.TagIndexService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/tags")
+@RequiredArgsConstructor
+public class TagIndexController {
+
+    private final TagIndexService tagIndexService;
+
+    @GetMapping
+    public Map<String, Integer> getTagCounts(@RequestParam TagIndexType type) {
+        return tagIndexService.tagCounts(type);
+    }
+
+    @GetMapping("/search")
+    public TagQueryResponse search(@RequestParam TagIndexType type,
+            @RequestParam(required = false) List<String> all,
+            @RequestParam(required = false) List<String> any,
+            @RequestParam(required = false) List<String> none) {
+        long[] ids = tagIndexService.query(type, all, any, none);
+        TagQueryResponse response = new TagQueryResponse();
+        response.setType(type);
+        response.setCount(ids.length);
+        response.setIds(ids);
+        return response;
+    }
+}
@@ -1,5 +1,7 @@
 package com.vic.crm.controller;
 
+import com.vic.crm.dto.BulkOpportunityRequest;
+import com.vic.crm.dto.BulkOpportunityResponse;
 import com.vic.crm.dto.CreateAssessmentAttemptRequest;
 import com.vic.crm.dto.CreateOpportunityRequest;
 import com.vic.crm.dto.CreateVendorEngagementRequest;
@@ -57,4 +59,9 @@ public class VendorEngagementController {
             @RequestBody CreateOpportunityRequest request) {
         return opportunityService.create(id, request);
     }
+
+    @PostMapping("/opportunities:bulk")
+    public BulkOpportunityResponse createOpportunities(@RequestBody BulkOpportunityRequest request) {
+        return opportunityService.bulkCreate(request.getSubmissions());
+    }
 }
@@ -0,0 +1,28 @@
+package com.vic.crm.dto;
+
+import com.vic.crm.enums.CandidateStage;
+import com.vic.crm.enums.CandidateSubStatus;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class AllowedTransitionsResponse {
+    private Long candidateId;
+    private CandidateStage stage;
+    private CandidateSubStatus subStatus;
+    private List<Target> targets = new ArrayList<>();
+
+    @Data
+    public static class Target {
+        private CandidateStage toStage;
+        private CandidateSubStatus defaultSubStatus;
+        private List<CandidateSubStatus> subStatuses = new ArrayList<>();
+        // True when the candidate meets every state requirement; requiredFields still have to be
+        // supplied in the TransitionRequest.
+        private boolean ready;
+        private List<String> unmetRequirements = new ArrayList<>();
+        private List<String> requiredFields = new ArrayList<>();
+    }
+}
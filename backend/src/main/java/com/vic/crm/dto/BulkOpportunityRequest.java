@@ -0,0 +1,19 @@
+package com.vic.crm.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class BulkOpportunityRequest {
+    private List<Submission> submissions;
+
+    @Data
+    public static class Submission {
+        private Long vendorEngagementId;
+        private Long positionId;
+        private LocalDateTime submittedAt;
+        private List<Long> attachAttemptIds;
+    }
+}
@@ -0,0 +1,28 @@
+package com.vic.crm.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BulkOpportunityResponse {
+    private int requested;
+    private int succeeded;
+    private int failed;
+    private List<Result> results = new ArrayList<>();
+
+    /**
+     * Outcome of one submission, in request order. Failed submissions write nothing.
+     */
+    @Data
+    public static class Result {
+        private int index;
+        private Long vendorEngagementId;
+        private Long positionId;
+        private boolean success;
+        private Long opportunityId;
+        private List<Long> attachedAttemptIds = new ArrayList<>();
+        private String error;
+    }
+}
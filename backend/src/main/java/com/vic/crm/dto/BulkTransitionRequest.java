@@ -0,0 +1,11 @@
+package com.vic.crm.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkTransitionRequest {
+    private List<Long> candidateIds;
+    private TransitionRequest transition;
+}
@@ -0,0 +1,26 @@
+package com.vic.crm.dto;
+
+import com.vic.crm.enums.CandidateStage;
+import com.vic.crm.enums.CandidateSubStatus;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BulkTransitionResponse {
+    private int requested;
+    private int succeeded;
+    private int failed;
+    private List<Result> results = new ArrayList<>();
+
+    @Data
+    public static class Result {
+        private Long candidateId;
+        private boolean success;
+        private CandidateStage fromStage;
+        private CandidateStage toStage;
+        private CandidateSubStatus subStatus;
+        private String error;
+    }
+}
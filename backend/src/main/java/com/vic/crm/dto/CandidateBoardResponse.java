@@ -0,0 +1,19 @@
+package com.vic.crm.dto;
+
+import com.vic.crm.enums.CandidateStage;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CandidateBoardResponse {
+    private int cardsPerColumn;
+    private List<Column> columns;
+
+    @Data
+    public static class Column {
+        private CandidateStage stage;
+        private long total;
+        private List<CandidateCard> cards;
+    }
+}
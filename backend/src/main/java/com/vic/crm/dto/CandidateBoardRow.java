@@ -0,0 +1,23 @@
+package com.vic.crm.dto;
+
+import com.vic.crm.enums.CandidateStage;
+import com.vic.crm.enums.CandidateSubStatus;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * One board card plus the total number of candidates in its stage, as returned by the ranked
+ * board query.
+ */
+@Data
+public class CandidateBoardRow {
+    private final CandidateCard card;
+    private final long stageTotal;
+
+    public CandidateBoardRow(Long id, String name, CandidateStage stage, CandidateSubStatus subStatus,
+            LocalDateTime stageUpdatedAt, String recruiterName, String batchName, Long stageTotal) {
+        this.card = new CandidateCard(id, name, stage, subStatus, stageUpdatedAt, recruiterName, batchName);
+        this.stageTotal = stageTotal;
+    }
+}
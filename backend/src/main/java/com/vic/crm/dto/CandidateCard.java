@@ -0,0 +1,25 @@
+package com.vic.crm.dto;
+
+import com.vic.crm.enums.CandidateStage;
+import com.vic.crm.enums.CandidateSubStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pipeline board card. Built directly by a constructor projection, never from a Candidate entity.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CandidateCard {
+    private Long id;
+    private String name;
+    private CandidateStage stage;
+    private CandidateSubStatus subStatus;
+    private LocalDateTime stageUpdatedAt;
+    private String recruiterName;
+    private String batchName;
+}
@@ -0,0 +1,57 @@
+package com.vic.crm.dto;
+
+import com.vic.crm.enums.CandidateStage;
+import com.vic.crm.enums.CandidateSubStatus;
+import lombok.Data;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Server-side candidate filter. Every field is optional; the ones that are set are ANDed.
+ */
+@Data
+public class CandidateFilter {
+    private Set<CandidateStage> stages;
+    private Set<CandidateSubStatus> subStatuses;
+    private Long recruiterId;
+    private Long batchId;
+    private String workAuth;
+    private String city;
+    private String state;
+    private Boolean relocation;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime stageUpdatedFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime stageUpdatedTo;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+
+    private SortField sort = SortField.STAGE_UPDATED_AT;
+    private Sort.Direction direction = Sort.Direction.DESC;
+    private String cursor;
+    private Integer limit;
+
+    /**
+     * Keyset-compatible sort keys; each is paired with id as the tie-breaker.
+     */
+    public enum SortField {
+        STAGE_UPDATED_AT("stageUpdatedAt"),
+        CREATED_AT("createdAt");
+
+        private final String property;
+
+        SortField(String property) {
+            this.property = property;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+    }
+}
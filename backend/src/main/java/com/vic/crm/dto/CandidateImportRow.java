@@ -0,0 +1,29 @@
+package com.vic.crm.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+/**
+ * One CSV/NDJSON row of a bulk candidate import. Column names match the JSON field names.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CandidateImportRow {
+    private String name;
+    private String email;
+    private String phone;
+    private String wechatId;
+    private String wechatName;
+    private String discordName;
+    private String linkedinUrl;
+    private String techTags;
+    private String workAuth;
+    private String city;
+    private String state;
+    private Boolean relocation;
+    private String school;
+    private String major;
+    private Long batchId;
+    private Long recruiterId;
+    private String notes;
+}
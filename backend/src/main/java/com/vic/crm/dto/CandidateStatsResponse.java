@@ -0,0 +1,18 @@
+package com.vic.crm.dto;
+
+import com.vic.crm.enums.CandidateStage;
+import com.vic.crm.enums.CandidateSubStatus;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+public class CandidateStatsResponse {
+    private Long batchId;
+    private Long recruiterId;
+    private long total;
+    private Map<CandidateStage, Long> byStage;
+    private Map<CandidateStage, Map<CandidateSubStatus, Long>> byStageAndSubStatus;
+    private LocalDateTime reconciledAt;
+}
@@ -0,0 +1,15 @@
+package com.vic.crm.dto;
+
+import com.vic.crm.enums.DuplicateKeyType;
+import lombok.Data;
+
+import java.util.Set;
+
+@Data
+public class DuplicateMatch {
+    private Long candidateId;
+    private String name;
+    private Set<DuplicateKeyType> matchedOn;
+    private double nameSimilarity;
+    private double score;
+}
@@ -0,0 +1,17 @@
+package com.vic.crm.dto;
+
+import com.vic.crm.enums.DuplicateKeyType;
+import lombok.Data;
+
+import java.util.Set;
+
+@Data
+public class DuplicatePair {
+    private Long leftId;
+    private String leftName;
+    private Long rightId;
+    private String rightName;
+    private Set<DuplicateKeyType> matchedOn;
+    private double nameSimilarity;
+    private double score;
+}
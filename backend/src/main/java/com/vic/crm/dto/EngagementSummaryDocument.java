@@ -0,0 +1,17 @@
+package com.vic.crm.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stored payload of an engagement read model row. Its JSON has the same shape as the
+ * {@code attempts} and {@code opportunities} of both {@link CandidateEngagementResponse} and
+ * {@link VendorEngagementResponse}, so either response reads it directly.
+ */
+@Data
+public class EngagementSummaryDocument {
+    private List<CandidateEngagementResponse.AssessmentAttemptSummary> attempts = new ArrayList<>();
+    private List<CandidateEngagementResponse.OpportunitySummary> opportunities = new ArrayList<>();
+}
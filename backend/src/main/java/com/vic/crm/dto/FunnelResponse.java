@@ -0,0 +1,44 @@
+package com.vic.crm.dto;
+
+import com.vic.crm.enums.FunnelGranularity;
+import com.vic.crm.enums.FunnelScope;
+import com.vic.crm.enums.FunnelStage;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class FunnelResponse {
+    private FunnelScope scope;
+    private Long scopeId;
+    private FunnelGranularity granularity;
+    private LocalDate from;
+    private LocalDate to;
+    /** Totals over the whole range, one entry per funnel stage in funnel order. */
+    private List<StageCount> stages = new ArrayList<>();
+    /** Per-window counts, oldest first; windows with no activity are omitted. */
+    private List<Period> periods = new ArrayList<>();
+    private LocalDateTime rebuiltAt;
+
+    @Data
+    public static class Period {
+        private LocalDate periodStart;
+        private List<StageCount> stages = new ArrayList<>();
+    }
+
+    /**
+     * Completed attempts or steps of one stage and how many passed. Rates are null when their
+     * denominator is 0; conversionRate is relative to the previous stage's reached count.
+     */
+    @Data
+    public static class StageCount {
+        private FunnelStage stage;
+        private long reached;
+        private long passed;
+        private Double passRate;
+        private Double conversionRate;
+    }
+}
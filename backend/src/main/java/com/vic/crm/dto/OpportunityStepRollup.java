@@ -0,0 +1,29 @@
+package com.vic.crm.dto;
+
+import com.vic.crm.enums.StepResult;
+import com.vic.crm.enums.StepState;
+import com.vic.crm.enums.StepType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An opportunity's latest pipeline step plus the step counts its status is derived from. Built by
+ * a ranked constructor projection over all steps of a set of opportunities.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OpportunityStepRollup {
+    private Long opportunityId;
+    private Long latestStepId;
+    private StepType latestType;
+    private StepState latestState;
+    private StepResult latestResult;
+    private LocalDateTime latestHappenedAt;
+    private Long interviews;
+    private Long completedOffers;
+    private Long completedPlacements;
+}
@@ -0,0 +1,25 @@
+package com.vic.crm.dto;
+
+import com.vic.crm.enums.SearchDocumentType;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class SearchResponse {
+    private String query;
+    private long total;
+    private Map<SearchDocumentType, Long> facets;
+    private List<Hit> hits;
+
+    @Data
+    public static class Hit {
+        private SearchDocumentType type;
+        private Long id;
+        private Long candidateId;
+        private String title;
+        private String snippet;
+        private float score;
+    }
+}
@@ -0,0 +1,30 @@
+package com.vic.crm.dto;
+
+import com.vic.crm.enums.CandidateStage;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class StageDwellResponse {
+    private Long batchId;
+    private Long recruiterId;
+    private List<StageDwell> stages = new ArrayList<>();
+    private LocalDateTime rebuiltAt;
+
+    /**
+     * Completed stays in one stage, in milliseconds. Percentiles are null when count is 0.
+     */
+    @Data
+    public static class StageDwell {
+        private CandidateStage stage;
+        private long count;
+        private Long p50Ms;
+        private Long p90Ms;
+        private Long p99Ms;
+        private Long maxMs;
+        private Double meanMs;
+    }
+}
@@ -0,0 +1,11 @@
+package com.vic.crm.dto;
+
+import com.vic.crm.enums.TagIndexType;
+import lombok.Data;
+
+@Data
+public class TagQueryResponse {
+    private TagIndexType type;
+    private int count;
+    private long[] ids;
+}
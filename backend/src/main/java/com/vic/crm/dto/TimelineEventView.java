@@ -0,0 +1,34 @@
+package com.vic.crm.dto;
+
+import com.vic.crm.enums.CandidateStage;
+import com.vic.crm.enums.CandidateSubStatus;
+import com.vic.crm.enums.CloseReason;
+import com.vic.crm.enums.TimelineEventType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Timeline page row. Built directly by a constructor projection, so the actor is only its id and
+ * name and {@code metaJson} is only read when the caller asks for it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimelineEventView {
+    private Long id;
+    private TimelineEventType eventType;
+    private String subType;
+    private CandidateStage fromStage;
+    private CandidateStage toStage;
+    private CandidateSubStatus subStatus;
+    private CloseReason closeReason;
+    private String title;
+    private String description;
+    private Long createdById;
+    private String createdByName;
+    private LocalDateTime eventDate;
+    private String metaJson;
+}
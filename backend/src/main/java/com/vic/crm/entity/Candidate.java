@@ -16,7 +16,19 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "candidates")
+@Table(name = "candidates",
+        indexes = {
+                @Index(name = "idx_candidate_stage_updated", columnList = "stage_updated_at, id"),
+                @Index(name = "idx_candidate_board", columnList = "stage, stage_updated_at, id"),
+                @Index(name = "idx_candidate_sub_status", columnList = "sub_status, stage_updated_at, id"),
+                @Index(name = "idx_candidate_recruiter", columnList = "recruiter_id, stage_updated_at, id"),
+                @Index(name = "idx_candidate_batch", columnList = "batch_id, stage_updated_at, id"),
+                @Index(name = "idx_candidate_work_auth", columnList = "work_auth, stage_updated_at, id"),
+                @Index(name = "idx_candidate_location", columnList = "state, city, stage_updated_at, id"),
+                @Index(name = "idx_candidate_relocation", columnList = "relocation, stage_updated_at, id"),
+                @Index(name = "idx_candidate_created", columnList = "created_at, id"),
+                @Index(name = "idx_candidate_follow_up", columnList = "stage, next_follow_up_at")
+        })
 @Data
 @Builder
 @NoArgsConstructor
@@ -27,6 +39,10 @@ public class Candidate {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Optimistic lock: a concurrent write to the same row fails instead of being silently lost
+    @Version
+    private Long version;
+
     @Column(nullable = false)
     private String name;
 
@@ -63,6 +79,8 @@ public class Candidate {
     @Enumerated(EnumType.STRING)
     private CandidateStage lastActiveStage;
 
+    // Keyset pages order by this column, so it must never be null
+    @Column(nullable = false)
     private LocalDateTime stageUpdatedAt;
 
     // Hold/close/reactivate metadata
@@ -108,4 +126,11 @@ public class Candidate {
 
     @UpdateTimestamp
     private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (stageUpdatedAt == null) {
+            stageUpdatedAt = LocalDateTime.now();
+        }
+    }
 }
@@ -0,0 +1,47 @@
+package com.vic.crm.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model of one {@link VendorEngagement}: its attempts and opportunities (with position and
+ * client names and each opportunity's latest step) as a single JSON document of
+ * {@link com.vic.crm.dto.EngagementSummaryDocument}. Rebuilt whenever something it contains
+ * changes, so the candidate and vendor engagement pages each read one indexed query.
+ */
+@Entity
+@Table(name = "engagement_summaries",
+        indexes = {
+                @Index(name = "idx_engagement_summary_candidate", columnList = "candidate_id, engagement_id"),
+                @Index(name = "idx_engagement_summary_vendor", columnList = "vendor_id, engagement_created_at")
+        })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EngagementSummary {
+
+    @Id
+    @Column(name = "engagement_id")
+    private Long engagementId;
+
+    @Column(name = "candidate_id", nullable = false)
+    private Long candidateId;
+
+    @Column(name = "vendor_id", nullable = false)
+    private Long vendorId;
+
+    @Column(name = "engagement_created_at")
+    private LocalDateTime engagementCreatedAt;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime rebuiltAt;
+}
@@ -0,0 +1,56 @@
+package com.vic.crm.entity;
+
+import com.vic.crm.enums.FunnelGranularity;
+import com.vic.crm.enums.FunnelScope;
+import com.vic.crm.enums.FunnelStage;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated funnel counts of one vendor or client, funnel stage and day, week or month:
+ * how many attempts or steps of that stage were completed in the window and how many of those
+ * passed. Maintained incrementally by FunnelRollupService and rebuilt from scratch periodically.
+ */
+@Entity
+@Table(name = "funnel_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_funnel_rollup_key",
+                columnNames = { "scope", "scope_id", "granularity", "period_start", "stage" }))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FunnelRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private FunnelScope scope;
+
+    @Column(name = "scope_id", nullable = false)
+    private Long scopeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private FunnelGranularity granularity;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private FunnelStage stage;
+
+    @Column(nullable = false)
+    private long reached;
+
+    @Column(nullable = false)
+    private long passed;
+}
@@ -0,0 +1,58 @@
+package com.vic.crm.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A client-supplied Idempotency-Key and the response of the request that first used it. The row
+ * is reserved (statusCode null) before the request runs and completed with the serialized
+ * response afterwards, so a retry with the same key replays the stored response. A reservation
+ * whose {@code reservedAt} is older than the lease may be re-claimed by a retry.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_created_at", columnList = "createdAt"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyKey {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "idempotency_key", nullable = false, unique = true)
+    private String key;
+
+    // md5 of method, path and request body; a reused key must come with the same request
+    @Column(nullable = false, length = 32)
+    private String fingerprint;
+
+    // Null while the original request is still running
+    private Integer statusCode;
+
+    @Column(columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Start of the current reservation lease; also identifies the holder
+    @Column(nullable = false)
+    private LocalDateTime reservedAt;
+
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (reservedAt == null) {
+            reservedAt = createdAt;
+        }
+    }
+}
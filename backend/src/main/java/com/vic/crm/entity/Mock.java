@@ -25,6 +25,10 @@ public class Mock {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Optimistic lock: a concurrent write to the same row fails instead of being silently lost
+    @Version
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "candidate_id", nullable = false)
     @JsonIgnoreProperties({ "hibernateLazyInitializer", "handler", "batch", "recruiter" })
@@ -28,6 +28,10 @@ public class Opportunity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Optimistic lock: a concurrent write to the same row fails instead of being silently lost
+    @Version
+    private Long version;
+
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "vendor_engagement_id", nullable = false)
     private VendorEngagement vendorEngagement;
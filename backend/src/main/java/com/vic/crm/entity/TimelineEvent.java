@@ -18,7 +18,10 @@ import java.time.LocalDateTime;
  * Replaces simple stage transitions with comprehensive event tracking.
  */
 @Entity
-@Table(name = "timeline_events")
+@Table(name = "timeline_events",
+        indexes = {
+                @Index(name = "idx_timeline_candidate_date", columnList = "candidate_id, event_date, id")
+        })
 @Data
 @Builder
 @NoArgsConstructor
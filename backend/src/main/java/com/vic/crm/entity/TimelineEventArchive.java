@@ -0,0 +1,50 @@
+package com.vic.crm.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cold tier of the timeline: every archived event of one candidate, gzip-compressed as a single
+ * JSON array of {@link com.vic.crm.dto.TimelineEventView} rows. Events are moved here from
+ * {@code timeline_events} once the candidate has been in a terminal stage long enough.
+ */
+@Entity
+@Table(name = "timeline_event_archives")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimelineEventArchive {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @JsonIgnore
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "candidate_id", nullable = false, unique = true)
+    private Candidate candidate;
+
+    @Column(nullable = false)
+    private Integer eventCount;
+
+    private LocalDateTime firstEventDate;
+
+    private LocalDateTime lastEventDate;
+
+    @JsonIgnore
+    @JdbcTypeCode(SqlTypes.LONG32VARBINARY)
+    @Column(nullable = false)
+    private byte[] payload;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
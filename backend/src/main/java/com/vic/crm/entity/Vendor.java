@@ -6,6 +6,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -36,13 +38,16 @@ public class Vendor {
     @Column(columnDefinition = "TEXT")
     private String notes;
 
+    // Eager collections of every vendor a query returns load in one subselect each, not per vendor
     @ManyToMany(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SUBSELECT)
     @JoinTable(name = "vendor_clients", joinColumns = @JoinColumn(name = "vendor_id"), inverseJoinColumns = @JoinColumn(name = "client_id"))
     @Builder.Default
     private Set<Client> clients = new HashSet<>();
 
     // Vendor's contacts with full details
     @ElementCollection(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SUBSELECT)
     @CollectionTable(name = "vendor_contacts", joinColumns = @JoinColumn(name = "vendor_id"))
     @Builder.Default
     private List<VendorContact> contacts = new ArrayList<>();
@@ -0,0 +1,12 @@
+package com.vic.crm.enums;
+
+/**
+ * Normalized contact identifiers used to block candidates for duplicate detection.
+ */
+public enum DuplicateKeyType {
+    EMAIL,
+    PHONE,
+    WECHAT_ID,
+    DISCORD_NAME,
+    LINKEDIN_URL
+}
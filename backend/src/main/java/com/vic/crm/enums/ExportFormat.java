@@ -0,0 +1,9 @@
+package com.vic.crm.enums;
+
+/**
+ * Output formats of the streaming exports.
+ */
+public enum ExportFormat {
+    CSV, // text/csv with a header row
+    NDJSON // application/x-ndjson, one JSON object per line
+}
@@ -0,0 +1,9 @@
+package com.vic.crm.enums;
+
+/**
+ * What a funnel rollup row is aggregated by.
+ */
+public enum FunnelScope {
+    VENDOR,
+    CLIENT
+}
@@ -0,0 +1,32 @@
+package com.vic.crm.enums;
+
+/**
+ * Stages of the vendor conversion funnel, in funnel order. OA and VENDOR_SCREENING come from
+ * assessment attempts, the rest from pipeline steps of the same type.
+ */
+public enum FunnelStage {
+    OA,
+    VENDOR_SCREENING,
+    CLIENT_INTERVIEW,
+    OFFER,
+    PLACED;
+
+    public static FunnelStage of(AssessmentType type) {
+        return type == null ? null : switch (type) {
+            case OA -> OA;
+            case VENDOR_SCREENING -> VENDOR_SCREENING;
+        };
+    }
+
+    /**
+     * Funnel stage of a pipeline step type; null for types outside the funnel.
+     */
+    public static FunnelStage of(StepType type) {
+        return type == null ? null : switch (type) {
+            case CLIENT_INTERVIEW -> CLIENT_INTERVIEW;
+            case OFFER -> OFFER;
+            case PLACED -> PLACED;
+            default -> null;
+        };
+    }
+}
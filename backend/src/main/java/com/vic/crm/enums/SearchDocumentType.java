@@ -0,0 +1,11 @@
+package com.vic.crm.enums;
+
+/**
+ * Entity families indexed for full-text search.
+ */
+public enum SearchDocumentType {
+    CANDIDATE, // Candidate.notes
+    TIMELINE_EVENT, // TimelineEvent.title/description
+    MOCK, // Mock.strengths/weaknesses/summary
+    INTERVIEW_EXPERIENCE // InterviewExperience.notes
+}
@@ -0,0 +1,10 @@
+package com.vic.crm.enums;
+
+/**
+ * Entity families covered by the in-memory tech tag index.
+ */
+public enum TagIndexType {
+    CANDIDATE, // Candidate.techTags
+    POSITION, // Position.track
+    INTERVIEW_EXPERIENCE // InterviewExperience.techTags
+}
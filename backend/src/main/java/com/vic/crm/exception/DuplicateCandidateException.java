@@ -0,0 +1,18 @@
+package com.vic.crm.exception;
+
+import com.vic.crm.dto.DuplicateMatch;
+
+import java.util.List;
+
+public class DuplicateCandidateException extends RuntimeException {
+    private final List<DuplicateMatch> matches;
+
+    public DuplicateCandidateException(String message, List<DuplicateMatch> matches) {
+        super(message);
+        this.matches = matches;
+    }
+
+    public List<DuplicateMatch> getMatches() {
+        return matches;
+    }
+}
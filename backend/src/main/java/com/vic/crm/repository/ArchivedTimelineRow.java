@@ -0,0 +1,13 @@
+package com.vic.crm.repository;
+
+/**
+ * Interface projection streamed by the timeline export for the cold tier: one compressed
+ * payload per archived candidate.
+ */
+public interface ArchivedTimelineRow {
+    Long getCandidateId();
+
+    String getCandidateName();
+
+    byte[] getPayload();
+}
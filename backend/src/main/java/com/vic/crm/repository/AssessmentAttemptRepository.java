@@ -2,16 +2,24 @@ package com.vic.crm.repository;
 
 import com.vic.crm.entity.AssessmentAttempt;
 import com.vic.crm.enums.AssessmentType;
+import com.vic.crm.enums.StepState;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface AssessmentAttemptRepository extends JpaRepository<AssessmentAttempt, Long> {
 
     List<AssessmentAttempt> findByVendorEngagementIdOrderByHappenedAtDesc(Long vendorEngagementId);
 
+    List<AssessmentAttempt> findByVendorEngagementIdInOrderByHappenedAtDesc(Collection<Long> vendorEngagementIds);
+
     @Query("""
             select attempt from AssessmentAttempt attempt
             where attempt.vendorEngagement.id = :engagementId
@@ -22,4 +30,30 @@ public interface AssessmentAttemptRepository extends JpaRepository<AssessmentAtt
     List<AssessmentAttempt> findFiltered(@Param("engagementId") Long engagementId,
                                          @Param("attemptType") AssessmentType attemptType,
                                          @Param("track") String track);
+
+    @Query("""
+            select count(attempt) as total, max(attempt.id) as maxId, max(attempt.updatedAt) as lastUpdatedAt
+            from AssessmentAttempt attempt
+            where attempt.vendorEngagement.candidate.id = :candidateId
+            """)
+    VersionStamp findVersionByCandidateId(@Param("candidateId") Long candidateId);
+
+    @Query("""
+            select attempt.id as id, attempt.vendorEngagement.id as engagementId
+            from AssessmentAttempt attempt
+            where attempt.id in :ids
+            """)
+    List<AttemptOwnerRow> findOwnersByIds(@Param("ids") Collection<Long> ids);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = CandidateRepository.EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select attempt.vendorEngagement.vendor.id as vendorId, attempt.attemptType as attemptType,
+                   attempt.result as result, attempt.happenedAt as happenedAt
+            from AssessmentAttempt attempt
+            where attempt.state = :completed and attempt.happenedAt is not null
+            """)
+    Stream<AttemptFunnelRow> streamFunnelFacts(@Param("completed") StepState completed);
 }
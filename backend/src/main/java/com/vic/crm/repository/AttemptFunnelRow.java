@@ -0,0 +1,19 @@
+package com.vic.crm.repository;
+
+import com.vic.crm.enums.AssessmentType;
+import com.vic.crm.enums.StepResult;
+
+import java.time.LocalDateTime;
+
+/**
+ * Interface projection streamed by the funnel rebuild: one completed assessment attempt.
+ */
+public interface AttemptFunnelRow {
+    Long getVendorId();
+
+    AssessmentType getAttemptType();
+
+    StepResult getResult();
+
+    LocalDateTime getHappenedAt();
+}
@@ -0,0 +1,11 @@
+package com.vic.crm.repository;
+
+/**
+ * Interface projection of an assessment attempt's id and the vendor engagement it belongs to,
+ * for ownership checks before linking attempts to opportunities.
+ */
+public interface AttemptOwnerRow {
+    Long getId();
+
+    Long getEngagementId();
+}
@@ -0,0 +1,12 @@
+package com.vic.crm.repository;
+
+/**
+ * Interface projection of a candidate's current batch and recruiter.
+ */
+public interface CandidateAssignmentRow {
+    Long getCandidateId();
+
+    Long getBatchId();
+
+    Long getRecruiterId();
+}
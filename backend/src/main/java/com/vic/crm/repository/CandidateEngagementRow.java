@@ -0,0 +1,25 @@
+package com.vic.crm.repository;
+
+import com.vic.crm.enums.EngagementStatus;
+
+/**
+ * Interface projection of one engagement on the candidate page: the engagement, its vendor and
+ * the stored summary document.
+ */
+public interface CandidateEngagementRow {
+    Long getId();
+
+    EngagementStatus getStatus();
+
+    Long getVendorId();
+
+    String getVendorCompanyName();
+
+    String getVendorContactName();
+
+    String getVendorEmail();
+
+    String getVendorPhone();
+
+    String getPayload();
+}
@@ -0,0 +1,57 @@
+package com.vic.crm.repository;
+
+import com.vic.crm.enums.CandidateStage;
+import com.vic.crm.enums.CandidateSubStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Interface projection streamed by the candidate export; associations are flattened to names.
+ */
+public interface CandidateExportRow {
+    Long getId();
+
+    String getName();
+
+    String getEmail();
+
+    String getPhone();
+
+    String getWechatId();
+
+    String getWechatName();
+
+    String getDiscordName();
+
+    String getLinkedinUrl();
+
+    String getTechTags();
+
+    String getWorkAuth();
+
+    String getCity();
+
+    String getState();
+
+    Boolean getRelocation();
+
+    String getSchool();
+
+    String getMajor();
+
+    CandidateStage getStage();
+
+    CandidateSubStatus getSubStatus();
+
+    LocalDateTime getStageUpdatedAt();
+
+    String getBatchName();
+
+    String getRecruiterName();
+
+    String getNotes();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,20 @@
+package com.vic.crm.repository;
+
+/**
+ * Interface projection of the identifying fields used by duplicate detection.
+ */
+public interface CandidateIdentityRow {
+    Long getId();
+
+    String getName();
+
+    String getEmail();
+
+    String getPhone();
+
+    String getWechatId();
+
+    String getDiscordName();
+
+    String getLinkedinUrl();
+}
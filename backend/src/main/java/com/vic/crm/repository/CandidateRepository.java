@@ -1,14 +1,153 @@
 package com.vic.crm.repository;
 
+import com.vic.crm.dto.CandidateBoardRow;
 import com.vic.crm.entity.Candidate;
 import com.vic.crm.enums.CandidateStage;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface CandidateRepository extends JpaRepository<Candidate, Long> {
+public interface CandidateRepository extends JpaRepository<Candidate, Long>, JpaSpecificationExecutor<Candidate> {
+    String EXPORT_FETCH_SIZE = "500";
+
     List<Candidate> findByStage(CandidateStage stage);
     List<Candidate> findByBatchId(Long batchId);
+
+    @Query("select c.id from Candidate c where c.batch.id = :batchId and c.stage = :stage")
+    List<Long> findIdsByBatchIdAndStage(@Param("batchId") Long batchId, @Param("stage") CandidateStage stage);
+
+    // Keyset pages, newest stage change first. Batch, trainer and recruiter are join-fetched
+    // so a page costs one statement instead of one per EAGER association.
+    @EntityGraph(attributePaths = { "batch", "batch.trainer", "recruiter" })
+    @Query("""
+            select c from Candidate c
+            where (:stage is null or c.stage = :stage)
+            order by c.stageUpdatedAt desc, c.id desc
+            """)
+    List<Candidate> findFirstPage(@Param("stage") CandidateStage stage, Pageable pageable);
+
+    @EntityGraph(attributePaths = { "batch", "batch.trainer", "recruiter" })
+    @Query("""
+            select c from Candidate c
+            where (:stage is null or c.stage = :stage)
+              and (c.stageUpdatedAt < :stageUpdatedAt
+                   or (c.stageUpdatedAt = :stageUpdatedAt and c.id < :id))
+            order by c.stageUpdatedAt desc, c.id desc
+            """)
+    List<Candidate> findPageAfter(@Param("stage") CandidateStage stage,
+                                  @Param("stageUpdatedAt") LocalDateTime stageUpdatedAt,
+                                  @Param("id") Long id,
+                                  Pageable pageable);
+
+    // Board cards: the newest :perStage rows of every stage in a single ranked query, each
+    // carrying its stage's total, projected straight into CandidateBoardRow so no entity (or its
+    // TEXT columns) is hydrated and no separate count query is needed.
+    @Query("""
+            select new com.vic.crm.dto.CandidateBoardRow(ranked.id, ranked.name, ranked.stage, ranked.subStatus,
+                   ranked.stageUpdatedAt, ranked.recruiterName, ranked.batchName, ranked.stageTotal)
+            from (
+                select c.id as id, c.name as name, c.stage as stage, c.subStatus as subStatus,
+                       c.stageUpdatedAt as stageUpdatedAt, r.name as recruiterName, b.name as batchName,
+                       row_number() over (partition by c.stage order by c.stageUpdatedAt desc, c.id desc) as rn,
+                       count(*) over (partition by c.stage) as stageTotal
+                from Candidate c
+                left join c.recruiter r
+                left join c.batch b
+            ) ranked
+            where ranked.rn <= :perStage
+            order by ranked.stage, ranked.stageUpdatedAt desc, ranked.id desc
+            """)
+    List<CandidateBoardRow> findBoardCards(@Param("perStage") int perStage);
+
+    @Query("""
+            select c.version as version, c.updatedAt as updatedAt, b.updatedAt as batchUpdatedAt,
+                   t.updatedAt as trainerUpdatedAt, r.updatedAt as recruiterUpdatedAt
+            from Candidate c
+            left join c.batch b
+            left join b.trainer t
+            left join c.recruiter r
+            where c.id = :id
+            """)
+    Optional<CandidateVersionRow> findVersionById(@Param("id") Long id);
+
+    // Candidates after {@code afterId} that have sat in one of {@code stages} since before
+    // {@code cutoff} and still have events in the hot timeline table
+    @Query("""
+            select c.id from Candidate c
+            where c.stage in :stages
+              and c.stageUpdatedAt < :cutoff
+              and c.id > :afterId
+              and exists (select 1 from TimelineEvent e where e.candidate = c)
+            order by c.id
+            """)
+    List<Long> findIdsWithTimelineToArchive(@Param("stages") Collection<CandidateStage> stages,
+            @Param("cutoff") LocalDateTime cutoff, @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    // Served by idx_candidate_follow_up (stage, next_follow_up_at)
+    @Query("""
+            select c.id as candidateId, c.nextFollowUpAt as nextFollowUpAt from Candidate c
+            where c.stage = :stage and c.nextFollowUpAt is not null
+            """)
+    List<FollowUpRow> findFollowUps(@Param("stage") CandidateStage stage);
+
+    @Query("select c.id as id, c.techTags as tags from Candidate c where c.techTags is not null")
+    List<TaggedRow> findAllTechTags();
+
+    @Query("""
+            select c.id as id, c.id as candidateId, c.name as title, c.notes as body
+            from Candidate c
+            """)
+    Stream<SearchSourceRow> streamSearchSource();
+
+    @Query("""
+            select c.id as id, c.name as name, c.email as email, c.phone as phone, c.wechatId as wechatId,
+                   c.discordName as discordName, c.linkedinUrl as linkedinUrl
+            from Candidate c
+            """)
+    List<CandidateIdentityRow> findAllIdentities();
+
+    // Export cursor: rows are projections, so nothing accumulates in the persistence context
+    // and the driver fetches EXPORT_FETCH_SIZE rows per round trip.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select c.id as id, c.name as name, c.email as email, c.phone as phone, c.wechatId as wechatId,
+                   c.wechatName as wechatName, c.discordName as discordName, c.linkedinUrl as linkedinUrl,
+                   c.techTags as techTags, c.workAuth as workAuth, c.city as city, c.state as state,
+                   c.relocation as relocation, c.school as school, c.major as major, c.stage as stage,
+                   c.subStatus as subStatus, c.stageUpdatedAt as stageUpdatedAt, b.name as batchName,
+                   r.name as recruiterName, c.notes as notes, c.createdAt as createdAt, c.updatedAt as updatedAt
+            from Candidate c
+            left join c.batch b
+            left join c.recruiter r
+            order by c.id
+            """)
+    Stream<CandidateExportRow> streamExport();
+
+    @Query("""
+            select c.stage as stage, c.subStatus as subStatus, b.id as batchId, r.id as recruiterId,
+                   count(c) as total
+            from Candidate c
+            left join c.batch b
+            left join c.recruiter r
+            group by c.stage, c.subStatus, b.id, r.id
+            """)
+    List<CandidateStatusCount> countByStatus();
 }
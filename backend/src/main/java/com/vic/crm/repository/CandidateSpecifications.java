@@ -0,0 +1,99 @@
+package com.vic.crm.repository;
+
+import com.vic.crm.dto.CandidateFilter;
+import com.vic.crm.entity.Batch;
+import com.vic.crm.entity.Candidate;
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria building blocks for {@link CandidateFilter}. Each supported filter shape lines up
+ * with one of the composite indexes declared on {@link Candidate}.
+ */
+public final class CandidateSpecifications {
+
+    private CandidateSpecifications() {
+    }
+
+    public static Specification<Candidate> matching(CandidateFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.getStages() != null && !filter.getStages().isEmpty()) {
+                predicates.add(root.get("stage").in(filter.getStages()));
+            }
+            if (filter.getSubStatuses() != null && !filter.getSubStatuses().isEmpty()) {
+                predicates.add(root.get("subStatus").in(filter.getSubStatuses()));
+            }
+            if (filter.getRecruiterId() != null) {
+                predicates.add(cb.equal(root.get("recruiter").get("id"), filter.getRecruiterId()));
+            }
+            if (filter.getBatchId() != null) {
+                predicates.add(cb.equal(root.get("batch").get("id"), filter.getBatchId()));
+            }
+            if (filter.getWorkAuth() != null) {
+                predicates.add(cb.equal(root.get("workAuth"), filter.getWorkAuth()));
+            }
+            if (filter.getState() != null) {
+                predicates.add(cb.equal(root.get("state"), filter.getState()));
+            }
+            if (filter.getCity() != null) {
+                predicates.add(cb.equal(root.get("city"), filter.getCity()));
+            }
+            if (filter.getRelocation() != null) {
+                predicates.add(cb.equal(root.get("relocation"), filter.getRelocation()));
+            }
+            if (filter.getStageUpdatedFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("stageUpdatedAt"), filter.getStageUpdatedFrom()));
+            }
+            if (filter.getStageUpdatedTo() != null) {
+                predicates.add(cb.lessThan(root.get("stageUpdatedAt"), filter.getStageUpdatedTo()));
+            }
+            if (filter.getCreatedFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), filter.getCreatedFrom()));
+            }
+            if (filter.getCreatedTo() != null) {
+                predicates.add(cb.lessThan(root.get("createdAt"), filter.getCreatedTo()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Rows strictly after the (sortValue, id) position in the given direction.
+     */
+    public static Specification<Candidate> after(String sortProperty, Sort.Direction direction,
+            LocalDateTime sortValue, Long id) {
+        return (root, query, cb) -> {
+            Path<LocalDateTime> key = root.get(sortProperty);
+            Path<Long> idPath = root.get("id");
+            if (direction == Sort.Direction.ASC) {
+                return cb.or(cb.greaterThan(key, sortValue),
+                        cb.and(cb.equal(key, sortValue), cb.greaterThan(idPath, id)));
+            }
+            return cb.or(cb.lessThan(key, sortValue),
+                    cb.and(cb.equal(key, sortValue), cb.lessThan(idPath, id)));
+        };
+    }
+
+    /**
+     * Join-fetch the EAGER associations the list view serializes, so a page is one statement.
+     */
+    public static Specification<Candidate> fetchAssociations() {
+        return (root, query, cb) -> {
+            if (query != null && !Long.class.equals(query.getResultType())) {
+                Fetch<Candidate, Batch> batch = root.fetch("batch", JoinType.LEFT);
+                batch.fetch("trainer", JoinType.LEFT);
+                root.fetch("recruiter", JoinType.LEFT);
+            }
+            return null;
+        };
+    }
+}
@@ -0,0 +1,19 @@
+package com.vic.crm.repository;
+
+import com.vic.crm.enums.CandidateStage;
+import com.vic.crm.enums.CandidateSubStatus;
+
+/**
+ * Interface projection for candidate counts grouped by stage, sub-status, batch and recruiter.
+ */
+public interface CandidateStatusCount {
+    CandidateStage getStage();
+
+    CandidateSubStatus getSubStatus();
+
+    Long getBatchId();
+
+    Long getRecruiterId();
+
+    long getTotal();
+}
@@ -0,0 +1,19 @@
+package com.vic.crm.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Everything the candidate body depends on: the candidate's own version and update time plus
+ * those of the EAGER batch (and its trainer) and recruiter embedded in it.
+ */
+public interface CandidateVersionRow {
+    Long getVersion();
+
+    LocalDateTime getUpdatedAt();
+
+    LocalDateTime getBatchUpdatedAt();
+
+    LocalDateTime getTrainerUpdatedAt();
+
+    LocalDateTime getRecruiterUpdatedAt();
+}
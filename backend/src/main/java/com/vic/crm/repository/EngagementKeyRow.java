@@ -0,0 +1,16 @@
+package com.vic.crm.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Interface projection of the keys an engagement summary row is indexed by.
+ */
+public interface EngagementKeyRow {
+    Long getId();
+
+    Long getCandidateId();
+
+    Long getVendorId();
+
+    LocalDateTime getCreatedAt();
+}
@@ -0,0 +1,26 @@
+package com.vic.crm.repository;
+
+import com.vic.crm.enums.OpportunityStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Interface projection of an opportunity as shown in its engagement's summary.
+ */
+public interface EngagementOpportunityRow {
+    Long getId();
+
+    Long getEngagementId();
+
+    Long getPositionId();
+
+    String getPositionTitle();
+
+    Long getClientId();
+
+    String getClientName();
+
+    OpportunityStatus getStatus();
+
+    LocalDateTime getSubmittedAt();
+}
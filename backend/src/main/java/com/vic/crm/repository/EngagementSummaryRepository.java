@@ -0,0 +1,37 @@
+package com.vic.crm.repository;
+
+import com.vic.crm.entity.EngagementSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface EngagementSummaryRepository extends JpaRepository<EngagementSummary, Long> {
+
+    // Served by idx_engagement_summary_candidate; engagement and vendor are joined by primary key
+    @Query("""
+            select s.engagementId as id, ve.status as status, v.id as vendorId,
+                   v.companyName as vendorCompanyName, v.contactName as vendorContactName,
+                   v.email as vendorEmail, v.phone as vendorPhone, s.payload as payload
+            from EngagementSummary s
+            join VendorEngagement ve on ve.id = s.engagementId
+            join ve.vendor v
+            where s.candidateId = :candidateId
+            order by s.engagementId
+            """)
+    List<CandidateEngagementRow> findByCandidateId(@Param("candidateId") Long candidateId);
+
+    // Served by idx_engagement_summary_vendor; engagement and candidate are joined by primary key
+    @Query("""
+            select s.engagementId as id, ve.status as status, c.id as candidateId,
+                   c.name as candidateName, c.email as candidateEmail, c.phone as candidatePhone,
+                   s.payload as payload
+            from EngagementSummary s
+            join VendorEngagement ve on ve.id = s.engagementId
+            join ve.candidate c
+            where s.vendorId = :vendorId
+            order by s.engagementCreatedAt desc
+            """)
+    List<VendorEngagementRow> findByVendorId(@Param("vendorId") Long vendorId);
+}
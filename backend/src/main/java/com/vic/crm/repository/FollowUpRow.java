@@ -0,0 +1,12 @@
+package com.vic.crm.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Interface projection of a candidate's pending follow-up time.
+ */
+public interface FollowUpRow {
+    Long getCandidateId();
+
+    LocalDateTime getNextFollowUpAt();
+}
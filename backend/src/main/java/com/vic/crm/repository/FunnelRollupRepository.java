@@ -0,0 +1,56 @@
+package com.vic.crm.repository;
+
+import com.vic.crm.entity.FunnelRollup;
+import com.vic.crm.enums.FunnelGranularity;
+import com.vic.crm.enums.FunnelScope;
+import com.vic.crm.enums.FunnelStage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface FunnelRollupRepository extends JpaRepository<FunnelRollup, Long> {
+
+    @Query("""
+            select r from FunnelRollup r
+            where r.scope = :scope and r.scopeId = :scopeId and r.granularity = :granularity
+              and r.periodStart between :from and :to
+            order by r.periodStart, r.stage
+            """)
+    List<FunnelRollup> findPeriods(@Param("scope") FunnelScope scope,
+                                   @Param("scopeId") Long scopeId,
+                                   @Param("granularity") FunnelGranularity granularity,
+                                   @Param("from") LocalDate from,
+                                   @Param("to") LocalDate to);
+
+    @Query("""
+            select r.scopeId as scopeId, r.stage as stage, sum(r.reached) as reached, sum(r.passed) as passed
+            from FunnelRollup r
+            where r.scope = :scope and r.granularity = :granularity
+              and r.periodStart between :from and :to
+            group by r.scopeId, r.stage
+            order by r.scopeId, r.stage
+            """)
+    List<FunnelStageTotal> sumByScopeId(@Param("scope") FunnelScope scope,
+                                        @Param("granularity") FunnelGranularity granularity,
+                                        @Param("from") LocalDate from,
+                                        @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("""
+            update FunnelRollup r
+            set r.reached = r.reached + :reached, r.passed = r.passed + :passed
+            where r.scope = :scope and r.scopeId = :scopeId and r.granularity = :granularity
+              and r.periodStart = :periodStart and r.stage = :stage
+            """)
+    int addCounts(@Param("scope") FunnelScope scope,
+                  @Param("scopeId") Long scopeId,
+                  @Param("granularity") FunnelGranularity granularity,
+                  @Param("periodStart") LocalDate periodStart,
+                  @Param("stage") FunnelStage stage,
+                  @Param("reached") long reached,
+                  @Param("passed") long passed);
+}
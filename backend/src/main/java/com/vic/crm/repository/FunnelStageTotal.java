@@ -0,0 +1,16 @@
+package com.vic.crm.repository;
+
+import com.vic.crm.enums.FunnelStage;
+
+/**
+ * Interface projection of funnel rollups summed per scope id and stage over a date range.
+ */
+public interface FunnelStageTotal {
+    Long getScopeId();
+
+    FunnelStage getStage();
+
+    Long getReached();
+
+    Long getPassed();
+}
@@ -0,0 +1,42 @@
+package com.vic.crm.repository;
+
+import com.vic.crm.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
+    Optional<IdempotencyKey> findByKey(String key);
+
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.key = :key and k.reservedAt = :reservedAt and k.statusCode is null")
+    int deleteReservation(@Param("key") String key, @Param("reservedAt") LocalDateTime reservedAt);
+
+    @Modifying
+    @Query("""
+            update IdempotencyKey k set k.reservedAt = :reservedAt
+            where k.key = :key and k.reservedAt = :expiredAt and k.statusCode is null
+            """)
+    int reclaimReservation(@Param("key") String key, @Param("expiredAt") LocalDateTime expiredAt,
+            @Param("reservedAt") LocalDateTime reservedAt);
+
+    @Modifying
+    @Query("""
+            update IdempotencyKey k
+            set k.statusCode = :statusCode, k.responseBody = :body, k.completedAt = :completedAt
+            where k.key = :key and k.reservedAt = :reservedAt and k.statusCode is null
+            """)
+    int completeReservation(@Param("key") String key, @Param("reservedAt") LocalDateTime reservedAt,
+            @Param("statusCode") int statusCode, @Param("body") String body,
+            @Param("completedAt") LocalDateTime completedAt);
+
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -2,8 +2,10 @@ package com.vic.crm.repository;
 
 import com.vic.crm.entity.InterviewExperience;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface InterviewExperienceRepository extends JpaRepository<InterviewExperience, Long> {
     List<InterviewExperience> findByTechCategory(String techCategory);
@@ -11,4 +13,17 @@ public interface InterviewExperienceRepository extends JpaRepository<InterviewEx
     List<InterviewExperience> findByCandidateId(Long candidateId);
 
     List<InterviewExperience> findByClientId(Long clientId);
+
+    @Query("select e.id as id, e.techTags as tags from InterviewExperience e where e.techTags is not null")
+    List<TaggedRow> findAllTechTags();
+
+    @Query("""
+            select e.id as id, candidate.id as candidateId,
+                   concat(e.techCategory, ' ', coalesce(client.companyName, '')) as title,
+                   e.notes as body
+            from InterviewExperience e
+            left join e.candidate candidate
+            left join e.client client
+            """)
+    Stream<SearchSourceRow> streamSearchSource();
 }
@@ -7,6 +7,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface MockRepository extends JpaRepository<Mock, Long> {
@@ -21,4 +23,14 @@ public interface MockRepository extends JpaRepository<Mock, Long> {
     // Find completed mock with decision for a candidate by stage
     @Query("SELECT m FROM Mock m WHERE m.candidate.id = :candidateId AND LOWER(m.stage) = LOWER(:stage) AND m.completed = true AND m.decision IS NOT NULL ORDER BY m.completedAt DESC")
     List<Mock> findCompletedByCandidateIdAndStage(@Param("candidateId") Long candidateId, @Param("stage") String stage);
+
+    @Query("""
+            select m.id as id, m.candidate.id as candidateId, m.stage as title,
+                   concat(coalesce(m.strengths, ''), ' ', coalesce(m.weaknesses, ''), ' ', coalesce(m.summary, '')) as body
+            from Mock m
+            """)
+    Stream<SearchSourceRow> streamSearchSource();
+
+    @Query("select m.candidate.id from Mock m where m.id = :id")
+    Optional<Long> findCandidateIdById(@Param("id") Long id);
 }
@@ -2,6 +2,8 @@ package com.vic.crm.repository;
 
 import com.vic.crm.entity.OpportunityAttemptLink;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,4 +14,7 @@ public interface OpportunityAttemptLinkRepository extends JpaRepository<Opportun
     Optional<OpportunityAttemptLink> findByOpportunityIdAndAttemptId(Long opportunityId, Long attemptId);
 
     void deleteByOpportunityIdAndAttemptId(Long opportunityId, Long attemptId);
+
+    @Query("select link.attempt.id from OpportunityAttemptLink link where link.opportunity.id = :opportunityId")
+    List<Long> findAttemptIdsByOpportunityId(@Param("opportunityId") Long opportunityId);
 }
@@ -1,10 +1,66 @@
 package com.vic.crm.repository;
 
 import com.vic.crm.entity.Opportunity;
+import com.vic.crm.enums.OpportunityStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface OpportunityRepository extends JpaRepository<Opportunity, Long> {
     List<Opportunity> findByVendorEngagementIdOrderBySubmittedAtDesc(Long vendorEngagementId);
+
+    @Query("""
+            select o.id as id, o.vendorEngagement.id as engagementId, p.id as positionId,
+                   p.title as positionTitle, cl.id as clientId, cl.companyName as clientName,
+                   o.status as status, o.submittedAt as submittedAt
+            from Opportunity o
+            join o.position p
+            join p.client cl
+            where o.vendorEngagement.id in :engagementIds
+            order by o.submittedAt desc
+            """)
+    List<EngagementOpportunityRow> findSummariesByVendorEngagementIds(
+            @Param("engagementIds") Collection<Long> engagementIds);
+
+    @Query("select distinct o.vendorEngagement.id from Opportunity o where o.position.id = :positionId")
+    List<Long> findEngagementIdsByPositionId(@Param("positionId") Long positionId);
+
+    @Query("select distinct o.vendorEngagement.id from Opportunity o where o.position.client.id = :clientId")
+    List<Long> findEngagementIdsByClientId(@Param("clientId") Long clientId);
+
+    // Keyset page of opportunities whose status is derived from their steps
+    @Query("""
+            select o.id as id, o.vendorEngagement.id as engagementId, o.status as status from Opportunity o
+            where o.statusOverride is null and o.id > :afterId
+            order by o.id
+            """)
+    List<OpportunityStatusRow> findDerivedStatusPage(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Only applies while the status is still :expected, so a step write that committed in the
+    // meantime wins; bumps the version and updatedAt like an entity save would
+    @Modifying
+    @Query("""
+            update versioned Opportunity o set o.status = :status, o.updatedAt = :now
+            where o.id = :id and o.status = :expected and o.statusOverride is null
+            """)
+    int updateDerivedStatus(@Param("id") Long id,
+            @Param("expected") OpportunityStatus expected,
+            @Param("status") OpportunityStatus status,
+            @Param("now") LocalDateTime now);
+
+    @Query("""
+            select count(o) as total, max(o.id) as maxId,
+                   max(greatest(o.updatedAt, p.updatedAt, cl.updatedAt)) as lastUpdatedAt
+            from Opportunity o
+            join o.position p
+            join p.client cl
+            where o.vendorEngagement.candidate.id = :candidateId
+            """)
+    VersionStamp findVersionByCandidateId(@Param("candidateId") Long candidateId);
 }
@@ -0,0 +1,14 @@
+package com.vic.crm.repository;
+
+import com.vic.crm.enums.OpportunityStatus;
+
+/**
+ * Interface projection of an opportunity's stored status and its engagement.
+ */
+public interface OpportunityStatusRow {
+    Long getId();
+
+    Long getEngagementId();
+
+    OpportunityStatus getStatus();
+}
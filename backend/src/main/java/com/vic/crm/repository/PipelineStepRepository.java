@@ -1,13 +1,73 @@
 package com.vic.crm.repository;
 
+import com.vic.crm.dto.OpportunityStepRollup;
 import com.vic.crm.entity.PipelineStep;
+import com.vic.crm.enums.StepState;
+import com.vic.crm.enums.StepType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface PipelineStepRepository extends JpaRepository<PipelineStep, Long> {
     List<PipelineStep> findByOpportunityIdOrderByCreatedAtAsc(Long opportunityId);
 
     Optional<PipelineStep> findFirstByOpportunityIdOrderByHappenedAtDescCreatedAtDesc(Long opportunityId);
+
+    // One row per opportunity: its latest step (rn = 1) and, as window aggregates over all of its
+    // steps, the counts OpportunityService derives the status from
+    @Query("""
+            select new com.vic.crm.dto.OpportunityStepRollup(ranked.opportunityId, ranked.id, ranked.type,
+                   ranked.state, ranked.result, ranked.happenedAt, ranked.interviews, ranked.completedOffers,
+                   ranked.completedPlacements)
+            from (
+                select s.opportunity.id as opportunityId, s.id as id, s.type as type, s.state as state,
+                       s.result as result, s.happenedAt as happenedAt,
+                       sum(case when s.type = com.vic.crm.enums.StepType.CLIENT_INTERVIEW then 1 else 0 end)
+                           over (partition by s.opportunity.id) as interviews,
+                       sum(case when s.state = com.vic.crm.enums.StepState.COMPLETED
+                                 and s.type in (com.vic.crm.enums.StepType.OFFER,
+                                                com.vic.crm.enums.StepType.OFFER_ACCEPTED) then 1 else 0 end)
+                           over (partition by s.opportunity.id) as completedOffers,
+                       sum(case when s.state = com.vic.crm.enums.StepState.COMPLETED
+                                 and s.type = com.vic.crm.enums.StepType.PLACED then 1 else 0 end)
+                           over (partition by s.opportunity.id) as completedPlacements,
+                       row_number() over (partition by s.opportunity.id
+                                          order by s.happenedAt desc, s.createdAt desc, s.id desc) as rn
+                from PipelineStep s
+                where s.opportunity.id in :opportunityIds
+            ) ranked
+            where ranked.rn = 1
+            """)
+    List<OpportunityStepRollup> findRollupsByOpportunityIds(@Param("opportunityIds") Collection<Long> opportunityIds);
+
+    @Query("""
+            select count(s) as total, max(s.id) as maxId, max(s.updatedAt) as lastUpdatedAt
+            from PipelineStep s
+            where s.opportunity.vendorEngagement.candidate.id = :candidateId
+            """)
+    VersionStamp findVersionByCandidateId(@Param("candidateId") Long candidateId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = CandidateRepository.EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select ve.vendor.id as vendorId, p.client.id as clientId, s.type as type, s.result as result,
+                   s.happenedAt as happenedAt
+            from PipelineStep s
+            join s.opportunity o
+            join o.vendorEngagement ve
+            join o.position p
+            where s.state = :completed and s.happenedAt is not null and s.type in :types
+            """)
+    Stream<StepFunnelRow> streamFunnelFacts(@Param("completed") StepState completed,
+                                            @Param("types") Collection<StepType> types);
 }
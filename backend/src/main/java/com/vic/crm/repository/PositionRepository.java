@@ -2,8 +2,11 @@ package com.vic.crm.repository;
 
 import com.vic.crm.entity.Position;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -15,4 +18,10 @@ public interface PositionRepository extends JpaRepository<Position, Long> {
     List<Position> findByClientIdAndStatus(Long clientId, String status);
 
     List<Position> findBySourceVendorId(Long sourceVendorId);
+
+    @Query("select p.id as id, p.track as tags from Position p where p.track is not null")
+    List<TaggedRow> findAllTracks();
+
+    @Query("select p.id from Position p where p.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
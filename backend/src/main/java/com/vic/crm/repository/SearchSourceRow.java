@@ -0,0 +1,14 @@
+package com.vic.crm.repository;
+
+/**
+ * Interface projection feeding the full-text index rebuild.
+ */
+public interface SearchSourceRow {
+    Long getId();
+
+    Long getCandidateId();
+
+    String getTitle();
+
+    String getBody();
+}
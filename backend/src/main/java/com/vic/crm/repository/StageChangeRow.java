@@ -0,0 +1,26 @@
+package com.vic.crm.repository;
+
+import com.vic.crm.enums.CandidateStage;
+import com.vic.crm.enums.TimelineEventType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Interface projection streamed by the stage dwell rebuild: candidate creation and stage change
+ * events, with the candidate's current batch and recruiter.
+ */
+public interface StageChangeRow {
+    Long getCandidateId();
+
+    Long getBatchId();
+
+    Long getRecruiterId();
+
+    TimelineEventType getEventType();
+
+    CandidateStage getFromStage();
+
+    CandidateStage getToStage();
+
+    LocalDateTime getEventDate();
+}
@@ -0,0 +1,22 @@
+package com.vic.crm.repository;
+
+import com.vic.crm.enums.StepResult;
+import com.vic.crm.enums.StepType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Interface projection streamed by the funnel rebuild: one completed pipeline step with the
+ * vendor and client of its opportunity.
+ */
+public interface StepFunnelRow {
+    Long getVendorId();
+
+    Long getClientId();
+
+    StepType getType();
+
+    StepResult getResult();
+
+    LocalDateTime getHappenedAt();
+}
@@ -0,0 +1,10 @@
+package com.vic.crm.repository;
+
+/**
+ * Interface projection of an entity id and its raw comma-separated tag string.
+ */
+public interface TaggedRow {
+    Long getId();
+
+    String getTags();
+}
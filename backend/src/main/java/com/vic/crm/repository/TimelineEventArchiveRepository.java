@@ -0,0 +1,45 @@
+package com.vic.crm.repository;
+
+import com.vic.crm.entity.TimelineEventArchive;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+public interface TimelineEventArchiveRepository extends JpaRepository<TimelineEventArchive, Long> {
+
+    Optional<TimelineEventArchive> findByCandidateId(Long candidateId);
+
+    @Query("select a.payload from TimelineEventArchive a where a.candidate.id = :candidateId")
+    Optional<byte[]> findPayloadByCandidateId(@Param("candidateId") Long candidateId);
+
+    @Query("""
+            select c.id as candidateId, b.id as batchId, r.id as recruiterId
+            from TimelineEventArchive a
+            join a.candidate c
+            left join c.batch b
+            left join c.recruiter r
+            """)
+    List<CandidateAssignmentRow> findArchivedAssignments();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "50"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select c.id as candidateId, c.name as candidateName, a.payload as payload
+            from TimelineEventArchive a
+            join a.candidate c
+            where (:candidateId is null or c.id = :candidateId)
+            order by c.id
+            """)
+    Stream<ArchivedTimelineRow> streamExport(@Param("candidateId") Long candidateId);
+}
@@ -1,11 +1,21 @@
 package com.vic.crm.repository;
 
+import com.vic.crm.dto.TimelineEventView;
 import com.vic.crm.entity.TimelineEvent;
 import com.vic.crm.enums.TimelineEventType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TimelineEventRepository extends JpaRepository<TimelineEvent, Long> {
@@ -14,4 +24,87 @@ public interface TimelineEventRepository extends JpaRepository<TimelineEvent, Lo
 
     List<TimelineEvent> findByCandidateIdAndEventTypeOrderByEventDateDesc(
             Long candidateId, TimelineEventType eventType);
+
+    // Keyset pages, newest first, served by idx_timeline_candidate_date. Rows are projected
+    // straight into TimelineEventView: the actor is a left join instead of an EAGER User load,
+    // and metaJson is only selected when includeMeta is set.
+    @Query("""
+            select new com.vic.crm.dto.TimelineEventView(e.id, e.eventType, e.subType, e.fromStage, e.toStage,
+                   e.subStatus, e.closeReason, e.title, e.description, u.id, u.name, e.eventDate,
+                   case when :includeMeta = true then e.metaJson end)
+            from TimelineEvent e
+            left join e.createdBy u
+            where e.candidate.id = :candidateId
+              and e.eventType in :types
+            order by e.eventDate desc, e.id desc
+            """)
+    List<TimelineEventView> findFirstPage(@Param("candidateId") Long candidateId,
+            @Param("types") Collection<TimelineEventType> types,
+            @Param("includeMeta") boolean includeMeta,
+            Pageable pageable);
+
+    @Query("""
+            select new com.vic.crm.dto.TimelineEventView(e.id, e.eventType, e.subType, e.fromStage, e.toStage,
+                   e.subStatus, e.closeReason, e.title, e.description, u.id, u.name, e.eventDate,
+                   case when :includeMeta = true then e.metaJson end)
+            from TimelineEvent e
+            left join e.createdBy u
+            where e.candidate.id = :candidateId
+              and e.eventType in :types
+              and (e.eventDate < :eventDate or (e.eventDate = :eventDate and e.id < :id))
+            order by e.eventDate desc, e.id desc
+            """)
+    List<TimelineEventView> findPageAfter(@Param("candidateId") Long candidateId,
+            @Param("types") Collection<TimelineEventType> types,
+            @Param("includeMeta") boolean includeMeta,
+            @Param("eventDate") LocalDateTime eventDate,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    @Query("""
+            select count(e) as total, max(e.id) as maxId, max(e.eventDate) as lastUpdatedAt
+            from TimelineEvent e
+            where e.candidate.id = :candidateId
+            """)
+    VersionStamp findVersionByCandidateId(@Param("candidateId") Long candidateId);
+
+    @Query("""
+            select e.id as id, e.candidate.id as candidateId, e.title as title, e.description as body
+            from TimelineEvent e
+            """)
+    Stream<SearchSourceRow> streamSearchSource();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = CandidateRepository.EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select c.id as candidateId, b.id as batchId, r.id as recruiterId, e.eventType as eventType,
+                   e.fromStage as fromStage, e.toStage as toStage, e.eventDate as eventDate
+            from TimelineEvent e
+            join e.candidate c
+            left join c.batch b
+            left join c.recruiter r
+            where e.eventType = :created
+               or (e.fromStage is not null and e.toStage is not null and e.fromStage <> e.toStage)
+            order by c.id, e.eventDate, e.id
+            """)
+    Stream<StageChangeRow> streamStageChanges(@Param("created") TimelineEventType created);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = CandidateRepository.EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select e.id as id, c.id as candidateId, c.name as candidateName, e.eventType as eventType,
+                   e.subType as subType, e.fromStage as fromStage, e.toStage as toStage, e.subStatus as subStatus,
+                   e.closeReason as closeReason, e.title as title, e.description as description,
+                   u.name as createdByName, e.eventDate as eventDate
+            from TimelineEvent e
+            join e.candidate c
+            left join e.createdBy u
+            where (:candidateId is null or c.id = :candidateId)
+            order by c.id, e.eventDate, e.id
+            """)
+    Stream<TimelineExportRow> streamExport(@Param("candidateId") Long candidateId);
 }
@@ -0,0 +1,39 @@
+package com.vic.crm.repository;
+
+import com.vic.crm.enums.CandidateStage;
+import com.vic.crm.enums.CandidateSubStatus;
+import com.vic.crm.enums.CloseReason;
+import com.vic.crm.enums.TimelineEventType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Interface projection streamed by the timeline export.
+ */
+public interface TimelineExportRow {
+    Long getId();
+
+    Long getCandidateId();
+
+    String getCandidateName();
+
+    TimelineEventType getEventType();
+
+    String getSubType();
+
+    CandidateStage getFromStage();
+
+    CandidateStage getToStage();
+
+    CandidateSubStatus getSubStatus();
+
+    CloseReason getCloseReason();
+
+    String getTitle();
+
+    String getDescription();
+
+    String getCreatedByName();
+
+    LocalDateTime getEventDate();
+}
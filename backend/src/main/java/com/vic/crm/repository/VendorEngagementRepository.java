@@ -1,8 +1,12 @@
 package com.vic.crm.repository;
 
 import com.vic.crm.entity.VendorEngagement;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +16,29 @@ public interface VendorEngagementRepository extends JpaRepository<VendorEngageme
     List<VendorEngagement> findByCandidateId(Long candidateId);
 
     List<VendorEngagement> findByVendorIdOrderByCreatedAtDesc(Long vendorId);
+
+    @Query("""
+            select ve.id as id, ve.candidate.id as candidateId, ve.vendor.id as vendorId,
+                   ve.createdAt as createdAt
+            from VendorEngagement ve
+            where ve.id in :ids
+            """)
+    List<EngagementKeyRow> findKeysByIds(@Param("ids") Collection<Long> ids);
+
+    // Engagements that have no summary row yet (created before the read model existed)
+    @Query("""
+            select ve.id from VendorEngagement ve
+            where not exists (select 1 from EngagementSummary s where s.engagementId = ve.id)
+            order by ve.id
+            """)
+    List<Long> findIdsWithoutSummary(Pageable pageable);
+
+    @Query("""
+            select count(ve) as total, max(ve.id) as maxId,
+                   max(greatest(ve.updatedAt, v.updatedAt)) as lastUpdatedAt
+            from VendorEngagement ve
+            join ve.vendor v
+            where ve.candidate.id = :candidateId
+            """)
+    VersionStamp findVersionByCandidateId(@Param("candidateId") Long candidateId);
 }
@@ -0,0 +1,23 @@
+package com.vic.crm.repository;
+
+import com.vic.crm.enums.EngagementStatus;
+
+/**
+ * Interface projection of one engagement on the vendor page: the engagement, its candidate and
+ * the stored summary document.
+ */
+public interface VendorEngagementRow {
+    Long getId();
+
+    EngagementStatus getStatus();
+
+    Long getCandidateId();
+
+    String getCandidateName();
+
+    String getCandidateEmail();
+
+    String getCandidatePhone();
+
+    String getPayload();
+}
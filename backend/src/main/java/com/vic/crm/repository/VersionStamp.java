@@ -0,0 +1,15 @@
+package com.vic.crm.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Aggregate over a set of rows (count, newest id, newest update) that changes whenever a row is
+ * added, removed or updated; used to build ETags without loading the rows.
+ */
+public interface VersionStamp {
+    Long getTotal();
+
+    Long getMaxId();
+
+    LocalDateTime getLastUpdatedAt();
+}
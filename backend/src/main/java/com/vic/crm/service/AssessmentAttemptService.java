@@ -11,6 +11,7 @@ import com.vic.crm.exception.ResourceNotFoundException;
 import com.vic.crm.repository.AssessmentAttemptRepository;
 import com.vic.crm.repository.VendorEngagementRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,6 +24,8 @@ public class AssessmentAttemptService {
 
     private final AssessmentAttemptRepository attemptRepository;
     private final VendorEngagementRepository engagementRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FunnelRollupService funnelRollupService;
 
     public List<AssessmentAttempt> findByVendorEngagement(Long engagementId,
             AssessmentType attemptType, String track, Integer limit) {
@@ -61,7 +64,10 @@ public class AssessmentAttemptService {
                 .notes(request.getNotes())
                 .build();
 
-        return attemptRepository.save(attempt);
+        AssessmentAttempt saved = attemptRepository.save(attempt);
+        funnelRollupService.recordChange(null, FunnelRollupService.Fact.of(saved));
+        eventPublisher.publishEvent(new EngagementChangedEvent(engagementId));
+        return saved;
     }
 
     public AssessmentAttempt findById(Long id) {
@@ -72,6 +78,7 @@ public class AssessmentAttemptService {
     @Transactional
     public AssessmentAttempt update(Long attemptId, com.vic.crm.dto.UpdateAssessmentAttemptRequest request) {
         AssessmentAttempt attempt = findById(attemptId);
+        FunnelRollupService.Fact before = FunnelRollupService.Fact.of(attempt);
 
         if (request.getState() != null) {
             attempt.setState(request.getState());
@@ -92,7 +99,10 @@ public class AssessmentAttemptService {
             attempt.setHappenedAt(LocalDateTime.now());
         }
 
-        return attemptRepository.save(attempt);
+        AssessmentAttempt saved = attemptRepository.save(attempt);
+        funnelRollupService.recordChange(before, FunnelRollupService.Fact.of(saved));
+        eventPublisher.publishEvent(new EngagementChangedEvent(attempt.getVendorEngagement().getId()));
+        return saved;
     }
 
     private void validateResultState(StepState state, StepResult result) {
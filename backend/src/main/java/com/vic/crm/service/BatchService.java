@@ -1,8 +1,11 @@
 package com.vic.crm.service;
 
+import com.vic.crm.dto.BulkTransitionResponse;
 import com.vic.crm.dto.TransitionRequest;
 import com.vic.crm.entity.Batch;
 import com.vic.crm.entity.Candidate;
+import com.vic.crm.entity.TimelineEvent;
+import com.vic.crm.exception.InvalidTransitionException;
 import com.vic.crm.exception.ResourceNotFoundException;
 import com.vic.crm.enums.CandidateStage;
 import com.vic.crm.enums.TimelineEventType;
@@ -10,9 +13,13 @@ import com.vic.crm.repository.BatchRepository;
 import com.vic.crm.repository.CandidateRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -21,6 +28,8 @@ public class BatchService {
     private final BatchRepository batchRepository;
     private final CandidateRepository candidateRepository;
     private final CandidateService candidateService;
+    private final OptimisticRetry optimisticRetry;
+    private final CandidateCommandDispatcher commandDispatcher;
 
     public List<Batch> findAll() {
         return batchRepository.findAll();
@@ -44,40 +53,58 @@ public class BatchService {
         return batchRepository.save(existing);
     }
 
-    @Transactional
     public Batch startBatch(Long id) {
-        Batch batch = findById(id);
-        List<Candidate> candidates = candidateRepository.findByBatchId(id);
-        for (Candidate candidate : candidates) {
-            if (candidate.getStage() != CandidateStage.SOURCING) {
-                continue;
-            }
-            TransitionRequest request = new TransitionRequest();
-            request.setToStage(CandidateStage.TRAINING);
-            request.setReason("Batch started");
-            Candidate updated = candidateService.transition(candidate.getId(), request, null);
-            candidateService.addTimelineEvent(candidate.getId(), TimelineEventType.BATCH, "batch_started",
-                    "Batch Started", "Batch training started.", null, updated.getSubStatus(), null, null, null);
-        }
-        return batch;
+        return moveBatch("batch.start", id, CandidateStage.SOURCING, CandidateStage.TRAINING, "Batch started",
+                "batch_started", "Batch Started", "Batch training started.");
     }
 
-    @Transactional
     public Batch endBatch(Long id) {
-        Batch batch = findById(id);
-        List<Candidate> candidates = candidateRepository.findByBatchId(id);
-        for (Candidate candidate : candidates) {
-            if (candidate.getStage() != CandidateStage.TRAINING) {
-                continue;
+        return moveBatch("batch.end", id, CandidateStage.TRAINING, CandidateStage.RESUME, "Batch ended",
+                "batch_ended", "Batch Ended", "Batch training ended.");
+    }
+
+    /**
+     * Move every candidate of the batch that is in {@code fromStage} to {@code toStage} with one
+     * bulk transition, followed by a BATCH timeline event for each. The candidates' ids are read
+     * up front so the move runs holding their command lanes; a candidate that joins the batch
+     * meanwhile is left for the next call.
+     */
+    private Batch moveBatch(String operation, Long batchId, CandidateStage fromStage, CandidateStage toStage,
+            String reason, String subType, String title, String description) {
+        Set<Long> candidateIds = new HashSet<>(candidateRepository.findIdsByBatchIdAndStage(batchId, fromStage));
+        return commandDispatcher.executeAll(candidateIds, () -> optimisticRetry.execute(operation, () -> {
+            Batch batch = findById(batchId);
+            moveCandidates(batchId, candidateIds, fromStage, toStage, reason, subType, title, description);
+            return batch;
+        }));
+    }
+
+    private BulkTransitionResponse moveCandidates(Long batchId, Set<Long> candidateIds, CandidateStage fromStage,
+            CandidateStage toStage, String reason, String subType, String title, String description) {
+        Map<Long, Candidate> candidates = new LinkedHashMap<>();
+        for (Candidate candidate : candidateRepository.findByBatchId(batchId)) {
+            if (candidate.getStage() == fromStage && candidateIds.contains(candidate.getId())) {
+                candidates.put(candidate.getId(), candidate);
+            }
+        }
+        TransitionRequest request = new TransitionRequest();
+        request.setToStage(toStage);
+        request.setReason(reason);
+        TimelineEvent followUp = TimelineEvent.builder()
+                .eventType(TimelineEventType.BATCH)
+                .subType(subType)
+                .title(title)
+                .description(description)
+                .build();
+        BulkTransitionResponse response = candidateService.bulkTransition(
+                new ArrayList<>(candidates.keySet()), candidates, request, null, followUp);
+        for (BulkTransitionResponse.Result result : response.getResults()) {
+            if (!result.isSuccess()) {
+                throw new InvalidTransitionException(
+                        "Candidate " + result.getCandidateId() + ": " + result.getError());
             }
-            TransitionRequest request = new TransitionRequest();
-            request.setToStage(CandidateStage.RESUME);
-            request.setReason("Batch ended");
-            Candidate updated = candidateService.transition(candidate.getId(), request, null);
-            candidateService.addTimelineEvent(candidate.getId(), TimelineEventType.BATCH, "batch_ended",
-                    "Batch Ended", "Batch training ended.", null, updated.getSubStatus(), null, null, null);
         }
-        return batch;
+        return response;
     }
 
     public void delete(Long id) {
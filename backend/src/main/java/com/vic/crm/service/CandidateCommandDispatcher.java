@@ -0,0 +1,190 @@
+package com.vic.crm.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Serializes lifecycle commands per candidate without holding database locks. Each candidate id
+ * hashes to one of a fixed number of lanes; a lane is a single worker thread draining a FIFO
+ * mailbox, so commands for the same candidate run one at a time in arrival order while commands
+ * for candidates on other lanes run in parallel.
+ *
+ * <p>The caller blocks until its command has run and gets the result (or exception) back. A
+ * command that touches several candidates (bulk transition, batch start/end) holds every lane
+ * its ids map to: the lanes are parked one at a time in ascending order, so two such commands can
+ * never wait on each other, and the command then runs on the caller's thread.
+ *
+ * <p>Commands must be dispatched before a transaction opens, since the command owns its
+ * transaction (usually via {@link OptimisticRetry}); dispatching inside one is an error rather
+ * than a silent bypass of the lane. A command already holding a candidate's lane may call back
+ * into the dispatcher for that candidate, which runs inline; waiting on a lane it does not hold
+ * could deadlock and is rejected.
+ */
+@Component
+public class CandidateCommandDispatcher {
+
+    private static final ThreadLocal<Set<Integer>> HELD_LANES = ThreadLocal.withInitial(HashSet::new);
+
+    private final ThreadPoolExecutor[] lanes;
+
+    public CandidateCommandDispatcher(MeterRegistry meterRegistry,
+            @Value("${app.candidate-commands.lanes:16}") int laneCount) {
+        this.lanes = new ThreadPoolExecutor[Math.max(1, laneCount)];
+        for (int i = 0; i < lanes.length; i++) {
+            String name = "candidate-lane-" + i;
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, name);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+        Gauge.builder("crm.candidate_commands.queued", this, CandidateCommandDispatcher::queued)
+                .description("Candidate commands waiting in a lane mailbox")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run {@code command} on the lane owning {@code candidateId} and return its result.
+     */
+    public <T> T execute(Long candidateId, Supplier<T> command) {
+        return executeAll(candidateId != null ? List.of(candidateId) : List.of(), command);
+    }
+
+    /**
+     * Run {@code command} while holding the lanes of every id in {@code candidateIds} (null ids
+     * are ignored) and return its result.
+     */
+    public <T> T executeAll(Collection<Long> candidateIds, Supplier<T> command) {
+        SortedSet<Integer> needed = new TreeSet<>();
+        for (Long candidateId : candidateIds) {
+            if (candidateId != null) {
+                needed.add(laneOf(candidateId));
+            }
+        }
+        Set<Integer> held = HELD_LANES.get();
+        if (held.containsAll(needed)) {
+            return command.get();
+        }
+        if (!held.isEmpty()) {
+            throw new IllegalStateException("A candidate command cannot wait on lanes " + needed
+                    + " while holding lanes " + held);
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Candidate commands must be dispatched before a transaction is opened");
+        }
+        if (needed.size() == 1) {
+            return runOnLane(needed.first(), command);
+        }
+        return runHoldingLanes(needed, command);
+    }
+
+    private <T> T runOnLane(int lane, Supplier<T> command) {
+        Supplier<T> bound = IdempotencyService.propagate(command);
+        Future<T> future = lanes[lane].submit(() -> {
+            HELD_LANES.get().add(lane);
+            try {
+                return bound.get();
+            } finally {
+                HELD_LANES.get().clear();
+            }
+        });
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for candidate lane " + lane, ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Candidate command failed on lane " + lane, cause);
+        }
+    }
+
+    /**
+     * Park each lane in ascending order behind the commands already queued on it, run
+     * {@code command} on this thread once all are parked, then release them.
+     */
+    private <T> T runHoldingLanes(SortedSet<Integer> needed, Supplier<T> command) {
+        List<CountDownLatch> releases = new ArrayList<>(needed.size());
+        try {
+            for (int lane : needed) {
+                CountDownLatch parked = new CountDownLatch(1);
+                CountDownLatch release = new CountDownLatch(1);
+                releases.add(release);
+                lanes[lane].execute(() -> {
+                    parked.countDown();
+                    awaitUninterruptibly(release);
+                });
+                parked.await();
+            }
+            HELD_LANES.get().addAll(needed);
+            return command.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for candidate lanes " + needed, ex);
+        } finally {
+            HELD_LANES.get().clear();
+            releases.forEach(CountDownLatch::countDown);
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int laneOf(Long candidateId) {
+        return Math.floorMod(Long.hashCode(candidateId), lanes.length);
+    }
+
+    private double queued() {
+        int total = 0;
+        for (ThreadPoolExecutor lane : lanes) {
+            total += lane.getQueue().size();
+        }
+        return total;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+    }
+}
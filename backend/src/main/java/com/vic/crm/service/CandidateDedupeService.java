@@ -0,0 +1,452 @@
+package com.vic.crm.service;
+
+import com.vic.crm.dto.DuplicateMatch;
+import com.vic.crm.dto.DuplicatePair;
+import com.vic.crm.entity.Candidate;
+import com.vic.crm.enums.DuplicateKeyType;
+import com.vic.crm.repository.CandidateIdentityRow;
+import com.vic.crm.repository.CandidateRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Duplicate candidate detection. Candidates are blocked on normalized email, phone, WeChat id,
+ * Discord name and LinkedIn URL; only candidates sharing a block are compared, with fuzzy name
+ * similarity used to rank them. The live block index answers create-time checks with a handful
+ * of hash lookups; {@link #scan} re-blocks the whole table and scores blocks in parallel.
+ *
+ * <p>{@link #loadIndex} builds a new index off to the side and swaps it in with one reference
+ * assignment, so checks keep using the old index while it loads. Candidates saved during the
+ * load are replayed onto the new index before the swap.
+ */
+@Service
+@RequiredArgsConstructor
+public class CandidateDedupeService {
+
+    // Blocks larger than this are placeholder values ("n/a", a shared office phone) rather than
+    // real identities, and comparing all their pairs would be quadratic.
+    static final int MAX_BLOCK_SIZE = 50;
+
+    private static final Map<DuplicateKeyType, Double> KEY_WEIGHTS = Map.of(
+            DuplicateKeyType.EMAIL, 1.0,
+            DuplicateKeyType.LINKEDIN_URL, 1.0,
+            DuplicateKeyType.PHONE, 0.8,
+            DuplicateKeyType.WECHAT_ID, 0.8,
+            DuplicateKeyType.DISCORD_NAME, 0.6);
+
+    private final CandidateRepository candidateRepository;
+
+    // Puts hold it shared, so they run concurrently; the swap holds it exclusively
+    private final ReentrantReadWriteLock indexLock = new ReentrantReadWriteLock();
+    private volatile BlockIndex index = new BlockIndex();
+    // Latest identity saved per id while loadIndex runs; null otherwise
+    private ConcurrentMap<Long, Identity> savedDuringLoad;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void loadIndex() {
+        ConcurrentMap<Long, Identity> saved = new ConcurrentHashMap<>();
+        setSavedDuringLoad(saved);
+        try {
+            BlockIndex fresh = new BlockIndex();
+            for (CandidateIdentityRow row : candidateRepository.findAllIdentities()) {
+                fresh.put(Identity.of(row));
+            }
+            indexLock.writeLock().lock();
+            try {
+                // Saved after the load read, or read with it; either way the saved row is current
+                saved.values().forEach(fresh::put);
+                index = fresh;
+            } finally {
+                indexLock.writeLock().unlock();
+            }
+        } finally {
+            setSavedDuringLoad(null);
+        }
+    }
+
+    private void setSavedDuringLoad(ConcurrentMap<Long, Identity> saved) {
+        indexLock.writeLock().lock();
+        try {
+            savedDuringLoad = saved;
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Existing candidates that share at least one normalized identifier with {@code candidate},
+     * best match first. The candidate itself is excluded when it already has an id.
+     */
+    public List<DuplicateMatch> findMatches(Candidate candidate) {
+        Identity probe = Identity.of(candidate);
+        BlockIndex current = index;
+        Map<Long, Set<DuplicateKeyType>> matchedOn = new HashMap<>();
+        for (Map.Entry<DuplicateKeyType, String> key : probe.keys.entrySet()) {
+            Set<Long> ids = current.blocks.get(blockKey(key.getKey(), key.getValue()));
+            if (ids == null || ids.size() > MAX_BLOCK_SIZE) {
+                continue;
+            }
+            for (Long id : ids) {
+                if (!id.equals(probe.id)) {
+                    matchedOn.computeIfAbsent(id, ignored -> EnumSet.noneOf(DuplicateKeyType.class)).add(key.getKey());
+                }
+            }
+        }
+
+        List<DuplicateMatch> matches = new ArrayList<>();
+        matchedOn.forEach((id, keys) -> {
+            Identity existing = current.identities.get(id);
+            if (existing == null) {
+                return;
+            }
+            double similarity = nameSimilarity(probe.normalizedName, existing.normalizedName);
+            DuplicateMatch match = new DuplicateMatch();
+            match.setCandidateId(id);
+            match.setName(existing.name);
+            match.setMatchedOn(keys);
+            match.setNameSimilarity(similarity);
+            match.setScore(score(keys, similarity));
+            matches.add(match);
+        });
+        matches.sort(Comparator.comparingDouble(DuplicateMatch::getScore).reversed());
+        return matches;
+    }
+
+    /**
+     * Normalized block keys of a candidate, for callers that dedupe a set of not-yet-saved rows
+     * against each other (bulk import).
+     */
+    Set<String> blockKeys(Candidate candidate) {
+        Set<String> keys = new HashSet<>();
+        Identity.of(candidate).keys.forEach((type, value) -> keys.add(blockKey(type, value)));
+        return keys;
+    }
+
+    /**
+     * Re-index a candidate after its create/update commits.
+     */
+    public void index(Candidate candidate) {
+        if (candidate.getId() == null) {
+            return;
+        }
+        Identity identity = Identity.of(candidate);
+        AfterCommit.run(() -> put(identity));
+    }
+
+    /**
+     * Full-table duplicate report. Candidates are re-blocked from a fresh projection and each
+     * block's pairs are scored on the common fork-join pool; pairs found in several blocks are
+     * merged before ranking.
+     */
+    public List<DuplicatePair> scan(double minScore, int limit) {
+        Map<String, List<Identity>> scanBlocks = new HashMap<>();
+        Map<Long, Identity> byId = new HashMap<>();
+        for (CandidateIdentityRow row : candidateRepository.findAllIdentities()) {
+            Identity identity = Identity.of(row);
+            byId.put(identity.id, identity);
+            identity.keys.forEach((type, value) ->
+                    scanBlocks.computeIfAbsent(blockKey(type, value), key -> new ArrayList<>()).add(identity));
+        }
+
+        ConcurrentMap<PairKey, Set<DuplicateKeyType>> pairs = new ConcurrentHashMap<>();
+        scanBlocks.entrySet().parallelStream()
+                .filter(block -> block.getValue().size() > 1 && block.getValue().size() <= MAX_BLOCK_SIZE)
+                .forEach(block -> {
+                    DuplicateKeyType type = blockType(block.getKey());
+                    List<Identity> members = block.getValue();
+                    for (int i = 0; i < members.size(); i++) {
+                        for (int j = i + 1; j < members.size(); j++) {
+                            pairs.computeIfAbsent(PairKey.of(members.get(i).id, members.get(j).id),
+                                    key -> ConcurrentHashMap.newKeySet()).add(type);
+                        }
+                    }
+                });
+
+        return pairs.entrySet().parallelStream()
+                .map(entry -> toPair(byId.get(entry.getKey().low), byId.get(entry.getKey().high), entry.getValue()))
+                .filter(pair -> pair.getScore() >= minScore)
+                .sorted(Comparator.comparingDouble(DuplicatePair::getScore).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    private DuplicatePair toPair(Identity left, Identity right, Set<DuplicateKeyType> keys) {
+        double similarity = nameSimilarity(left.normalizedName, right.normalizedName);
+        DuplicatePair pair = new DuplicatePair();
+        pair.setLeftId(left.id);
+        pair.setLeftName(left.name);
+        pair.setRightId(right.id);
+        pair.setRightName(right.name);
+        pair.setMatchedOn(EnumSet.copyOf(keys));
+        pair.setNameSimilarity(similarity);
+        pair.setScore(score(keys, similarity));
+        return pair;
+    }
+
+    private void put(Identity identity) {
+        indexLock.readLock().lock();
+        try {
+            index.put(identity);
+            ConcurrentMap<Long, Identity> saved = savedDuringLoad;
+            if (saved != null) {
+                saved.put(identity.id, identity);
+            }
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    /** Normalized identifier -> ids blocked on it, plus each indexed candidate's identity. */
+    private static final class BlockIndex {
+        private final ConcurrentMap<String, Set<Long>> blocks = new ConcurrentHashMap<>();
+        private final ConcurrentMap<Long, Identity> identities = new ConcurrentHashMap<>();
+
+        void put(Identity identity) {
+            Identity previous = identities.put(identity.id, identity);
+            if (previous != null) {
+                previous.keys.forEach((type, value) -> {
+                    Set<Long> ids = blocks.get(blockKey(type, value));
+                    if (ids != null) {
+                        ids.remove(identity.id);
+                    }
+                });
+            }
+            identity.keys.forEach((type, value) ->
+                    blocks.computeIfAbsent(blockKey(type, value), key -> ConcurrentHashMap.newKeySet())
+                            .add(identity.id));
+        }
+    }
+
+    private static double score(Collection<DuplicateKeyType> keys, double nameSimilarity) {
+        double score = nameSimilarity;
+        for (DuplicateKeyType key : keys) {
+            score += KEY_WEIGHTS.get(key);
+        }
+        return Math.round(score * 1000) / 1000.0;
+    }
+
+    private static String blockKey(DuplicateKeyType type, String value) {
+        return type.name() + ':' + value;
+    }
+
+    private static DuplicateKeyType blockType(String blockKey) {
+        return DuplicateKeyType.valueOf(blockKey.substring(0, blockKey.indexOf(':')));
+    }
+
+    static String normalizeEmail(String email) {
+        if (isBlank(email)) {
+            return null;
+        }
+        String value = email.trim().toLowerCase(Locale.ROOT);
+        int at = value.lastIndexOf('@');
+        if (at <= 0) {
+            return value;
+        }
+        String local = value.substring(0, at);
+        String domain = value.substring(at + 1);
+        int plus = local.indexOf('+');
+        if (plus > 0) {
+            local = local.substring(0, plus);
+        }
+        if (domain.equals("gmail.com") || domain.equals("googlemail.com")) {
+            local = local.replace(".", "");
+            domain = "gmail.com";
+        }
+        return local + '@' + domain;
+    }
+
+    static String normalizePhone(String phone) {
+        if (isBlank(phone)) {
+            return null;
+        }
+        String digits = phone.replaceAll("\\D", "");
+        if (digits.length() == 11 && digits.startsWith("1")) {
+            digits = digits.substring(1);
+        }
+        return digits.length() >= 7 ? digits : null;
+    }
+
+    static String normalizeHandle(String handle) {
+        if (isBlank(handle)) {
+            return null;
+        }
+        String value = handle.trim().toLowerCase(Locale.ROOT);
+        if (value.startsWith("@")) {
+            value = value.substring(1);
+        }
+        int discriminator = value.indexOf('#');
+        if (discriminator > 0) {
+            value = value.substring(0, discriminator);
+        }
+        return value.isEmpty() ? null : value;
+    }
+
+    static String normalizeLinkedinUrl(String url) {
+        if (isBlank(url)) {
+            return null;
+        }
+        String value = url.trim().toLowerCase(Locale.ROOT)
+                .replaceFirst("^https?://", "")
+                .replaceFirst("^www\\.", "");
+        int cut = value.indexOf('?');
+        if (cut >= 0) {
+            value = value.substring(0, cut);
+        }
+        cut = value.indexOf('#');
+        if (cut >= 0) {
+            value = value.substring(0, cut);
+        }
+        while (value.endsWith("/")) {
+            value = value.substring(0, value.length() - 1);
+        }
+        return value.isEmpty() ? null : value;
+    }
+
+    static String normalizeName(String name) {
+        if (isBlank(name)) {
+            return "";
+        }
+        String[] tokens = name.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N} ]", " ").trim().split("\\s+");
+        Arrays.sort(tokens);
+        return String.join(" ", tokens);
+    }
+
+    /**
+     * Jaro-Winkler similarity in [0, 1] on token-sorted names, so "Song Sara" matches "Sara Song".
+     */
+    static double nameSimilarity(String a, String b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0.0;
+        }
+        if (a.equals(b)) {
+            return 1.0;
+        }
+        int window = Math.max(0, Math.max(a.length(), b.length()) / 2 - 1);
+        boolean[] aMatched = new boolean[a.length()];
+        boolean[] bMatched = new boolean[b.length()];
+        int matches = 0;
+        for (int i = 0; i < a.length(); i++) {
+            int start = Math.max(0, i - window);
+            int end = Math.min(b.length() - 1, i + window);
+            for (int j = start; j <= end; j++) {
+                if (!bMatched[j] && a.charAt(i) == b.charAt(j)) {
+                    aMatched[i] = true;
+                    bMatched[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) {
+            return 0.0;
+        }
+        int transpositions = 0;
+        int k = 0;
+        for (int i = 0; i < a.length(); i++) {
+            if (aMatched[i]) {
+                while (!bMatched[k]) {
+                    k++;
+                }
+                if (a.charAt(i) != b.charAt(k)) {
+                    transpositions++;
+                }
+                k++;
+            }
+        }
+        double m = matches;
+        double jaro = (m / a.length() + m / b.length() + (m - transpositions / 2.0) / m) / 3.0;
+        int prefix = 0;
+        while (prefix < Math.min(4, Math.min(a.length(), b.length())) && a.charAt(prefix) == b.charAt(prefix)) {
+            prefix++;
+        }
+        return jaro + prefix * 0.1 * (1 - jaro);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private static final class Identity {
+        private final Long id;
+        private final String name;
+        private final String normalizedName;
+        private final Map<DuplicateKeyType, String> keys;
+
+        private Identity(Long id, String name, String email, String phone, String wechatId, String discordName,
+                String linkedinUrl) {
+            this.id = id;
+            this.name = name;
+            this.normalizedName = normalizeName(name);
+            Map<DuplicateKeyType, String> normalized = new EnumMap<>(DuplicateKeyType.class);
+            putIfPresent(normalized, DuplicateKeyType.EMAIL, normalizeEmail(email));
+            putIfPresent(normalized, DuplicateKeyType.PHONE, normalizePhone(phone));
+            putIfPresent(normalized, DuplicateKeyType.WECHAT_ID, normalizeHandle(wechatId));
+            putIfPresent(normalized, DuplicateKeyType.DISCORD_NAME, normalizeHandle(discordName));
+            putIfPresent(normalized, DuplicateKeyType.LINKEDIN_URL, normalizeLinkedinUrl(linkedinUrl));
+            this.keys = normalized;
+        }
+
+        static Identity of(Candidate candidate) {
+            return new Identity(candidate.getId(), candidate.getName(), candidate.getEmail(), candidate.getPhone(),
+                    candidate.getWechatId(), candidate.getDiscordName(), candidate.getLinkedinUrl());
+        }
+
+        static Identity of(CandidateIdentityRow row) {
+            return new Identity(row.getId(), row.getName(), row.getEmail(), row.getPhone(),
+                    row.getWechatId(), row.getDiscordName(), row.getLinkedinUrl());
+        }
+
+        private static void putIfPresent(Map<DuplicateKeyType, String> keys, DuplicateKeyType type, String value) {
+            if (value != null) {
+                keys.put(type, value);
+            }
+        }
+    }
+
+    private static final class PairKey {
+        private final long low;
+        private final long high;
+
+        private PairKey(long low, long high) {
+            this.low = low;
+            this.high = high;
+        }
+
+        static PairKey of(long a, long b) {
+            return a < b ? new PairKey(a, b) : new PairKey(b, a);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof PairKey)) {
+                return false;
+            }
+            PairKey that = (PairKey) other;
+            return low == that.low && high == that.high;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(low) * 31 + Long.hashCode(high);
+        }
+    }
+}
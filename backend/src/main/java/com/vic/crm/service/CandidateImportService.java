@@ -0,0 +1,495 @@
+package com.vic.crm.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vic.crm.dto.CandidateImportResponse;
+import com.vic.crm.dto.CandidateImportRow;
+import com.vic.crm.dto.DuplicateMatch;
+import com.vic.crm.entity.Batch;
+import com.vic.crm.entity.Candidate;
+import com.vic.crm.entity.TimelineEvent;
+import com.vic.crm.entity.User;
+import com.vic.crm.enums.CandidateStage;
+import com.vic.crm.enums.CandidateSubStatus;
+import com.vic.crm.enums.TagIndexType;
+import com.vic.crm.enums.TimelineEventType;
+import com.vic.crm.repository.BatchRepository;
+import com.vic.crm.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Streaming bulk candidate import from CSV or NDJSON. Rows are parsed and validated one at a
+ * time and written in chunks: one JDBC batch for the candidates and one for their
+ * CANDIDATE_CREATED / BATCH timeline events, each chunk in its own transaction. In-memory
+ * indexes and counters are updated after each chunk commits, exactly as for single creates.
+ */
+@Service
+public class CandidateImportService {
+
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final String INSERT_CANDIDATE = """
+            insert into candidates (name, email, phone, wechat_id, wechat_name, discord_name, linkedin_url,
+                tech_tags, work_auth, city, state, relocation, school, major, stage, sub_status,
+                stage_updated_at, batch_id, recruiter_id, notes, created_at, updated_at, version)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final BatchRepository batchRepository;
+    private final UserRepository userRepository;
+    private final CandidateDedupeService candidateDedupeService;
+    private final CandidateStatsService candidateStatsService;
+    private final TagIndexService tagIndexService;
+    private final SearchIndexService searchIndexService;
+    private final TimelineEventBatchWriter timelineEventBatchWriter;
+    private final int chunkSize;
+
+    public CandidateImportService(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            BatchRepository batchRepository,
+            UserRepository userRepository,
+            CandidateDedupeService candidateDedupeService,
+            CandidateStatsService candidateStatsService,
+            TagIndexService tagIndexService,
+            SearchIndexService searchIndexService,
+            TimelineEventBatchWriter timelineEventBatchWriter,
+            @Value("${app.import.chunk-size:500}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.batchRepository = batchRepository;
+        this.userRepository = userRepository;
+        this.candidateDedupeService = candidateDedupeService;
+        this.candidateStatsService = candidateStatsService;
+        this.tagIndexService = tagIndexService;
+        this.searchIndexService = searchIndexService;
+        this.timelineEventBatchWriter = timelineEventBatchWriter;
+        this.chunkSize = chunkSize;
+    }
+
+    public CandidateImportResponse importCsv(InputStream input, boolean allowDuplicate) {
+        return importRows(new CsvRowReader(reader(input)), allowDuplicate);
+    }
+
+    public CandidateImportResponse importNdjson(InputStream input, boolean allowDuplicate) {
+        return importRows(new NdjsonRowReader(reader(input)), allowDuplicate);
+    }
+
+    private CandidateImportResponse importRows(RowReader rows, boolean allowDuplicate) {
+        ImportRun run = new ImportRun(allowDuplicate);
+        try {
+            ParsedRow parsed;
+            while ((parsed = rows.next()) != null) {
+                run.response.setTotal(run.response.getTotal() + 1);
+                if (parsed.error != null) {
+                    run.fail(parsed.rowNumber, parsed.error);
+                    continue;
+                }
+                Set<String> blockKeys = new HashSet<>();
+                String error = validate(parsed.row, run, blockKeys);
+                if (error != null) {
+                    run.fail(parsed.rowNumber, error);
+                    continue;
+                }
+                // Only an accepted row claims its keys, so a rejected row cannot shadow a later one
+                run.seenKeys.addAll(blockKeys);
+                run.chunk.add(new PendingRow(parsed.rowNumber, parsed.row, blockKeys));
+                if (run.chunk.size() >= chunkSize) {
+                    flush(run);
+                }
+            }
+            flush(run);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read import stream", ex);
+        }
+        return run.response;
+    }
+
+    /**
+     * Validate {@code row}, collecting its dedupe block keys into {@code blockKeys}. Keys are
+     * checked against earlier accepted rows but not claimed here.
+     */
+    private String validate(CandidateImportRow row, ImportRun run, Set<String> blockKeys) {
+        if (row.getName() == null || row.getName().isBlank()) {
+            return "name is required";
+        }
+        if (row.getBatchId() != null && run.batchName(row.getBatchId()).isEmpty()) {
+            return "Batch not found with id: " + row.getBatchId();
+        }
+        if (row.getRecruiterId() != null && !run.recruiterExists(row.getRecruiterId())) {
+            return "Recruiter not found with id: " + row.getRecruiterId();
+        }
+        if (!run.allowDuplicate) {
+            Candidate probe = toCandidate(row, null);
+            List<DuplicateMatch> matches = candidateDedupeService.findMatches(probe);
+            if (!matches.isEmpty()) {
+                return "Duplicate of existing candidate " + matches.get(0).getCandidateId();
+            }
+            Set<String> keys = candidateDedupeService.blockKeys(probe);
+            for (String key : keys) {
+                if (run.seenKeys.contains(key)) {
+                    return "Duplicate of an earlier row in this import (" + key + ")";
+                }
+            }
+            blockKeys.addAll(keys);
+        }
+        return null;
+    }
+
+    private void flush(ImportRun run) {
+        if (run.chunk.isEmpty()) {
+            return;
+        }
+        List<PendingRow> chunk = new ArrayList<>(run.chunk);
+        run.chunk.clear();
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertChunk(chunk, run));
+            run.response.setImported(run.response.getImported() + chunk.size());
+        } catch (RuntimeException ex) {
+            String message = "Chunk insert failed: " + NestedExceptionUtils.getMostSpecificCause(ex).getMessage();
+            for (PendingRow pending : chunk) {
+                // Nothing from the chunk was inserted, so later rows may reuse its keys
+                run.seenKeys.removeAll(pending.blockKeys);
+                run.fail(pending.rowNumber, message);
+            }
+        }
+    }
+
+    private void insertChunk(List<PendingRow> chunk, ImportRun run) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp timestamp = Timestamp.valueOf(now);
+
+        KeyHolder candidateKeys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_CANDIDATE, new String[] { "id" }),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        PendingRow pending = chunk.get(i);
+                        CandidateImportRow row = pending.row;
+                        ps.setString(1, row.getName().trim());
+                        ps.setString(2, row.getEmail());
+                        ps.setString(3, row.getPhone());
+                        ps.setString(4, row.getWechatId());
+                        ps.setString(5, row.getWechatName());
+                        ps.setString(6, row.getDiscordName());
+                        ps.setString(7, row.getLinkedinUrl());
+                        ps.setString(8, row.getTechTags());
+                        ps.setString(9, row.getWorkAuth());
+                        ps.setString(10, row.getCity());
+                        ps.setString(11, row.getState());
+                        setNullable(ps, 12, row.getRelocation(), Types.BOOLEAN);
+                        ps.setString(13, row.getSchool());
+                        ps.setString(14, row.getMajor());
+                        ps.setString(15, CandidateStage.SOURCING.name());
+                        ps.setString(16, finalSubStatus(row).name());
+                        ps.setTimestamp(17, timestamp);
+                        setNullable(ps, 18, row.getBatchId(), Types.BIGINT);
+                        setNullable(ps, 19, row.getRecruiterId(), Types.BIGINT);
+                        ps.setString(20, row.getNotes());
+                        ps.setTimestamp(21, timestamp);
+                        ps.setTimestamp(22, timestamp);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return chunk.size();
+                    }
+                }, candidateKeys);
+
+        List<Map<String, Object>> keys = candidateKeys.getKeyList();
+        List<Candidate> candidates = new ArrayList<>(chunk.size());
+        List<TimelineEvent> events = new ArrayList<>(chunk.size() * 2);
+        for (int i = 0; i < chunk.size(); i++) {
+            CandidateImportRow row = chunk.get(i).row;
+            Candidate candidate = toCandidate(row, TimelineEventBatchWriter.generatedId(keys.get(i)));
+            candidate.setStageUpdatedAt(now);
+            candidates.add(candidate);
+
+            events.add(TimelineEvent.builder()
+                    .candidate(candidate)
+                    .eventType(TimelineEventType.CANDIDATE_CREATED)
+                    .title("Candidate Created")
+                    .description("Candidate record created.")
+                    .subStatus(CandidateSubStatus.SOURCED)
+                    .eventDate(now)
+                    .build());
+            if (row.getBatchId() != null) {
+                String batchLabel = run.batchName(row.getBatchId()).orElse(String.valueOf(row.getBatchId()));
+                events.add(TimelineEvent.builder()
+                        .candidate(candidate)
+                        .eventType(TimelineEventType.BATCH)
+                        .subType("batch_assigned")
+                        .title("Batch Assigned")
+                        .description(String.format("Assigned to batch %s.", batchLabel))
+                        .fromStage(CandidateStage.SOURCING)
+                        .toStage(CandidateStage.SOURCING)
+                        .subStatus(CandidateSubStatus.BATCH_ASSIGNED)
+                        .eventDate(now)
+                        .build());
+            }
+        }
+
+        timelineEventBatchWriter.insertAll(events);
+
+        for (Candidate candidate : candidates) {
+            candidateStatsService.recordChange(null, CandidateStatsService.Snapshot.of(candidate));
+            candidateDedupeService.index(candidate);
+            tagIndexService.index(TagIndexType.CANDIDATE, candidate.getId(), candidate.getTechTags());
+            searchIndexService.indexCandidate(candidate);
+        }
+    }
+
+    private Candidate toCandidate(CandidateImportRow row, Long id) {
+        return Candidate.builder()
+                .id(id)
+                .name(row.getName())
+                .email(row.getEmail())
+                .phone(row.getPhone())
+                .wechatId(row.getWechatId())
+                .wechatName(row.getWechatName())
+                .discordName(row.getDiscordName())
+                .linkedinUrl(row.getLinkedinUrl())
+                .techTags(row.getTechTags())
+                .workAuth(row.getWorkAuth())
+                .city(row.getCity())
+                .state(row.getState())
+                .relocation(row.getRelocation())
+                .school(row.getSchool())
+                .major(row.getMajor())
+                .stage(CandidateStage.SOURCING)
+                .subStatus(finalSubStatus(row))
+                .batch(row.getBatchId() != null ? Batch.builder().id(row.getBatchId()).build() : null)
+                .recruiter(row.getRecruiterId() != null ? User.builder().id(row.getRecruiterId()).build() : null)
+                .notes(row.getNotes())
+                .build();
+    }
+
+    private CandidateSubStatus finalSubStatus(CandidateImportRow row) {
+        return row.getBatchId() != null ? CandidateSubStatus.BATCH_ASSIGNED : CandidateSubStatus.SOURCED;
+    }
+
+    private static void setNullable(PreparedStatement ps, int index, Object value, int sqlType) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, sqlType);
+        } else {
+            ps.setObject(index, value, sqlType);
+        }
+    }
+
+    private static BufferedReader reader(InputStream input) {
+        return new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Mutable state of one import: the pending chunk, the response being built and caches
+     * for batch/recruiter lookups and the dedupe keys of accepted rows.
+     */
+    private final class ImportRun {
+        private final boolean allowDuplicate;
+        private final CandidateImportResponse response = new CandidateImportResponse();
+        private final List<PendingRow> chunk = new ArrayList<>();
+        private final Map<Long, Optional<String>> batchNames = new HashMap<>();
+        private final Map<Long, Boolean> recruiters = new HashMap<>();
+        private final Set<String> seenKeys = new HashSet<>();
+
+        private ImportRun(boolean allowDuplicate) {
+            this.allowDuplicate = allowDuplicate;
+        }
+
+        Optional<String> batchName(Long batchId) {
+            return batchNames.computeIfAbsent(batchId, id -> batchRepository.findById(id)
+                    .map(batch -> batch.getName() != null ? batch.getName() : String.valueOf(batch.getId())));
+        }
+
+        boolean recruiterExists(Long recruiterId) {
+            return recruiters.computeIfAbsent(recruiterId, userRepository::existsById);
+        }
+
+        void fail(int rowNumber, String message) {
+            response.setFailed(response.getFailed() + 1);
+            if (response.getErrors().size() < MAX_REPORTED_ERRORS) {
+                response.getErrors().add(new CandidateImportResponse.RowError(rowNumber, message));
+            }
+        }
+    }
+
+    private static final class PendingRow {
+        private final int rowNumber;
+        private final CandidateImportRow row;
+        private final Set<String> blockKeys;
+
+        private PendingRow(int rowNumber, CandidateImportRow row, Set<String> blockKeys) {
+            this.rowNumber = rowNumber;
+            this.row = row;
+            this.blockKeys = blockKeys;
+        }
+    }
+
+    private static final class ParsedRow {
+        private final int rowNumber;
+        private final CandidateImportRow row;
+        private final String error;
+
+        private ParsedRow(int rowNumber, CandidateImportRow row, String error) {
+            this.rowNumber = rowNumber;
+            this.row = row;
+            this.error = error;
+        }
+    }
+
+    private interface RowReader {
+        /**
+         * Next parsed row, or null at end of input.
+         */
+        ParsedRow next() throws IOException;
+    }
+
+    private final class NdjsonRowReader implements RowReader {
+        private final BufferedReader reader;
+        private int lineNumber;
+
+        private NdjsonRowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ParsedRow next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    return new ParsedRow(lineNumber, objectMapper.readValue(line, CandidateImportRow.class), null);
+                } catch (JsonProcessingException ex) {
+                    return new ParsedRow(lineNumber, null, "Invalid JSON: " + ex.getOriginalMessage());
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * RFC 4180 CSV reader: the first record is the header, fields may be quoted and quoted
+     * fields may contain commas, escaped quotes and line breaks.
+     */
+    private final class CsvRowReader implements RowReader {
+        private final BufferedReader reader;
+        private List<String> header;
+        private int recordNumber;
+
+        private CsvRowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ParsedRow next() throws IOException {
+            if (header == null) {
+                header = readRecord();
+                if (header == null) {
+                    return null;
+                }
+                header.replaceAll(String::trim);
+                recordNumber++;
+            }
+            List<String> fields;
+            do {
+                fields = readRecord();
+                if (fields == null) {
+                    return null;
+                }
+                recordNumber++;
+            } while (fields.size() == 1 && fields.get(0).isBlank());
+
+            if (fields.size() > header.size()) {
+                return new ParsedRow(recordNumber, null,
+                        "Expected " + header.size() + " columns but found " + fields.size());
+            }
+            Map<String, String> values = new LinkedHashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                String value = fields.get(i).trim();
+                values.put(header.get(i), value.isEmpty() ? null : value);
+            }
+            try {
+                return new ParsedRow(recordNumber, objectMapper.convertValue(values, CandidateImportRow.class), null);
+            } catch (IllegalArgumentException ex) {
+                String message = ex.getMessage() != null ? ex.getMessage().lines().findFirst().orElse("") : "";
+                return new ParsedRow(recordNumber, null, "Invalid value: " + message);
+            }
+        }
+
+        private List<String> readRecord() throws IOException {
+            int ch = reader.read();
+            if (ch == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (ch != -1) {
+                char c = (char) ch;
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int nextChar = reader.read();
+                        if (nextChar == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            if (nextChar != -1) {
+                                reader.reset();
+                            }
+                        }
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    field.append(c);
+                }
+                ch = reader.read();
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.vic.crm.service;
+
+import com.vic.crm.dto.AllowedTransitionsResponse;
+import com.vic.crm.dto.TransitionRequest;
+import com.vic.crm.entity.Candidate;
+import com.vic.crm.enums.CandidateStage;
+import com.vic.crm.enums.CandidateSubStatus;
+import com.vic.crm.exception.InvalidTransitionException;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Candidate lifecycle compiled into lookup tables: stage -> allowed target stages and
+ * stage -> allowed sub-statuses are bitmasks indexed by ordinal, and every transition
+ * precondition is one entry in an ordered rule list. {@link #check} enforces the rules for a
+ * single transition; {@link #preflight} evaluates them for every legal target in one pass.
+ */
+final class CandidateLifecycle {
+
+    private static final CandidateStage[] STAGES = CandidateStage.values();
+    private static final CandidateSubStatus[] SUB_STATUSES = CandidateSubStatus.values();
+
+    private static final int NON_TERMINAL_STAGES = mask(
+            CandidateStage.SOURCING,
+            CandidateStage.TRAINING,
+            CandidateStage.RESUME,
+            CandidateStage.MOCKING,
+            CandidateStage.MARKETING,
+            CandidateStage.OFFERED);
+
+    private static final int ANY_STAGE = (1 << STAGES.length) - 1;
+
+    private static final int[] TRANSITIONS = new int[STAGES.length];
+    private static final long[] SUB_STATUSES_BY_STAGE = new long[STAGES.length];
+    private static final Map<CandidateStage, CandidateSubStatus> DEFAULT_SUB_STATUS =
+            new EnumMap<>(CandidateStage.class);
+    private static final List<Rule> RULES = new ArrayList<>();
+
+    static {
+        allow(CandidateStage.SOURCING, CandidateStage.TRAINING, CandidateStage.MARKETING,
+                CandidateStage.ELIMINATED, CandidateStage.WITHDRAWN, CandidateStage.ON_HOLD);
+        allow(CandidateStage.TRAINING, CandidateStage.RESUME, CandidateStage.ELIMINATED,
+                CandidateStage.WITHDRAWN, CandidateStage.ON_HOLD);
+        allow(CandidateStage.RESUME, CandidateStage.MOCKING, CandidateStage.ELIMINATED,
+                CandidateStage.WITHDRAWN, CandidateStage.ON_HOLD);
+        allow(CandidateStage.MOCKING, CandidateStage.MARKETING, CandidateStage.ELIMINATED,
+                CandidateStage.WITHDRAWN, CandidateStage.ON_HOLD);
+        allow(CandidateStage.MARKETING, CandidateStage.OFFERED, CandidateStage.ELIMINATED,
+                CandidateStage.WITHDRAWN, CandidateStage.ON_HOLD);
+        allow(CandidateStage.OFFERED, CandidateStage.PLACED, CandidateStage.MARKETING,
+                CandidateStage.ELIMINATED, CandidateStage.WITHDRAWN, CandidateStage.ON_HOLD);
+        allow(CandidateStage.PLACED, CandidateStage.MARKETING, CandidateStage.ELIMINATED, CandidateStage.WITHDRAWN);
+        TRANSITIONS[CandidateStage.ELIMINATED.ordinal()] = NON_TERMINAL_STAGES;
+        TRANSITIONS[CandidateStage.WITHDRAWN.ordinal()] = NON_TERMINAL_STAGES;
+        TRANSITIONS[CandidateStage.ON_HOLD.ordinal()] = NON_TERMINAL_STAGES;
+
+        subStatuses(CandidateStage.SOURCING, CandidateSubStatus.SOURCED,
+                CandidateSubStatus.SOURCED, CandidateSubStatus.CONTACTED, CandidateSubStatus.SCREENING_SCHEDULED,
+                CandidateSubStatus.SCREENING_PASSED, CandidateSubStatus.SCREENING_FAILED,
+                CandidateSubStatus.TRAINING_CONTRACT_SENT, CandidateSubStatus.TRAINING_CONTRACT_SIGNED,
+                CandidateSubStatus.BATCH_ASSIGNED,
+                CandidateSubStatus.DIRECT_MARKETING_READY);
+        subStatuses(CandidateStage.TRAINING, CandidateSubStatus.IN_TRAINING,
+                CandidateSubStatus.IN_TRAINING);
+        subStatuses(CandidateStage.RESUME, CandidateSubStatus.RESUME_PREPARING,
+                CandidateSubStatus.RESUME_PREPARING, CandidateSubStatus.RESUME_READY);
+        subStatuses(CandidateStage.MOCKING, CandidateSubStatus.MOCK_THEORY_READY,
+                CandidateSubStatus.MOCK_THEORY_READY, CandidateSubStatus.MOCK_THEORY_SCHEDULED,
+                CandidateSubStatus.MOCK_THEORY_PASSED, CandidateSubStatus.MOCK_THEORY_FAILED,
+                CandidateSubStatus.MOCK_REAL_SCHEDULED, CandidateSubStatus.MOCK_REAL_PASSED,
+                CandidateSubStatus.MOCK_REAL_FAILED);
+        subStatuses(CandidateStage.MARKETING, CandidateSubStatus.MARKETING_ACTIVE,
+                CandidateSubStatus.MARKETING_ACTIVE);
+        subStatuses(CandidateStage.OFFERED, CandidateSubStatus.OFFER_PENDING,
+                CandidateSubStatus.OFFER_PENDING, CandidateSubStatus.OFFER_ACCEPTED,
+                CandidateSubStatus.OFFER_DECLINED);
+        subStatuses(CandidateStage.ON_HOLD, CandidateSubStatus.OTHER,
+                CandidateSubStatus.WAITING_DOCS, CandidateSubStatus.PERSONAL_PAUSE,
+                CandidateSubStatus.VISA_ISSUE, CandidateSubStatus.OTHER);
+        subStatuses(CandidateStage.PLACED, CandidateSubStatus.PLACED_CONFIRMED,
+                CandidateSubStatus.PLACED_CONFIRMED);
+        subStatuses(CandidateStage.ELIMINATED, CandidateSubStatus.CLOSED,
+                CandidateSubStatus.CLOSED);
+        subStatuses(CandidateStage.WITHDRAWN, CandidateSubStatus.SELF_WITHDRAWN,
+                CandidateSubStatus.SELF_WITHDRAWN);
+
+        // Candidate-state requirements, in the order they are reported.
+        candidateRule(ANY_STAGE, mask(CandidateStage.TRAINING),
+                candidate -> candidate.getBatch() != null,
+                "batch is required for TRAINING");
+
+        int sourcing = mask(CandidateStage.SOURCING);
+        int marketing = mask(CandidateStage.MARKETING);
+        candidateRule(sourcing, marketing,
+                candidate -> candidate.getSubStatus() == CandidateSubStatus.DIRECT_MARKETING_READY,
+                "DIRECT_MARKETING_READY is required for direct marketing");
+        candidateRule(sourcing, marketing, candidate -> !isBlank(candidate.getName()),
+                "name is required for direct marketing");
+        candidateRule(sourcing, marketing,
+                candidate -> !isBlank(candidate.getEmail()) || !isBlank(candidate.getPhone()),
+                "email or phone is required for direct marketing");
+        candidateRule(sourcing, marketing, candidate -> !isBlank(candidate.getWorkAuth()),
+                "workAuth is required for direct marketing");
+        candidateRule(sourcing, marketing, candidate -> !isBlank(candidate.getTechTags()),
+                "techTags is required for direct marketing");
+        candidateRule(sourcing, marketing,
+                candidate -> !isBlank(candidate.getCity()) || !isBlank(candidate.getState()),
+                "city or state is required for direct marketing");
+        candidateRule(sourcing, marketing, candidate -> Boolean.TRUE.equals(candidate.getResumeReady()),
+                "resumeReady must be true for direct marketing");
+
+        candidateRule(mask(CandidateStage.MOCKING), marketing,
+                candidate -> candidate.getSubStatus() == CandidateSubStatus.MOCK_REAL_PASSED,
+                "MOCK_REAL_PASSED is required to enter MARKETING");
+        candidateRule(mask(CandidateStage.RESUME), mask(CandidateStage.MOCKING),
+                candidate -> candidate.getSubStatus() == CandidateSubStatus.RESUME_READY,
+                "RESUME_READY is required to enter MOCKING");
+        candidateRule(ANY_STAGE & ~mask(CandidateStage.RESUME), mask(CandidateStage.MOCKING),
+                candidate -> Boolean.TRUE.equals(candidate.getResumeReady()),
+                "resumeReady must be true to enter MOCKING");
+
+        // Fields the transition request itself must supply.
+        requestRule(ANY_STAGE, mask(CandidateStage.PLACED), "startDate",
+                request -> request.getStartDate() != null,
+                "startDate is required for PLACED");
+        requestRule(ANY_STAGE, mask(CandidateStage.OFFERED), "offerType",
+                request -> request.getOfferType() != null,
+                "offerType is required for OFFERED");
+        requestRule(ANY_STAGE, mask(CandidateStage.ELIMINATED), "closeReason",
+                request -> request.getCloseReason() != null,
+                "closeReason is required for ELIMINATED");
+        requestRule(ANY_STAGE, mask(CandidateStage.WITHDRAWN), "withdrawReason",
+                request -> !isBlank(request.getWithdrawReason()),
+                "withdrawReason is required for WITHDRAWN");
+        requestRule(ANY_STAGE, mask(CandidateStage.ON_HOLD), "holdReason",
+                request -> !isBlank(request.getHoldReason()),
+                "holdReason and nextFollowUpAt are required for ON_HOLD");
+        requestRule(ANY_STAGE, mask(CandidateStage.ON_HOLD), "nextFollowUpAt",
+                request -> request.getNextFollowUpAt() != null,
+                "holdReason and nextFollowUpAt are required for ON_HOLD");
+        requestRule(mask(CandidateStage.ELIMINATED, CandidateStage.WITHDRAWN), NON_TERMINAL_STAGES,
+                "reactivateReason",
+                request -> !isBlank(request.getReactivateReason()),
+                "reactivateReason is required to reactivate a candidate");
+        RULES.add(new Rule(mask(CandidateStage.ON_HOLD), NON_TERMINAL_STAGES,
+                (candidate, toStage) -> candidate.getLastActiveStage() != null
+                        && toStage != candidate.getLastActiveStage(),
+                "reason", null, request -> !isBlank(request.getReason()),
+                "reason is required to jump from ON_HOLD to a new stage"));
+        requestRule(mask(CandidateStage.OFFERED, CandidateStage.PLACED), marketing, "reason",
+                request -> !isBlank(request.getReason()),
+                "reason is required to return to MARKETING");
+    }
+
+    private CandidateLifecycle() {
+    }
+
+    static boolean isTransitionAllowed(CandidateStage from, CandidateStage to) {
+        return from != null && to != null && (TRANSITIONS[from.ordinal()] & bit(to)) != 0;
+    }
+
+    static boolean isSubStatusAllowed(CandidateStage stage, CandidateSubStatus subStatus) {
+        return stage != null && subStatus != null
+                && (SUB_STATUSES_BY_STAGE[stage.ordinal()] & (1L << subStatus.ordinal())) != 0;
+    }
+
+    static CandidateSubStatus defaultSubStatus(CandidateStage stage) {
+        return DEFAULT_SUB_STATUS.get(stage);
+    }
+
+    static boolean isNonTerminal(CandidateStage stage) {
+        return (NON_TERMINAL_STAGES & bit(stage)) != 0;
+    }
+
+    /**
+     * Enforce every rule for {@code candidate} moving to {@code toStage}; the first unmet rule is
+     * thrown as an {@link InvalidTransitionException}.
+     */
+    static void check(Candidate candidate, CandidateStage toStage, TransitionRequest request) {
+        CandidateStage fromStage = candidate.getStage();
+        for (Rule rule : RULES) {
+            if (rule.appliesTo(candidate, fromStage, toStage) && !rule.isSatisfied(candidate, request)) {
+                throw new InvalidTransitionException(rule.message);
+            }
+        }
+    }
+
+    /**
+     * Every legal target stage from the candidate's current stage, with the candidate-state
+     * requirements it does not yet meet and the request fields the transition will need.
+     */
+    static AllowedTransitionsResponse preflight(Candidate candidate) {
+        CandidateStage fromStage = candidate.getStage();
+        AllowedTransitionsResponse response = new AllowedTransitionsResponse();
+        response.setCandidateId(candidate.getId());
+        response.setStage(fromStage);
+        response.setSubStatus(candidate.getSubStatus());
+
+        int targets = fromStage != null ? TRANSITIONS[fromStage.ordinal()] : 0;
+        for (CandidateStage toStage : STAGES) {
+            if ((targets & bit(toStage)) == 0) {
+                continue;
+            }
+            AllowedTransitionsResponse.Target target = new AllowedTransitionsResponse.Target();
+            target.setToStage(toStage);
+            target.setDefaultSubStatus(DEFAULT_SUB_STATUS.get(toStage));
+            target.setSubStatuses(subStatusesOf(toStage));
+            for (Rule rule : RULES) {
+                if (!rule.appliesTo(candidate, fromStage, toStage)) {
+                    continue;
+                }
+                if (rule.field != null) {
+                    target.getRequiredFields().add(rule.field);
+                } else if (!rule.isSatisfied(candidate, null)) {
+                    target.getUnmetRequirements().add(rule.message);
+                }
+            }
+            target.setReady(target.getUnmetRequirements().isEmpty());
+            response.getTargets().add(target);
+        }
+        return response;
+    }
+
+    private static List<CandidateSubStatus> subStatusesOf(CandidateStage stage) {
+        long allowed = SUB_STATUSES_BY_STAGE[stage.ordinal()];
+        List<CandidateSubStatus> result = new ArrayList<>(Long.bitCount(allowed));
+        for (CandidateSubStatus subStatus : SUB_STATUSES) {
+            if ((allowed & (1L << subStatus.ordinal())) != 0) {
+                result.add(subStatus);
+            }
+        }
+        return result;
+    }
+
+    private static void allow(CandidateStage from, CandidateStage... targets) {
+        TRANSITIONS[from.ordinal()] = mask(targets);
+    }
+
+    private static void subStatuses(CandidateStage stage, CandidateSubStatus defaultSubStatus,
+            CandidateSubStatus... allowed) {
+        long bits = 0;
+        for (CandidateSubStatus subStatus : allowed) {
+            bits |= 1L << subStatus.ordinal();
+        }
+        SUB_STATUSES_BY_STAGE[stage.ordinal()] = bits;
+        DEFAULT_SUB_STATUS.put(stage, defaultSubStatus);
+    }
+
+    private static void candidateRule(int fromMask, int toMask,
+            Predicate<Candidate> satisfied, String message) {
+        RULES.add(new Rule(fromMask, toMask, null, null, satisfied, null, message));
+    }
+
+    private static void requestRule(int fromMask, int toMask, String field,
+            Predicate<TransitionRequest> satisfied, String message) {
+        RULES.add(new Rule(fromMask, toMask, null, field, null, satisfied, message));
+    }
+
+    private static int mask(CandidateStage... stages) {
+        int bits = 0;
+        for (CandidateStage stage : stages) {
+            bits |= bit(stage);
+        }
+        return bits;
+    }
+
+    private static int bit(CandidateStage stage) {
+        return 1 << stage.ordinal();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    /**
+     * One precondition. It applies when from/to match the masks (and the optional extra
+     * condition holds); a rule with a {@code field} is satisfied by the request, any other rule
+     * by the candidate's current state.
+     */
+    private static final class Rule {
+        private final int fromMask;
+        private final int toMask;
+        private final BiPredicate<Candidate, CandidateStage> when;
+        private final String field;
+        private final Predicate<Candidate> candidateSatisfied;
+        private final Predicate<TransitionRequest> requestSatisfied;
+        private final String message;
+
+        private Rule(int fromMask, int toMask, BiPredicate<Candidate, CandidateStage> when, String field,
+                Predicate<Candidate> candidateSatisfied,
+                Predicate<TransitionRequest> requestSatisfied, String message) {
+            this.fromMask = fromMask;
+            this.toMask = toMask;
+            this.when = when;
+            this.field = field;
+            this.candidateSatisfied = candidateSatisfied;
+            this.requestSatisfied = requestSatisfied;
+            this.message = message;
+        }
+
+        boolean appliesTo(Candidate candidate, CandidateStage fromStage, CandidateStage toStage) {
+            return fromStage != null
+                    && (fromMask & bit(fromStage)) != 0
+                    && (toMask & bit(toStage)) != 0
+                    && (when == null || when.test(candidate, toStage));
+        }
+
+        boolean isSatisfied(Candidate candidate, TransitionRequest request) {
+            if (candidateSatisfied != null) {
+                return candidateSatisfied.test(candidate);
+            }
+            return request != null && requestSatisfied.test(request);
+        }
+    }
+}
@@ -1,5 +1,13 @@
 package com.vic.crm.service;
 
+import com.vic.crm.dto.AllowedTransitionsResponse;
+import com.vic.crm.dto.BulkTransitionResponse;
+import com.vic.crm.dto.CandidateBoardResponse;
+import com.vic.crm.dto.CandidateBoardRow;
+import com.vic.crm.dto.CandidateFilter;
+import com.vic.crm.dto.CursorPage;
+import com.vic.crm.dto.DuplicateMatch;
+import com.vic.crm.dto.TimelineEventView;
 import com.vic.crm.dto.TransitionRequest;
 import com.vic.crm.entity.Batch;
 import com.vic.crm.entity.Candidate;
@@ -8,19 +16,31 @@ import com.vic.crm.entity.User;
 import com.vic.crm.enums.CandidateStage;
 import com.vic.crm.enums.CandidateSubStatus;
 import com.vic.crm.enums.CloseReason;
+import com.vic.crm.enums.TagIndexType;
 import com.vic.crm.enums.TimelineEventType;
+import com.vic.crm.exception.DuplicateCandidateException;
 import com.vic.crm.exception.InvalidTransitionException;
 import com.vic.crm.exception.ResourceNotFoundException;
 import com.vic.crm.repository.BatchRepository;
 import com.vic.crm.repository.CandidateRepository;
+import com.vic.crm.repository.CandidateSpecifications;
 import com.vic.crm.repository.MockRepository;
 import com.vic.crm.repository.TimelineEventRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -29,103 +49,169 @@ import java.util.Set;
 @RequiredArgsConstructor
 public class CandidateService {
 
-    private static final Set<CandidateStage> NON_TERMINAL_STAGES = Set.of(
-            CandidateStage.SOURCING,
-            CandidateStage.TRAINING,
-            CandidateStage.RESUME,
-            CandidateStage.MOCKING,
-            CandidateStage.MARKETING,
-            CandidateStage.OFFERED);
-
-    private static final Map<CandidateStage, Set<CandidateStage>> ALLOWED_TRANSITIONS = Map.of(
-            CandidateStage.SOURCING, Set.of(CandidateStage.TRAINING, CandidateStage.MARKETING,
-                    CandidateStage.ELIMINATED, CandidateStage.WITHDRAWN, CandidateStage.ON_HOLD),
-            CandidateStage.TRAINING, Set.of(CandidateStage.RESUME, CandidateStage.ELIMINATED,
-                    CandidateStage.WITHDRAWN, CandidateStage.ON_HOLD),
-            CandidateStage.RESUME, Set.of(CandidateStage.MOCKING, CandidateStage.ELIMINATED,
-                    CandidateStage.WITHDRAWN, CandidateStage.ON_HOLD),
-            CandidateStage.MOCKING, Set.of(CandidateStage.MARKETING, CandidateStage.ELIMINATED,
-                    CandidateStage.WITHDRAWN, CandidateStage.ON_HOLD),
-            CandidateStage.MARKETING, Set.of(CandidateStage.OFFERED, CandidateStage.ELIMINATED,
-                    CandidateStage.WITHDRAWN, CandidateStage.ON_HOLD),
-            CandidateStage.OFFERED, Set.of(CandidateStage.PLACED, CandidateStage.MARKETING,
-                    CandidateStage.ELIMINATED, CandidateStage.WITHDRAWN, CandidateStage.ON_HOLD),
-            CandidateStage.PLACED,
-            Set.of(CandidateStage.MARKETING, CandidateStage.ELIMINATED, CandidateStage.WITHDRAWN),
-            CandidateStage.ELIMINATED, Set.of(CandidateStage.SOURCING, CandidateStage.TRAINING,
-                    CandidateStage.RESUME, CandidateStage.MOCKING, CandidateStage.MARKETING, CandidateStage.OFFERED),
-            CandidateStage.WITHDRAWN, Set.of(CandidateStage.SOURCING, CandidateStage.TRAINING,
-                    CandidateStage.RESUME, CandidateStage.MOCKING, CandidateStage.MARKETING, CandidateStage.OFFERED),
-            CandidateStage.ON_HOLD, Set.of(CandidateStage.SOURCING, CandidateStage.TRAINING,
-                    CandidateStage.RESUME, CandidateStage.MOCKING, CandidateStage.MARKETING, CandidateStage.OFFERED));
-
-    private static final Map<CandidateStage, Set<CandidateSubStatus>> SUB_STATUS_BY_STAGE = Map.of(
-            CandidateStage.SOURCING, Set.of(
-                    CandidateSubStatus.SOURCED, CandidateSubStatus.CONTACTED, CandidateSubStatus.SCREENING_SCHEDULED,
-                    CandidateSubStatus.SCREENING_PASSED, CandidateSubStatus.SCREENING_FAILED,
-                    CandidateSubStatus.TRAINING_CONTRACT_SENT, CandidateSubStatus.TRAINING_CONTRACT_SIGNED,
-                    CandidateSubStatus.BATCH_ASSIGNED,
-                    CandidateSubStatus.DIRECT_MARKETING_READY),
-            CandidateStage.TRAINING, Set.of(
-                    CandidateSubStatus.IN_TRAINING),
-            CandidateStage.RESUME, Set.of(
-                    CandidateSubStatus.RESUME_PREPARING, CandidateSubStatus.RESUME_READY),
-            CandidateStage.MOCKING, Set.of(
-                    CandidateSubStatus.MOCK_THEORY_READY, CandidateSubStatus.MOCK_THEORY_SCHEDULED,
-                    CandidateSubStatus.MOCK_THEORY_PASSED, CandidateSubStatus.MOCK_THEORY_FAILED,
-                    CandidateSubStatus.MOCK_REAL_SCHEDULED, CandidateSubStatus.MOCK_REAL_PASSED,
-                    CandidateSubStatus.MOCK_REAL_FAILED),
-            CandidateStage.MARKETING, Set.of(CandidateSubStatus.MARKETING_ACTIVE),
-            CandidateStage.OFFERED, Set.of(
-                    CandidateSubStatus.OFFER_PENDING, CandidateSubStatus.OFFER_ACCEPTED,
-                    CandidateSubStatus.OFFER_DECLINED),
-            CandidateStage.ON_HOLD, Set.of(
-                    CandidateSubStatus.WAITING_DOCS, CandidateSubStatus.PERSONAL_PAUSE,
-                    CandidateSubStatus.VISA_ISSUE, CandidateSubStatus.OTHER),
-            CandidateStage.PLACED, Set.of(CandidateSubStatus.PLACED_CONFIRMED),
-            CandidateStage.ELIMINATED, Set.of(CandidateSubStatus.CLOSED),
-            CandidateStage.WITHDRAWN, Set.of(CandidateSubStatus.SELF_WITHDRAWN));
-
-    private static final Map<CandidateStage, CandidateSubStatus> DEFAULT_SUB_STATUS = Map.of(
-            CandidateStage.SOURCING, CandidateSubStatus.SOURCED,
-            CandidateStage.TRAINING, CandidateSubStatus.IN_TRAINING,
-            CandidateStage.RESUME, CandidateSubStatus.RESUME_PREPARING,
-            CandidateStage.MOCKING, CandidateSubStatus.MOCK_THEORY_READY,
-            CandidateStage.MARKETING, CandidateSubStatus.MARKETING_ACTIVE,
-            CandidateStage.OFFERED, CandidateSubStatus.OFFER_PENDING,
-            CandidateStage.ON_HOLD, CandidateSubStatus.OTHER,
-            CandidateStage.PLACED, CandidateSubStatus.PLACED_CONFIRMED,
-            CandidateStage.ELIMINATED, CandidateSubStatus.CLOSED,
-            CandidateStage.WITHDRAWN, CandidateSubStatus.SELF_WITHDRAWN);
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+    static final int DEFAULT_BOARD_CARDS = 20;
+    static final int MAX_BOARD_CARDS = 100;
+    static final int MAX_BULK_TRANSITION = 500;
+    private static final String PAGE_SORT_KEY = "stageUpdatedAt";
+    private static final String TIMELINE_SORT_KEY = "eventDate";
 
     private final CandidateRepository candidateRepository;
     private final TimelineEventRepository timelineEventRepository;
     private final BatchRepository batchRepository;
     private final MockRepository mockRepository;
+    private final TagIndexService tagIndexService;
+    private final SearchIndexService searchIndexService;
+    private final CandidateStatsService candidateStatsService;
+    private final StageDwellService stageDwellService;
+    private final FollowUpScheduler followUpScheduler;
+    private final CandidateDedupeService candidateDedupeService;
+    private final TransactionalTimelineEventWriter timelineEventWriter;
+    private final TimelineArchiveService timelineArchiveService;
+    private final OptimisticRetry optimisticRetry;
+    private final CandidateCommandDispatcher commandDispatcher;
 
     public List<Candidate> findAll() {
         return candidateRepository.findAll();
     }
 
+    /**
+     * Keyset page ordered by (stageUpdatedAt, id) descending. The page size is capped at
+     * {@link #MAX_PAGE_SIZE} regardless of what the client asks for.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Candidate> findPage(CandidateStage stage, String cursor, Integer limit) {
+        int size = resolvePageSize(limit);
+        // Fetch one extra row to learn whether another page exists without a count query
+        PageRequest pageRequest = PageRequest.ofSize(size + 1);
+        List<Candidate> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = candidateRepository.findFirstPage(stage, pageRequest);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor, PAGE_SORT_KEY, Sort.Direction.DESC);
+            rows = candidateRepository.findPageAfter(stage, position.getTimestamp(), position.getId(), pageRequest);
+        }
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<Candidate> items = rows.subList(0, size);
+        Candidate last = items.get(size - 1);
+        return new CursorPage<>(items, KeysetCursor.encode(PAGE_SORT_KEY, Sort.Direction.DESC, last.getStageUpdatedAt(), last.getId()));
+    }
+
+    /**
+     * Server-side filtered listing with keyset paging on the requested sort key plus id.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Candidate> search(CandidateFilter filter) {
+        int size = resolvePageSize(filter.getLimit());
+        CandidateFilter.SortField sortField = filter.getSort() != null
+                ? filter.getSort()
+                : CandidateFilter.SortField.STAGE_UPDATED_AT;
+        Sort.Direction direction = filter.getDirection() != null ? filter.getDirection() : Sort.Direction.DESC;
+
+        Specification<Candidate> spec = CandidateSpecifications.matching(filter)
+                .and(CandidateSpecifications.fetchAssociations());
+        if (filter.getCursor() != null && !filter.getCursor().isBlank()) {
+            KeysetCursor position = KeysetCursor.decode(filter.getCursor(), sortField.getProperty(), direction);
+            spec = spec.and(CandidateSpecifications.after(sortField.getProperty(), direction,
+                    position.getTimestamp(), position.getId()));
+        }
+        Sort sort = Sort.by(direction, sortField.getProperty()).and(Sort.by(direction, "id"));
+
+        List<Candidate> rows = candidateRepository.findBy(spec, query -> query.sortBy(sort).limit(size + 1).all());
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<Candidate> items = rows.subList(0, size);
+        Candidate last = items.get(size - 1);
+        LocalDateTime lastKey = sortField == CandidateFilter.SortField.CREATED_AT
+                ? last.getCreatedAt()
+                : last.getStageUpdatedAt();
+        return new CursorPage<>(items, KeysetCursor.encode(sortField.getProperty(), direction, lastKey, last.getId()));
+    }
+
+    /**
+     * Pipeline board: every stage column with its newest cards and total count. Cards come
+     * from a projection query, so no Candidate entities are loaded.
+     */
+    @Transactional(readOnly = true)
+    public CandidateBoardResponse getBoard(Integer cardsPerColumn) {
+        int perStage = cardsPerColumn == null || cardsPerColumn <= 0
+                ? DEFAULT_BOARD_CARDS
+                : Math.min(cardsPerColumn, MAX_BOARD_CARDS);
+
+        Map<CandidateStage, CandidateBoardResponse.Column> columns = new EnumMap<>(CandidateStage.class);
+        for (CandidateStage stage : CandidateStage.values()) {
+            CandidateBoardResponse.Column column = new CandidateBoardResponse.Column();
+            column.setStage(stage);
+            column.setCards(new ArrayList<>());
+            columns.put(stage, column);
+        }
+        for (CandidateBoardRow row : candidateRepository.findBoardCards(perStage)) {
+            CandidateBoardResponse.Column column = columns.get(row.getCard().getStage());
+            column.setTotal(row.getStageTotal());
+            column.getCards().add(row.getCard());
+        }
+
+        CandidateBoardResponse response = new CandidateBoardResponse();
+        response.setCardsPerColumn(perStage);
+        response.setColumns(new ArrayList<>(columns.values()));
+        return response;
+    }
+
     public Candidate findById(Long id) {
         return candidateRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Candidate not found with id: " + id));
     }
 
+    /**
+     * Swap an id-only candidate reference from a request body (e.g. {@code "candidate": {"id": 4}})
+     * for the stored candidate. A detached reference has no {@code version}, which Hibernate
+     * rejects when it is attached to a new or updated entity.
+     */
+    public Candidate resolveReference(Candidate reference) {
+        if (reference == null || reference.getId() == null) {
+            return reference;
+        }
+        return findById(reference.getId());
+    }
+
     public List<Candidate> findByStage(CandidateStage stage) {
         return candidateRepository.findByStage(stage);
     }
 
     @Transactional
     public Candidate create(Candidate candidate) {
+        return create(candidate, false);
+    }
+
+    /**
+     * Create a candidate, rejecting it when another candidate shares a normalized email, phone,
+     * WeChat id, Discord name or LinkedIn URL unless {@code allowDuplicate} is set.
+     */
+    @Transactional
+    public Candidate create(Candidate candidate, boolean allowDuplicate) {
+        if (!allowDuplicate) {
+            List<DuplicateMatch> duplicates = candidateDedupeService.findMatches(candidate);
+            if (!duplicates.isEmpty()) {
+                throw new DuplicateCandidateException(
+                        "Candidate looks like a duplicate of candidate " + duplicates.get(0).getCandidateId(),
+                        duplicates);
+            }
+        }
         if (candidate.getStage() == null) {
             candidate.setStage(CandidateStage.SOURCING);
         }
         if (candidate.getSubStatus() == null) {
-            candidate.setSubStatus(DEFAULT_SUB_STATUS.get(candidate.getStage()));
+            candidate.setSubStatus(CandidateLifecycle.defaultSubStatus(candidate.getStage()));
         }
         candidate.setStageUpdatedAt(LocalDateTime.now());
         Candidate saved = candidateRepository.save(candidate);
+        tagIndexService.index(TagIndexType.CANDIDATE, saved.getId(), saved.getTechTags());
+        searchIndexService.indexCandidate(saved);
+        candidateDedupeService.index(saved);
 
         createTimelineEvent(saved, TimelineEventType.CANDIDATE_CREATED, "Candidate Created",
                 "Candidate record created.", null, null, null, saved.getSubStatus(), null, null, null, null);
@@ -144,12 +230,18 @@ public class CandidateService {
                     null, null, null, null);
         }
 
+        candidateStatsService.recordChange(null, CandidateStatsService.Snapshot.of(saved));
         return saved;
     }
 
-    @Transactional
     public Candidate update(Long id, Candidate updated) {
+        return commandDispatcher.execute(id, () -> optimisticRetry.execute("candidate.update",
+                () -> doUpdate(id, updated)));
+    }
+
+    private Candidate doUpdate(Long id, Candidate updated) {
         Candidate existing = findById(id);
+        CandidateStatsService.Snapshot before = CandidateStatsService.Snapshot.of(existing);
         Batch previousBatch = existing.getBatch();
         existing.setName(updated.getName());
         existing.setEmail(updated.getEmail());
@@ -169,6 +261,9 @@ public class CandidateService {
         }
 
         Candidate saved = candidateRepository.save(existing);
+        tagIndexService.index(TagIndexType.CANDIDATE, saved.getId(), saved.getTechTags());
+        searchIndexService.indexCandidate(saved);
+        candidateDedupeService.index(saved);
 
         if (previousBatch == null && newBatch != null && existing.getStage() == CandidateStage.SOURCING) {
             if (saved.getSubStatus() != CandidateSubStatus.BATCH_ASSIGNED) {
@@ -185,12 +280,156 @@ public class CandidateService {
                     null, null, null, null);
         }
 
+        candidateStatsService.recordChange(before, CandidateStatsService.Snapshot.of(saved));
         return saved;
     }
 
-    @Transactional
     public Candidate transition(Long candidateId, TransitionRequest request, User actor) {
+        return commandDispatcher.execute(candidateId, () -> optimisticRetry.execute("candidate.transition",
+                () -> doTransition(candidateId, request, actor)));
+    }
+
+    private Candidate doTransition(Long candidateId, TransitionRequest request, User actor) {
         Candidate candidate = findById(candidateId);
+        CandidateStatsService.Snapshot before = CandidateStatsService.Snapshot.of(candidate);
+        CandidateStage fromStage = candidate.getStage();
+        LocalDateTime enteredAt = candidate.getStageUpdatedAt();
+
+        applyTransition(candidate, request);
+        Candidate saved = candidateRepository.save(candidate);
+
+        createTimelineEvent(saved, resolveEventType(fromStage, saved.getStage()),
+                generateTransitionTitle(fromStage, saved.getStage()), request.getReason(),
+                fromStage, saved.getStage(), null, saved.getSubStatus(), request.getCloseReason(),
+                actor, null, null);
+
+        candidateStatsService.recordChange(before, CandidateStatsService.Snapshot.of(saved));
+        if (saved.getStage() != fromStage) {
+            stageDwellService.recordStay(before, enteredAt, saved.getStageUpdatedAt());
+        }
+        followUpScheduler.track(saved);
+        return saved;
+    }
+
+    /**
+     * Apply one transition to many candidates in a single transaction, holding the command lanes
+     * of all of them. Candidates are loaded with one query and validated in memory; a candidate that fails validation is reported in
+     * its result and left unchanged while the others proceed.
+     */
+    public BulkTransitionResponse bulkTransition(List<Long> candidateIds, TransitionRequest request, User actor) {
+        if (candidateIds == null || candidateIds.isEmpty()) {
+            throw new IllegalArgumentException("candidateIds is required");
+        }
+        if (candidateIds.size() > MAX_BULK_TRANSITION) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_TRANSITION + " candidates per bulk transition");
+        }
+        if (request == null) {
+            throw new IllegalArgumentException("transition is required");
+        }
+        Set<Long> distinctIds = new LinkedHashSet<>(candidateIds);
+        return commandDispatcher.executeAll(distinctIds, () -> optimisticRetry.execute("candidate.bulkTransition", () -> {
+            Map<Long, Candidate> candidates = new LinkedHashMap<>();
+            for (Candidate candidate : candidateRepository.findAllById(distinctIds)) {
+                candidates.put(candidate.getId(), candidate);
+            }
+            return bulkTransition(candidateIds, candidates, request, actor, null);
+        }));
+    }
+
+    /**
+     * Set-based core of {@link #bulkTransition(List, TransitionRequest, User)} for callers that
+     * already hold the candidates and their command lanes (batch start/end). When {@code followUp} is given, a copy of it
+     * is written after each successful transition's own timeline event.
+     */
+    BulkTransitionResponse bulkTransition(List<Long> candidateIds, Map<Long, Candidate> candidates,
+            TransitionRequest request, User actor, TimelineEvent followUp) {
+        BulkTransitionResponse response = new BulkTransitionResponse();
+        response.setRequested(candidateIds.size());
+
+        List<Candidate> changed = new ArrayList<>();
+        List<TimelineEvent> events = new ArrayList<>();
+        List<CandidateStatsService.Snapshot> befores = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (Long candidateId : candidateIds) {
+            BulkTransitionResponse.Result result = new BulkTransitionResponse.Result();
+            result.setCandidateId(candidateId);
+            response.getResults().add(result);
+
+            Candidate candidate = candidates.get(candidateId);
+            if (candidate == null) {
+                result.setError("Candidate not found with id: " + candidateId);
+                continue;
+            }
+            if (!seen.add(candidateId)) {
+                result.setError("Duplicate candidate id in request");
+                continue;
+            }
+            CandidateStage fromStage = candidate.getStage();
+            result.setFromStage(fromStage);
+            CandidateStatsService.Snapshot before = CandidateStatsService.Snapshot.of(candidate);
+            LocalDateTime enteredAt = candidate.getStageUpdatedAt();
+            try {
+                applyTransition(candidate, request);
+            } catch (InvalidTransitionException ex) {
+                result.setError(ex.getMessage());
+                continue;
+            }
+            if (candidate.getStage() != fromStage) {
+                stageDwellService.recordStay(before, enteredAt, candidate.getStageUpdatedAt());
+            }
+            result.setSuccess(true);
+            result.setToStage(candidate.getStage());
+            result.setSubStatus(candidate.getSubStatus());
+            changed.add(candidate);
+            befores.add(before);
+
+            events.add(TimelineEvent.builder()
+                    .candidate(candidate)
+                    .eventType(resolveEventType(fromStage, candidate.getStage()))
+                    .title(generateTransitionTitle(fromStage, candidate.getStage()))
+                    .description(request.getReason())
+                    .fromStage(fromStage)
+                    .toStage(candidate.getStage())
+                    .subStatus(candidate.getSubStatus())
+                    .closeReason(request.getCloseReason())
+                    .createdBy(actor)
+                    .eventDate(now)
+                    .build());
+            if (followUp != null) {
+                events.add(TimelineEvent.builder()
+                        .candidate(candidate)
+                        .eventType(followUp.getEventType())
+                        .subType(followUp.getSubType())
+                        .title(followUp.getTitle())
+                        .description(followUp.getDescription())
+                        .subStatus(candidate.getSubStatus())
+                        .createdBy(actor)
+                        .eventDate(now)
+                        .build());
+            }
+        }
+
+        // Dirty candidates flush as one batched UPDATE statement group (hibernate.jdbc.batch_size);
+        // their timeline events go out as a single JDBC batch at commit.
+        candidateRepository.saveAll(changed);
+        candidateRepository.flush();
+        timelineEventWriter.appendAll(events);
+        for (int i = 0; i < changed.size(); i++) {
+            candidateStatsService.recordChange(befores.get(i), CandidateStatsService.Snapshot.of(changed.get(i)));
+            followUpScheduler.track(changed.get(i));
+        }
+
+        response.setSucceeded(changed.size());
+        response.setFailed(response.getRequested() - changed.size());
+        return response;
+    }
+
+    /**
+     * Validate {@code request} against the lifecycle and, only if it passes, move the candidate
+     * to the target stage and copy the request metadata onto it. Does not save.
+     */
+    private void applyTransition(Candidate candidate, TransitionRequest request) {
         CandidateStage fromStage = candidate.getStage();
         CandidateStage toStage = request.getToStage();
 
@@ -198,17 +437,17 @@ public class CandidateService {
             throw new InvalidTransitionException("toStage is required");
         }
 
-        if (!isTransitionAllowed(fromStage, toStage)) {
+        if (!CandidateLifecycle.isTransitionAllowed(fromStage, toStage)) {
             throw new InvalidTransitionException(
                     String.format("Transition from %s to %s is not allowed", fromStage, toStage));
         }
 
-        validateTransitionRules(candidate, fromStage, toStage, request);
+        CandidateLifecycle.check(candidate, toStage, request);
 
         CandidateSubStatus nextSubStatus = request.getToSubStatus() != null
                 ? request.getToSubStatus()
-                : DEFAULT_SUB_STATUS.get(toStage);
-        if (!isSubStatusAllowed(toStage, nextSubStatus)) {
+                : CandidateLifecycle.defaultSubStatus(toStage);
+        if (!CandidateLifecycle.isSubStatusAllowed(toStage, nextSubStatus)) {
             throw new InvalidTransitionException(
                     String.format("SubStatus %s is not allowed for stage %s", nextSubStatus, toStage));
         }
@@ -225,28 +464,21 @@ public class CandidateService {
         if (toStage == CandidateStage.ELIMINATED && !isBlank(request.getReason())) {
             candidate.setCloseReasonNote(request.getReason());
         }
-
-        Candidate saved = candidateRepository.save(candidate);
-
-        TimelineEventType eventType = resolveEventType(fromStage, toStage);
-        String title = generateTransitionTitle(fromStage, toStage);
-
-        createTimelineEvent(saved, eventType, title, request.getReason(),
-                fromStage, toStage, null, nextSubStatus, request.getCloseReason(),
-                actor, null, null);
-
-        return saved;
     }
 
-    @Transactional
     public Candidate updateSubStatus(Long candidateId, CandidateSubStatus subStatus, String reason, User actor) {
+        return commandDispatcher.execute(candidateId, () -> optimisticRetry.execute("candidate.updateSubStatus",
+                () -> doUpdateSubStatus(candidateId, subStatus, reason, actor)));
+    }
+
+    private Candidate doUpdateSubStatus(Long candidateId, CandidateSubStatus subStatus, String reason, User actor) {
         Candidate candidate = findById(candidateId);
         CandidateStage stage = candidate.getStage();
 
         if (subStatus == null) {
             throw new InvalidTransitionException("subStatus is required");
         }
-        if (!isSubStatusAllowed(stage, subStatus)) {
+        if (!CandidateLifecycle.isSubStatusAllowed(stage, subStatus)) {
             throw new InvalidTransitionException(
                     String.format("SubStatus %s is not allowed for stage %s", subStatus, stage));
         }
@@ -257,6 +489,7 @@ public class CandidateService {
         // Validate mock-managed substatuses
         validateMockManagedSubStatus(candidateId, stage, subStatus);
 
+        CandidateStatsService.Snapshot before = CandidateStatsService.Snapshot.of(candidate);
         candidate.setSubStatus(subStatus);
         syncResumeReady(candidate, stage, subStatus);
         Candidate saved = candidateRepository.save(candidate);
@@ -265,92 +498,103 @@ public class CandidateService {
         createTimelineEvent(saved, TimelineEventType.SUBSTATUS_CHANGED, title, reason,
                 stage, stage, null, subStatus, null, actor, null, null);
 
+        candidateStatsService.recordChange(before, CandidateStatsService.Snapshot.of(saved));
         return saved;
     }
 
-    public List<TimelineEvent> getTimeline(Long candidateId) {
-        return timelineEventRepository.findByCandidateIdOrderByEventDateDesc(candidateId);
+    public AllowedTransitionsResponse getAllowedTransitions(Long candidateId) {
+        return CandidateLifecycle.preflight(findById(candidateId));
     }
 
-    @Transactional
-    public TimelineEvent addTimelineEvent(Long candidateId, TimelineEventType eventType, String subType,
-            String title, String description, CloseReason closeReason, CandidateSubStatus subStatus,
-            String metaJson, LocalDateTime eventDate, User actor) {
-        Candidate candidate = findById(candidateId);
-        return createTimelineEvent(candidate, eventType, title, description,
-                null, null, subType, subStatus, closeReason, actor, metaJson, eventDate);
+    public List<TimelineEvent> getTimeline(Long candidateId) {
+        List<TimelineEvent> events = timelineEventRepository.findByCandidateIdOrderByEventDateDesc(candidateId);
+        List<TimelineEvent> archived = timelineArchiveService.findArchivedEvents(candidateId);
+        if (archived.isEmpty()) {
+            return events;
+        }
+        List<TimelineEvent> merged = new ArrayList<>(events.size() + archived.size());
+        merged.addAll(events);
+        merged.addAll(archived);
+        merged.sort(Comparator.comparing(TimelineEvent::getEventDate, Comparator.reverseOrder())
+                .thenComparing(TimelineEvent::getId, Comparator.reverseOrder()));
+        return merged;
     }
 
-    private void validateTransitionRules(Candidate candidate, CandidateStage fromStage, CandidateStage toStage,
-            TransitionRequest request) {
-        if (toStage == CandidateStage.TRAINING) {
-            requireBatch(candidate.getBatch());
-        }
-
-        if (fromStage == CandidateStage.SOURCING && toStage == CandidateStage.MARKETING) {
-            if (candidate.getSubStatus() != CandidateSubStatus.DIRECT_MARKETING_READY) {
-                throw new InvalidTransitionException("DIRECT_MARKETING_READY is required for direct marketing");
-            }
-            validateDirectMarketingCompleteness(candidate);
-        }
-
-        if (fromStage == CandidateStage.MOCKING && toStage == CandidateStage.MARKETING) {
-            if (candidate.getSubStatus() != CandidateSubStatus.MOCK_REAL_PASSED) {
-                throw new InvalidTransitionException("MOCK_REAL_PASSED is required to enter MARKETING");
-            }
-        }
-        if (toStage == CandidateStage.MOCKING) {
-            if (fromStage == CandidateStage.RESUME) {
-                if (candidate.getSubStatus() != CandidateSubStatus.RESUME_READY) {
-                    throw new InvalidTransitionException("RESUME_READY is required to enter MOCKING");
-                }
-            } else if (candidate.getResumeReady() == null || !candidate.getResumeReady()) {
-                throw new InvalidTransitionException("resumeReady must be true to enter MOCKING");
+    /**
+     * Keyset page of a candidate's timeline, newest first, optionally limited to {@code types}.
+     * Rows are slim projections; {@code metaJson} is only included when {@code includeMeta} is set.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TimelineEventView> getTimelinePage(Long candidateId, Set<TimelineEventType> types,
+            boolean includeMeta, String cursor, Integer limit) {
+        int size = resolvePageSize(limit);
+        Set<TimelineEventType> eventTypes = types == null || types.isEmpty()
+                ? EnumSet.allOf(TimelineEventType.class)
+                : types;
+        // Fetch one extra row to learn whether another page exists without a count query
+        PageRequest pageRequest = PageRequest.ofSize(size + 1);
+        KeysetCursor position = null;
+        List<TimelineEventView> rows;
+        if (cursor == null || cursor.isBlank()) {
+            if (!candidateRepository.existsById(candidateId)) {
+                throw new ResourceNotFoundException("Candidate not found with id: " + candidateId);
             }
+            rows = timelineEventRepository.findFirstPage(candidateId, eventTypes, includeMeta, pageRequest);
+        } else {
+            position = KeysetCursor.decode(cursor, TIMELINE_SORT_KEY, Sort.Direction.DESC);
+            rows = timelineEventRepository.findPageAfter(candidateId, eventTypes, includeMeta,
+                    position.getTimestamp(), position.getId(), pageRequest);
         }
-
-        if (toStage == CandidateStage.PLACED) {
-            requireDate(request.getStartDate(), "startDate is required for PLACED");
-        }
-
-        if (toStage == CandidateStage.OFFERED && request.getOfferType() == null) {
-            throw new InvalidTransitionException("offerType is required for OFFERED");
-        }
-
-        if (toStage == CandidateStage.ELIMINATED && request.getCloseReason() == null) {
-            throw new InvalidTransitionException("closeReason is required for ELIMINATED");
-        }
-
-        if (toStage == CandidateStage.WITHDRAWN && isBlank(request.getWithdrawReason())) {
-            throw new InvalidTransitionException("withdrawReason is required for WITHDRAWN");
+        rows = mergeArchived(rows, candidateId, eventTypes, includeMeta, position, size + 1);
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
         }
+        List<TimelineEventView> items = rows.subList(0, size);
+        TimelineEventView last = items.get(size - 1);
+        return new CursorPage<>(items, KeysetCursor.encode(TIMELINE_SORT_KEY, Sort.Direction.DESC, last.getEventDate(), last.getId()));
+    }
 
-        if (toStage == CandidateStage.ON_HOLD) {
-            if (isBlank(request.getHoldReason()) || request.getNextFollowUpAt() == null) {
-                throw new InvalidTransitionException("holdReason and nextFollowUpAt are required for ON_HOLD");
+    /**
+     * Merge the cold-tier events that belong on this page (same type filter, after the same
+     * cursor) into a hot-tier page; both are in timeline order, so the first {@code limit} of
+     * the merge is the correct page.
+     */
+    private List<TimelineEventView> mergeArchived(List<TimelineEventView> rows, Long candidateId,
+            Set<TimelineEventType> types, boolean includeMeta, KeysetCursor position, int limit) {
+        List<TimelineEventView> archived = new ArrayList<>();
+        for (TimelineEventView event : timelineArchiveService.findArchivedViews(candidateId)) {
+            if (!types.contains(event.getEventType())) {
+                continue;
             }
-        }
-
-        if ((fromStage == CandidateStage.ELIMINATED || fromStage == CandidateStage.WITHDRAWN)
-                && NON_TERMINAL_STAGES.contains(toStage)) {
-            if (isBlank(request.getReactivateReason())) {
-                throw new InvalidTransitionException("reactivateReason is required to reactivate a candidate");
+            if (position != null && (event.getEventDate().isAfter(position.getTimestamp())
+                    || (event.getEventDate().isEqual(position.getTimestamp()) && event.getId() >= position.getId()))) {
+                continue;
+            }
+            if (!includeMeta) {
+                event.setMetaJson(null);
             }
+            archived.add(event);
         }
-
-        if (fromStage == CandidateStage.ON_HOLD
-                && candidate.getLastActiveStage() != null
-                && toStage != candidate.getLastActiveStage()
-                && isBlank(request.getReason())) {
-            throw new InvalidTransitionException("reason is required to jump from ON_HOLD to a new stage");
+        if (archived.isEmpty()) {
+            return rows;
         }
+        List<TimelineEventView> merged = new ArrayList<>(rows);
+        merged.addAll(archived);
+        merged.sort(TimelineArchiveService.NEWEST_FIRST);
+        return merged.size() > limit ? merged.subList(0, limit) : merged;
+    }
 
-        if (fromStage == CandidateStage.OFFERED && toStage == CandidateStage.MARKETING) {
-            requireReason(request.getReason(), "reason is required to return to MARKETING");
-        }
-        if (fromStage == CandidateStage.PLACED && toStage == CandidateStage.MARKETING) {
-            requireReason(request.getReason(), "reason is required to return to MARKETING");
-        }
+    public TimelineEvent addTimelineEvent(Long candidateId, TimelineEventType eventType, String subType,
+            String title, String description, CloseReason closeReason, CandidateSubStatus subStatus,
+            String metaJson, LocalDateTime eventDate, User actor) {
+        return commandDispatcher.execute(candidateId, () -> optimisticRetry.execute("candidate.addTimelineEvent", () -> {
+            // Written synchronously: the caller gets the saved event back
+            Candidate candidate = findById(candidateId);
+            TimelineEvent saved = timelineEventRepository.save(buildTimelineEvent(candidate, eventType, title,
+                    description, null, null, subType, subStatus, closeReason, actor, metaJson, eventDate));
+            searchIndexService.indexTimelineEvent(saved);
+            return saved;
+        }));
     }
 
     private void applyTransitionMetadata(Candidate candidate, TransitionRequest request) {
@@ -380,27 +624,6 @@ public class CandidateService {
         }
     }
 
-    private void validateDirectMarketingCompleteness(Candidate candidate) {
-        if (isBlank(candidate.getName())) {
-            throw new InvalidTransitionException("name is required for direct marketing");
-        }
-        if (isBlank(candidate.getEmail()) && isBlank(candidate.getPhone())) {
-            throw new InvalidTransitionException("email or phone is required for direct marketing");
-        }
-        if (isBlank(candidate.getWorkAuth())) {
-            throw new InvalidTransitionException("workAuth is required for direct marketing");
-        }
-        if (isBlank(candidate.getTechTags())) {
-            throw new InvalidTransitionException("techTags is required for direct marketing");
-        }
-        if (isBlank(candidate.getCity()) && isBlank(candidate.getState())) {
-            throw new InvalidTransitionException("city or state is required for direct marketing");
-        }
-        if (candidate.getResumeReady() == null || !candidate.getResumeReady()) {
-            throw new InvalidTransitionException("resumeReady must be true for direct marketing");
-        }
-    }
-
     private void syncResumeReady(Candidate candidate, CandidateStage stage, CandidateSubStatus subStatus) {
         if (stage != CandidateStage.RESUME) {
             return;
@@ -412,34 +635,6 @@ public class CandidateService {
         }
     }
 
-    private void requireBatch(Batch batch) {
-        if (batch == null) {
-            throw new InvalidTransitionException("batch is required for TRAINING");
-        }
-    }
-
-    private void requireDate(LocalDate date, String message) {
-        if (date == null) {
-            throw new InvalidTransitionException(message);
-        }
-    }
-
-    private void requireReason(String reason, String message) {
-        if (isBlank(reason)) {
-            throw new InvalidTransitionException(message);
-        }
-    }
-
-    private boolean isTransitionAllowed(CandidateStage from, CandidateStage to) {
-        Set<CandidateStage> allowed = ALLOWED_TRANSITIONS.get(from);
-        return allowed != null && allowed.contains(to);
-    }
-
-    private boolean isSubStatusAllowed(CandidateStage stage, CandidateSubStatus subStatus) {
-        Set<CandidateSubStatus> allowed = SUB_STATUS_BY_STAGE.get(stage);
-        return allowed != null && allowed.contains(subStatus);
-    }
-
     private TimelineEventType resolveEventType(CandidateStage fromStage, CandidateStage toStage) {
         if (toStage == CandidateStage.ON_HOLD) {
             return TimelineEventType.ON_HOLD;
@@ -486,11 +681,23 @@ public class CandidateService {
         };
     }
 
-    private TimelineEvent createTimelineEvent(Candidate candidate, TimelineEventType eventType,
+    /**
+     * Record a lifecycle side-effect event. It is written by {@link TransactionalTimelineEventWriter}
+     * when this transaction commits, batched with the transaction's other events.
+     */
+    private void createTimelineEvent(Candidate candidate, TimelineEventType eventType,
+            String title, String description, CandidateStage fromStage, CandidateStage toStage,
+            String subType, CandidateSubStatus subStatus, CloseReason closeReason, User createdBy,
+            String metaJson, LocalDateTime eventDate) {
+        timelineEventWriter.append(buildTimelineEvent(candidate, eventType, title, description,
+                fromStage, toStage, subType, subStatus, closeReason, createdBy, metaJson, eventDate));
+    }
+
+    private TimelineEvent buildTimelineEvent(Candidate candidate, TimelineEventType eventType,
             String title, String description, CandidateStage fromStage, CandidateStage toStage,
             String subType, CandidateSubStatus subStatus, CloseReason closeReason, User createdBy,
             String metaJson, LocalDateTime eventDate) {
-        TimelineEvent event = TimelineEvent.builder()
+        return TimelineEvent.builder()
                 .candidate(candidate)
                 .eventType(eventType)
                 .subType(subType)
@@ -504,7 +711,6 @@ public class CandidateService {
                 .metaJson(metaJson)
                 .eventDate(eventDate)
                 .build();
-        return timelineEventRepository.save(event);
     }
 
     /**
@@ -562,6 +768,13 @@ public class CandidateService {
         }
     }
 
+    private int resolvePageSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
     private boolean isBlank(String value) {
         return value == null || value.trim().isEmpty();
     }
@@ -0,0 +1,211 @@
+package com.vic.crm.service;
+
+import com.vic.crm.dto.CandidateStatsResponse;
+import com.vic.crm.entity.Candidate;
+import com.vic.crm.enums.CandidateStage;
+import com.vic.crm.enums.CandidateSubStatus;
+import com.vic.crm.repository.CandidateRepository;
+import com.vic.crm.repository.CandidateStatusCount;
+import lombok.Getter;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory stage x sub-status counters for dashboards, globally and per batch and recruiter.
+ * CandidateService reports every lifecycle change after commit; a periodic GROUP BY
+ * reconciliation replaces the counters wholesale to correct any drift. Changes and
+ * reconciliation are ordered by a {@link RebuildGuard}: a change committing while the
+ * reconciliation counts is replayed onto the new counters, so it is neither lost with the old
+ * ones nor counted twice.
+ */
+@Service
+public class CandidateStatsService {
+
+    private final CandidateRepository candidateRepository;
+    private final TransactionTemplate snapshotTransaction;
+
+    private volatile Counters counters = new Counters();
+    private volatile LocalDateTime reconciledAt;
+
+    private final RebuildGuard<Change> rebuildGuard = new RebuildGuard<>(change -> counters.apply(change));
+
+    public CandidateStatsService(CandidateRepository candidateRepository,
+            PlatformTransactionManager transactionManager) {
+        this.candidateRepository = candidateRepository;
+        this.snapshotTransaction = RebuildGuard.snapshotTransaction(transactionManager);
+    }
+
+    /**
+     * Immutable view of the fields the counters are keyed on, captured before and after a write.
+     */
+    @Getter
+    public static final class Snapshot {
+        private final CandidateStage stage;
+        private final CandidateSubStatus subStatus;
+        private final Long batchId;
+        private final Long recruiterId;
+
+        private Snapshot(CandidateStage stage, CandidateSubStatus subStatus, Long batchId, Long recruiterId) {
+            this.stage = stage;
+            this.subStatus = subStatus;
+            this.batchId = batchId;
+            this.recruiterId = recruiterId;
+        }
+
+        public static Snapshot of(Candidate candidate) {
+            return new Snapshot(candidate.getStage(), candidate.getSubStatus(),
+                    candidate.getBatch() != null ? candidate.getBatch().getId() : null,
+                    candidate.getRecruiter() != null ? candidate.getRecruiter().getId() : null);
+        }
+
+        private boolean sameAs(Snapshot other) {
+            return other != null && stage == other.stage && subStatus == other.subStatus
+                    && Objects.equals(batchId, other.batchId) && Objects.equals(recruiterId, other.recruiterId);
+        }
+    }
+
+    /**
+     * Record a candidate moving from {@code before} (null for a new candidate) to {@code after}
+     * once the current transaction commits.
+     */
+    public void recordChange(Snapshot before, Snapshot after) {
+        if (after.sameAs(before)) {
+            return;
+        }
+        rebuildGuard.afterCommit(new Change(before, after));
+    }
+
+    public CandidateStatsResponse getStats(Long batchId, Long recruiterId) {
+        Counters current = counters;
+        StageCounts counts;
+        if (batchId != null) {
+            counts = current.byBatch.get(batchId);
+        } else if (recruiterId != null) {
+            counts = current.byRecruiter.get(recruiterId);
+        } else {
+            counts = current.global;
+        }
+
+        Map<CandidateStage, Long> byStage = new EnumMap<>(CandidateStage.class);
+        Map<CandidateStage, Map<CandidateSubStatus, Long>> byStageAndSubStatus = new EnumMap<>(CandidateStage.class);
+        long total = 0;
+        for (CandidateStage stage : CandidateStage.values()) {
+            Map<CandidateSubStatus, Long> subStatusCounts = new EnumMap<>(CandidateSubStatus.class);
+            long stageTotal = 0;
+            if (counts != null) {
+                for (Map.Entry<CandidateSubStatus, LongAdder> entry : counts.forStage(stage).entrySet()) {
+                    long value = entry.getValue().sum();
+                    if (value != 0) {
+                        subStatusCounts.put(entry.getKey(), value);
+                        stageTotal += value;
+                    }
+                }
+            }
+            byStage.put(stage, stageTotal);
+            byStageAndSubStatus.put(stage, subStatusCounts);
+            total += stageTotal;
+        }
+
+        CandidateStatsResponse response = new CandidateStatsResponse();
+        response.setBatchId(batchId);
+        response.setRecruiterId(batchId == null ? recruiterId : null);
+        response.setTotal(total);
+        response.setByStage(byStage);
+        response.setByStageAndSubStatus(byStageAndSubStatus);
+        response.setReconciledAt(reconciledAt);
+        return response;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.stats.reconcile-interval-ms:300000}",
+            initialDelayString = "${app.stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        try (RebuildGuard<Change>.Rebuild rebuild = rebuildGuard.start()) {
+            Counters fresh = snapshotTransaction.execute(status -> {
+                // A trivial read of candidates pins the snapshot countByStatus reads
+                rebuild.pin(() -> candidateRepository.existsById(0L));
+                Counters counted = new Counters();
+                for (CandidateStatusCount row : candidateRepository.countByStatus()) {
+                    counted.add(new Snapshot(row.getStage(), row.getSubStatus(), row.getBatchId(),
+                            row.getRecruiterId()), row.getTotal());
+                }
+                return counted;
+            });
+            rebuild.swap(changes -> {
+                changes.forEach(fresh::apply);
+                counters = fresh;
+                reconciledAt = LocalDateTime.now();
+            });
+        }
+    }
+
+    /** A candidate moving from {@code before} (null for a new candidate) to {@code after}. */
+    private record Change(Snapshot before, Snapshot after) {
+    }
+
+    private static final class Counters {
+        private final StageCounts global = new StageCounts();
+        private final Map<Long, StageCounts> byBatch = new ConcurrentHashMap<>();
+        private final Map<Long, StageCounts> byRecruiter = new ConcurrentHashMap<>();
+
+        void apply(Change change) {
+            if (change.before() != null) {
+                add(change.before(), -1);
+            }
+            add(change.after(), 1);
+        }
+
+        void add(Snapshot snapshot, long delta) {
+            if (snapshot.stage == null || snapshot.subStatus == null) {
+                return;
+            }
+            global.add(snapshot.stage, snapshot.subStatus, delta);
+            if (snapshot.batchId != null) {
+                byBatch.computeIfAbsent(snapshot.batchId, id -> new StageCounts())
+                        .add(snapshot.stage, snapshot.subStatus, delta);
+            }
+            if (snapshot.recruiterId != null) {
+                byRecruiter.computeIfAbsent(snapshot.recruiterId, id -> new StageCounts())
+                        .add(snapshot.stage, snapshot.subStatus, delta);
+            }
+        }
+    }
+
+    /**
+     * Fully pre-populated stage -> sub-status -> adder table; never mutated structurally after
+     * construction, so reads need no locking.
+     */
+    private static final class StageCounts {
+        private final Map<CandidateStage, Map<CandidateSubStatus, LongAdder>> counts =
+                new EnumMap<>(CandidateStage.class);
+
+        StageCounts() {
+            for (CandidateStage stage : CandidateStage.values()) {
+                Map<CandidateSubStatus, LongAdder> bySubStatus = new EnumMap<>(CandidateSubStatus.class);
+                for (CandidateSubStatus subStatus : CandidateSubStatus.values()) {
+                    bySubStatus.put(subStatus, new LongAdder());
+                }
+                counts.put(stage, bySubStatus);
+            }
+        }
+
+        void add(CandidateStage stage, CandidateSubStatus subStatus, long delta) {
+            counts.get(stage).get(subStatus).add(delta);
+        }
+
+        Map<CandidateSubStatus, LongAdder> forStage(CandidateStage stage) {
+            return counts.get(stage);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.vic.crm.service;
+
+import com.vic.crm.exception.ResourceNotFoundException;
+import com.vic.crm.repository.AssessmentAttemptRepository;
+import com.vic.crm.repository.CandidateRepository;
+import com.vic.crm.repository.CandidateVersionRow;
+import com.vic.crm.repository.OpportunityRepository;
+import com.vic.crm.repository.PipelineStepRepository;
+import com.vic.crm.repository.TimelineEventRepository;
+import com.vic.crm.repository.VendorEngagementRepository;
+import com.vic.crm.repository.VersionStamp;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * ETags for the candidate resources the frontend polls. Each one is computed from a single-row
+ * version lookup (version and update times, or count / max id / max updatedAt aggregates) so an If-None-Match
+ * check can answer 304 without loading or serializing the resource.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class CandidateVersionService {
+
+    private final CandidateRepository candidateRepository;
+    private final TimelineEventRepository timelineEventRepository;
+    private final VendorEngagementRepository engagementRepository;
+    private final AssessmentAttemptRepository attemptRepository;
+    private final OpportunityRepository opportunityRepository;
+    private final PipelineStepRepository pipelineStepRepository;
+
+    /**
+     * ETag plus Last-Modified (epoch millis, -1 when unknown) for one resource.
+     */
+    public static final class Version {
+        private final String etag;
+        private final long lastModified;
+
+        private Version(String etag, long lastModified) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+    }
+
+    /**
+     * The candidate body embeds its batch (with trainer) and recruiter, so their update times are
+     * part of the version alongside the candidate's own version and updatedAt.
+     */
+    public Version candidate(Long candidateId) {
+        CandidateVersionRow row = candidateRepository.findVersionById(candidateId)
+                .orElseThrow(() -> new ResourceNotFoundException("Candidate not found with id: " + candidateId));
+        String parts = row.getVersion() + ":" + row.getUpdatedAt() + ":" + row.getBatchUpdatedAt() + ":"
+                + row.getTrainerUpdatedAt() + ":" + row.getRecruiterUpdatedAt();
+        LocalDateTime lastModified = Stream.of(row.getUpdatedAt(), row.getBatchUpdatedAt(),
+                        row.getTrainerUpdatedAt(), row.getRecruiterUpdatedAt())
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        return new Version(etag("candidate", candidateId, parts), lastModified != null
+                ? lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : -1);
+    }
+
+    public Version timeline(Long candidateId) {
+        VersionStamp events = timelineEventRepository.findVersionByCandidateId(candidateId);
+        return new Version(etag("timeline", candidateId, stamp(events)), -1);
+    }
+
+    public Version engagements(Long candidateId) {
+        if (!candidateRepository.existsById(candidateId)) {
+            throw new ResourceNotFoundException("Candidate not found: " + candidateId);
+        }
+        String parts = stamp(engagementRepository.findVersionByCandidateId(candidateId))
+                + stamp(attemptRepository.findVersionByCandidateId(candidateId))
+                + stamp(opportunityRepository.findVersionByCandidateId(candidateId))
+                + stamp(pipelineStepRepository.findVersionByCandidateId(candidateId));
+        return new Version(etag("engagements", candidateId, parts), -1);
+    }
+
+    private static String stamp(VersionStamp stamp) {
+        return stamp.getTotal() + ":" + stamp.getMaxId() + ":" + stamp.getLastUpdatedAt() + ";";
+    }
+
+    private static String etag(String resource, Long id, Object version) {
+        String hash = DigestUtils.md5DigestAsHex(String.valueOf(version).getBytes(StandardCharsets.UTF_8));
+        return resource + "-" + id + "-" + hash;
+    }
+}
@@ -0,0 +1,7 @@
+package com.vic.crm.service;
+
+/**
+ * A client was updated; engagement summaries show its company name.
+ */
+public record ClientChangedEvent(Long clientId) {
+}
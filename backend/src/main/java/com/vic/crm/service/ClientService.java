@@ -3,7 +3,9 @@ package com.vic.crm.service;
 import com.vic.crm.entity.Client;
 import com.vic.crm.repository.ClientRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -12,6 +14,7 @@ import java.util.List;
 public class ClientService {
 
     private final ClientRepository clientRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<Client> findAll() {
         return clientRepository.findAll();
@@ -26,12 +29,15 @@ public class ClientService {
         return clientRepository.save(client);
     }
 
+    @Transactional
     public Client update(Long id, Client client) {
         Client existing = findById(id);
         existing.setCompanyName(client.getCompanyName());
         existing.setIndustry(client.getIndustry());
         existing.setNotes(client.getNotes());
-        return clientRepository.save(existing);
+        Client saved = clientRepository.save(existing);
+        eventPublisher.publishEvent(new ClientChangedEvent(saved.getId()));
+        return saved;
     }
 
     public void delete(Long id) {
@@ -0,0 +1,15 @@
+package com.vic.crm.service;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Something shown in vendor engagements' summaries changed: the engagements themselves, their
+ * attempts or opportunities, or pipeline steps of their opportunities.
+ */
+public record EngagementChangedEvent(Collection<Long> engagementIds) {
+
+    public EngagementChangedEvent(Long engagementId) {
+        this(List.of(engagementId));
+    }
+}
@@ -0,0 +1,241 @@
+package com.vic.crm.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vic.crm.dto.CandidateEngagementResponse;
+import com.vic.crm.dto.EngagementSummaryDocument;
+import com.vic.crm.dto.OpportunityStepRollup;
+import com.vic.crm.dto.VendorEngagementResponse;
+import com.vic.crm.entity.AssessmentAttempt;
+import com.vic.crm.entity.EngagementSummary;
+import com.vic.crm.repository.CandidateEngagementRow;
+import com.vic.crm.repository.EngagementKeyRow;
+import com.vic.crm.repository.EngagementOpportunityRow;
+import com.vic.crm.repository.EngagementSummaryRepository;
+import com.vic.crm.repository.OpportunityRepository;
+import com.vic.crm.repository.VendorEngagementRepository;
+import com.vic.crm.repository.VendorEngagementRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Denormalized read model behind the candidate and vendor engagement pages. Each vendor
+ * engagement has one {@code engagement_summaries} row holding its attempts and opportunities
+ * (with position and client names and each opportunity's latest step) as a JSON document; a page
+ * is one indexed query joining those rows to the engagement and its vendor or candidate, whose
+ * own fields are therefore always current.
+ *
+ * <p>Rows are rebuilt from the domain events published by the engagement, attempt, opportunity,
+ * pipeline step, position and client writes. The rebuild runs just before the writing
+ * transaction commits, so a summary never shows a write that rolled back nor misses one that
+ * committed. Engagements without a row (e.g. created before the read model) are backfilled at
+ * startup.
+ */
+@Slf4j
+@Service
+public class EngagementReadModelService {
+
+    private final EngagementSummaryRepository summaryRepository;
+    private final VendorEngagementRepository engagementRepository;
+    private final OpportunityRepository opportunityRepository;
+    private final EngagementSummaryLoader summaryLoader;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public EngagementReadModelService(EngagementSummaryRepository summaryRepository,
+            VendorEngagementRepository engagementRepository,
+            OpportunityRepository opportunityRepository,
+            EngagementSummaryLoader summaryLoader,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.engagement-summaries.batch-size:200}") int batchSize) {
+        this.summaryRepository = summaryRepository;
+        this.engagementRepository = engagementRepository;
+        this.opportunityRepository = opportunityRepository;
+        this.summaryLoader = summaryLoader;
+        this.objectMapper = objectMapper;
+        // Joins the publishing transaction; events published outside one get their own
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public List<CandidateEngagementResponse> findByCandidateId(Long candidateId) {
+        List<CandidateEngagementResponse> responses = new ArrayList<>();
+        for (CandidateEngagementRow row : summaryRepository.findByCandidateId(candidateId)) {
+            CandidateEngagementResponse response = read(row.getPayload(), CandidateEngagementResponse.class);
+            response.setId(row.getId());
+            response.setStatus(row.getStatus());
+            CandidateEngagementResponse.VendorSummary vendor = new CandidateEngagementResponse.VendorSummary();
+            vendor.setId(row.getVendorId());
+            vendor.setCompanyName(row.getVendorCompanyName());
+            vendor.setContactName(row.getVendorContactName());
+            vendor.setEmail(row.getVendorEmail());
+            vendor.setPhone(row.getVendorPhone());
+            response.setVendor(vendor);
+            responses.add(response);
+        }
+        return responses;
+    }
+
+    public List<VendorEngagementResponse> findByVendorId(Long vendorId) {
+        List<VendorEngagementResponse> responses = new ArrayList<>();
+        for (VendorEngagementRow row : summaryRepository.findByVendorId(vendorId)) {
+            VendorEngagementResponse response = read(row.getPayload(), VendorEngagementResponse.class);
+            response.setId(row.getId());
+            response.setStatus(row.getStatus());
+            VendorEngagementResponse.CandidateSummary candidate = new VendorEngagementResponse.CandidateSummary();
+            candidate.setId(row.getCandidateId());
+            candidate.setName(row.getCandidateName());
+            candidate.setEmail(row.getCandidateEmail());
+            candidate.setPhone(row.getCandidatePhone());
+            response.setCandidate(candidate);
+            responses.add(response);
+        }
+        return responses;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onEngagementChanged(EngagementChangedEvent event) {
+        rebuild(event.engagementIds());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onPositionChanged(PositionChangedEvent event) {
+        rebuild(opportunityRepository.findEngagementIdsByPositionId(event.positionId()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onClientChanged(ClientChangedEvent event) {
+        rebuild(opportunityRepository.findEngagementIdsByClientId(event.clientId()));
+    }
+
+    /**
+     * Build summary rows for engagements that have none, a batch per transaction.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int built = 0;
+        while (true) {
+            List<Long> engagementIds = engagementRepository.findIdsWithoutSummary(PageRequest.ofSize(batchSize));
+            if (engagementIds.isEmpty()) {
+                break;
+            }
+            rebuild(engagementIds);
+            built += engagementIds.size();
+        }
+        if (built > 0) {
+            log.info("Built {} engagement summaries", built);
+        }
+    }
+
+    /**
+     * Rewrite the summary rows of {@code engagementIds} from the current data.
+     */
+    public void rebuild(Collection<Long> engagementIds) {
+        if (engagementIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(new LinkedHashSet<>(engagementIds));
+        transactionTemplate.executeWithoutResult(status -> {
+            EngagementSummaryLoader.Details details = summaryLoader.load(ids);
+            LocalDateTime now = LocalDateTime.now();
+            List<EngagementSummary> rows = new ArrayList<>();
+            for (EngagementKeyRow key : engagementRepository.findKeysByIds(ids)) {
+                EngagementSummaryDocument document = new EngagementSummaryDocument();
+                document.setAttempts(toAttemptSummaries(details.attempts(key.getId())));
+                document.setOpportunities(toOpportunitySummaries(details.opportunities(key.getId()), details));
+                rows.add(EngagementSummary.builder()
+                        .engagementId(key.getId())
+                        .candidateId(key.getCandidateId())
+                        .vendorId(key.getVendorId())
+                        .engagementCreatedAt(key.getCreatedAt())
+                        .payload(write(document))
+                        .rebuiltAt(now)
+                        .build());
+            }
+            summaryRepository.saveAll(rows);
+        });
+    }
+
+    private List<CandidateEngagementResponse.AssessmentAttemptSummary> toAttemptSummaries(
+            List<AssessmentAttempt> attempts) {
+        List<CandidateEngagementResponse.AssessmentAttemptSummary> summaries = new ArrayList<>();
+        for (AssessmentAttempt attempt : attempts) {
+            CandidateEngagementResponse.AssessmentAttemptSummary summary =
+                    new CandidateEngagementResponse.AssessmentAttemptSummary();
+            summary.setId(attempt.getId());
+            summary.setAttemptType(attempt.getAttemptType());
+            summary.setTrack(attempt.getTrack());
+            summary.setState(attempt.getState());
+            summary.setResult(attempt.getResult());
+            summary.setHappenedAt(attempt.getHappenedAt());
+            summaries.add(summary);
+        }
+        return summaries;
+    }
+
+    private List<CandidateEngagementResponse.OpportunitySummary> toOpportunitySummaries(
+            List<EngagementOpportunityRow> opportunities, EngagementSummaryLoader.Details details) {
+        List<CandidateEngagementResponse.OpportunitySummary> summaries = new ArrayList<>();
+        for (EngagementOpportunityRow opportunity : opportunities) {
+            CandidateEngagementResponse.OpportunitySummary summary =
+                    new CandidateEngagementResponse.OpportunitySummary();
+            summary.setId(opportunity.getId());
+            summary.setPositionId(opportunity.getPositionId());
+            summary.setPositionTitle(opportunity.getPositionTitle());
+            summary.setClientId(opportunity.getClientId());
+            summary.setClientName(opportunity.getClientName());
+            summary.setStatus(opportunity.getStatus());
+            summary.setSubmittedAt(opportunity.getSubmittedAt());
+
+            OpportunityStepRollup rollup = details.rollup(opportunity.getId());
+            if (rollup != null) {
+                summary.setLatestStep(toStepSummary(rollup));
+            }
+            summaries.add(summary);
+        }
+        return summaries;
+    }
+
+    private CandidateEngagementResponse.PipelineStepSummary toStepSummary(OpportunityStepRollup rollup) {
+        CandidateEngagementResponse.PipelineStepSummary summary =
+                new CandidateEngagementResponse.PipelineStepSummary();
+        summary.setId(rollup.getLatestStepId());
+        summary.setType(rollup.getLatestType());
+        summary.setState(rollup.getLatestState());
+        summary.setResult(rollup.getLatestResult());
+        summary.setHappenedAt(rollup.getLatestHappenedAt());
+        return summary;
+    }
+
+    private String write(EngagementSummaryDocument document) {
+        try {
+            return objectMapper.writeValueAsString(document);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to serialize engagement summary", ex);
+        }
+    }
+
+    private <T> T read(String payload, Class<T> type) {
+        try {
+            return objectMapper.readValue(payload, type);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to read engagement summary", ex);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.vic.crm.service;
+
+import com.vic.crm.dto.OpportunityStepRollup;
+import com.vic.crm.entity.AssessmentAttempt;
+import com.vic.crm.repository.AssessmentAttemptRepository;
+import com.vic.crm.repository.EngagementOpportunityRow;
+import com.vic.crm.repository.OpportunityRepository;
+import com.vic.crm.repository.PipelineStepRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads everything below a set of vendor engagements for their summary documents with a fixed
+ * number of set-based queries, whatever the number of engagements: attempts by engagement ids,
+ * opportunities (with position and client names) by engagement ids, and one ranked rollup per
+ * opportunity giving its latest step. Read-only: opportunity statuses are maintained by the step
+ * writes and OpportunityStatusReconciler.
+ */
+@Component
+@RequiredArgsConstructor
+class EngagementSummaryLoader {
+
+    private final AssessmentAttemptRepository attemptRepository;
+    private final OpportunityRepository opportunityRepository;
+    private final PipelineStepRepository pipelineStepRepository;
+
+    Details load(List<Long> engagementIds) {
+        Details details = new Details();
+        if (engagementIds.isEmpty()) {
+            return details;
+        }
+
+        for (AssessmentAttempt attempt : attemptRepository.findByVendorEngagementIdInOrderByHappenedAtDesc(engagementIds)) {
+            details.attempts.computeIfAbsent(attempt.getVendorEngagement().getId(), id -> new ArrayList<>())
+                    .add(attempt);
+        }
+
+        List<EngagementOpportunityRow> opportunities =
+                opportunityRepository.findSummariesByVendorEngagementIds(engagementIds);
+        for (EngagementOpportunityRow opportunity : opportunities) {
+            details.opportunities.computeIfAbsent(opportunity.getEngagementId(), id -> new ArrayList<>())
+                    .add(opportunity);
+        }
+        if (opportunities.isEmpty()) {
+            return details;
+        }
+
+        List<Long> opportunityIds = opportunities.stream().map(EngagementOpportunityRow::getId).toList();
+        for (OpportunityStepRollup rollup : pipelineStepRepository.findRollupsByOpportunityIds(opportunityIds)) {
+            details.rollups.put(rollup.getOpportunityId(), rollup);
+        }
+        return details;
+    }
+
+    static final class Details {
+        private final Map<Long, List<AssessmentAttempt>> attempts = new HashMap<>();
+        private final Map<Long, List<EngagementOpportunityRow>> opportunities = new HashMap<>();
+        private final Map<Long, OpportunityStepRollup> rollups = new HashMap<>();
+
+        /** Attempts of one engagement, newest first. */
+        List<AssessmentAttempt> attempts(Long engagementId) {
+            return attempts.getOrDefault(engagementId, List.of());
+        }
+
+        /** Opportunities of one engagement, most recently submitted first. */
+        List<EngagementOpportunityRow> opportunities(Long engagementId) {
+            return opportunities.getOrDefault(engagementId, List.of());
+        }
+
+        /** Latest-step rollup of one opportunity; null when it has no steps. */
+        OpportunityStepRollup rollup(Long opportunityId) {
+            return rollups.get(opportunityId);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.vic.crm.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vic.crm.enums.ExportFormat;
+import com.vic.crm.repository.CandidateExportRow;
+import com.vic.crm.repository.CandidateRepository;
+import com.vic.crm.repository.TimelineEventRepository;
+import com.vic.crm.repository.TimelineExportRow;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Full-table CSV / NDJSON exports. Rows come from a forward-only projection cursor inside a
+ * read-only transaction and are written to the response as they are read, so memory use does
+ * not grow with the number of rows exported.
+ */
+@Service
+public class ExportService {
+
+    private static final List<Column<CandidateExportRow>> CANDIDATE_COLUMNS = List.of(
+            new Column<>("id", CandidateExportRow::getId),
+            new Column<>("name", CandidateExportRow::getName),
+            new Column<>("email", CandidateExportRow::getEmail),
+            new Column<>("phone", CandidateExportRow::getPhone),
+            new Column<>("wechatId", CandidateExportRow::getWechatId),
+            new Column<>("wechatName", CandidateExportRow::getWechatName),
+            new Column<>("discordName", CandidateExportRow::getDiscordName),
+            new Column<>("linkedinUrl", CandidateExportRow::getLinkedinUrl),
+            new Column<>("techTags", CandidateExportRow::getTechTags),
+            new Column<>("workAuth", CandidateExportRow::getWorkAuth),
+            new Column<>("city", CandidateExportRow::getCity),
+            new Column<>("state", CandidateExportRow::getState),
+            new Column<>("relocation", CandidateExportRow::getRelocation),
+            new Column<>("school", CandidateExportRow::getSchool),
+            new Column<>("major", CandidateExportRow::getMajor),
+            new Column<>("stage", CandidateExportRow::getStage),
+            new Column<>("subStatus", CandidateExportRow::getSubStatus),
+            new Column<>("stageUpdatedAt", CandidateExportRow::getStageUpdatedAt),
+            new Column<>("batchName", CandidateExportRow::getBatchName),
+            new Column<>("recruiterName", CandidateExportRow::getRecruiterName),
+            new Column<>("notes", CandidateExportRow::getNotes),
+            new Column<>("createdAt", CandidateExportRow::getCreatedAt),
+            new Column<>("updatedAt", CandidateExportRow::getUpdatedAt));
+
+    private static final List<Column<TimelineExportRow>> TIMELINE_COLUMNS = List.of(
+            new Column<>("id", TimelineExportRow::getId),
+            new Column<>("candidateId", TimelineExportRow::getCandidateId),
+            new Column<>("candidateName", TimelineExportRow::getCandidateName),
+            new Column<>("eventType", TimelineExportRow::getEventType),
+            new Column<>("subType", TimelineExportRow::getSubType),
+            new Column<>("fromStage", TimelineExportRow::getFromStage),
+            new Column<>("toStage", TimelineExportRow::getToStage),
+            new Column<>("subStatus", TimelineExportRow::getSubStatus),
+            new Column<>("closeReason", TimelineExportRow::getCloseReason),
+            new Column<>("title", TimelineExportRow::getTitle),
+            new Column<>("description", TimelineExportRow::getDescription),
+            new Column<>("createdBy", TimelineExportRow::getCreatedByName),
+            new Column<>("eventDate", TimelineExportRow::getEventDate));
+
+    /** Order of both timeline tiers' export streams; the export merges them on it. */
+    static final Comparator<TimelineExportRow> TIMELINE_EXPORT_ORDER = Comparator
+            .comparing(TimelineExportRow::getCandidateId)
+            .thenComparing(TimelineExportRow::getEventDate, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(TimelineExportRow::getId);
+
+    private final CandidateRepository candidateRepository;
+    private final TimelineEventRepository timelineEventRepository;
+    private final TimelineArchiveService timelineArchiveService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ExportService(CandidateRepository candidateRepository,
+            TimelineEventRepository timelineEventRepository,
+            TimelineArchiveService timelineArchiveService,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager) {
+        this.candidateRepository = candidateRepository;
+        this.timelineEventRepository = timelineEventRepository;
+        this.timelineArchiveService = timelineArchiveService;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public void exportCandidates(ExportFormat format, OutputStream out) {
+        export(candidateRepository::streamExport, CANDIDATE_COLUMNS, format, out);
+    }
+
+    public void exportTimeline(ExportFormat format, Long candidateId, OutputStream out) {
+        // Hot and archived events interleave per candidate, so merge the two sorted streams
+        export(() -> mergeSorted(timelineEventRepository.streamExport(candidateId),
+                timelineArchiveService.streamExport(candidateId), TIMELINE_EXPORT_ORDER), TIMELINE_COLUMNS, format, out);
+    }
+
+    /**
+     * Merge two streams that are each sorted by {@code order} into one sorted stream, reading
+     * each lazily. Closing the result closes both inputs.
+     */
+    static <T> Stream<T> mergeSorted(Stream<T> first, Stream<T> second, Comparator<? super T> order) {
+        Iterator<T> left = first.iterator();
+        Iterator<T> right = second.iterator();
+        Iterator<T> merged = new Iterator<>() {
+            private T nextLeft = left.hasNext() ? left.next() : null;
+            private T nextRight = right.hasNext() ? right.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return nextLeft != null || nextRight != null;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                T row;
+                if (nextRight == null || (nextLeft != null && order.compare(nextLeft, nextRight) <= 0)) {
+                    row = nextLeft;
+                    nextLeft = left.hasNext() ? left.next() : null;
+                } else {
+                    row = nextRight;
+                    nextRight = right.hasNext() ? right.next() : null;
+                }
+                return row;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED), false)
+                .onClose(() -> {
+                    try {
+                        first.close();
+                    } finally {
+                        second.close();
+                    }
+                });
+    }
+
+    private <T> void export(Supplier<Stream<T>> source, List<Column<T>> columns, ExportFormat format,
+            OutputStream out) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<T> rows = source.get()) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                RowWriter<T> rowWriter = format == ExportFormat.NDJSON
+                        ? new NdjsonRowWriter<>(objectMapper, writer, columns)
+                        : new CsvRowWriter<>(writer, columns);
+                rowWriter.start();
+                rows.forEach(row -> {
+                    try {
+                        rowWriter.write(row);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+                rowWriter.finish();
+                writer.flush();
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to write export", ex);
+            }
+        });
+    }
+
+    private static final class Column<T> {
+        private final String name;
+        private final Function<T, Object> value;
+
+        private Column(String name, Function<T, Object> value) {
+            this.name = name;
+            this.value = value;
+        }
+    }
+
+    private interface RowWriter<T> {
+        void start() throws IOException;
+
+        void write(T row) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvRowWriter<T> implements RowWriter<T> {
+        private final Writer writer;
+        private final List<Column<T>> columns;
+
+        private CsvRowWriter(Writer writer, List<Column<T>> columns) {
+            this.writer = writer;
+            this.columns = columns;
+        }
+
+        @Override
+        public void start() throws IOException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(columns.get(i).name);
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = columns.get(i).value.apply(row);
+                if (value != null) {
+                    writeField(value.toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void finish() {
+        }
+
+        private void writeField(String value) throws IOException {
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private static final class NdjsonRowWriter<T> implements RowWriter<T> {
+        private final JsonGenerator generator;
+        private final List<Column<T>> columns;
+
+        private NdjsonRowWriter(ObjectMapper objectMapper, Writer writer, List<Column<T>> columns) throws IOException {
+            this.generator = objectMapper.createGenerator(writer).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Rows are newline-terminated explicitly; drop Jackson's default " " between root values.
+            this.generator.setRootValueSeparator(null);
+            this.columns = columns;
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            generator.writeStartObject();
+            for (Column<T> column : columns) {
+                generator.writeFieldName(column.name);
+                generator.writeObject(column.value.apply(row));
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+    }
+}
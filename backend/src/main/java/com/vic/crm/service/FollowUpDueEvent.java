@@ -0,0 +1,10 @@
+package com.vic.crm.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published after an ON_HOLD candidate's follow-up has come due and been recorded on the
+ * timeline. Notification channels listen for this rather than polling candidates.
+ */
+public record FollowUpDueEvent(Long candidateId, String candidateName, String holdReason, LocalDateTime dueAt) {
+}
@@ -0,0 +1,199 @@
+package com.vic.crm.service;
+
+import com.vic.crm.entity.Candidate;
+import com.vic.crm.entity.TimelineEvent;
+import com.vic.crm.enums.CandidateStage;
+import com.vic.crm.enums.TimelineEventType;
+import com.vic.crm.repository.CandidateRepository;
+import com.vic.crm.repository.FollowUpRow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Acts on {@code nextFollowUpAt} of ON_HOLD candidates. Pending follow-ups live in an in-memory
+ * {@link DelayQueue}: loaded once at startup through {@code idx_candidate_follow_up} and kept
+ * current by CandidateService after each committed transition, so nothing polls the candidates
+ * table. A single worker wakes when the earliest follow-up is due.
+ *
+ * <p>When a follow-up fires the candidate is re-read on its command lane. If it is still ON_HOLD
+ * and its follow-up is due, {@code nextFollowUpAt} is cleared, a timeline event is written and a
+ * {@link FollowUpDueEvent} is published after commit. Clearing the field makes firing
+ * once-only across restarts; follow-ups that came due while the application was down fire right
+ * after startup.
+ */
+@Slf4j
+@Service
+public class FollowUpScheduler {
+
+    private final CandidateRepository candidateRepository;
+    private final TransactionalTimelineEventWriter timelineEventWriter;
+    private final OptimisticRetry optimisticRetry;
+    private final CandidateCommandDispatcher commandDispatcher;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DelayQueue<DueFollowUp> queue = new DelayQueue<>();
+    // Latest follow-up per candidate; queue entries that no longer match are stale and skipped
+    private final Map<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+    private final Counter fired;
+    private Thread worker;
+    private volatile boolean running;
+
+    public FollowUpScheduler(CandidateRepository candidateRepository,
+            TransactionalTimelineEventWriter timelineEventWriter,
+            OptimisticRetry optimisticRetry,
+            CandidateCommandDispatcher commandDispatcher,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry) {
+        this.candidateRepository = candidateRepository;
+        this.timelineEventWriter = timelineEventWriter;
+        this.optimisticRetry = optimisticRetry;
+        this.commandDispatcher = commandDispatcher;
+        this.eventPublisher = eventPublisher;
+        this.fired = meterRegistry.counter("crm.follow_ups.fired");
+        Gauge.builder("crm.follow_ups.pending", pending, Map::size)
+                .description("ON_HOLD follow-ups waiting to come due")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        worker = new Thread(this::fireDue, "follow-up-scheduler");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void close() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        int loaded = 0;
+        for (FollowUpRow row : candidateRepository.findFollowUps(CandidateStage.ON_HOLD)) {
+            // A transition that committed while loading has already scheduled the newer value
+            if (pending.putIfAbsent(row.getCandidateId(), row.getNextFollowUpAt()) == null) {
+                queue.add(new DueFollowUp(row.getCandidateId(), row.getNextFollowUpAt()));
+                loaded++;
+            }
+        }
+        log.info("Scheduled {} ON_HOLD follow-ups", loaded);
+    }
+
+    /**
+     * Track {@code candidate}'s follow-up once the current transaction commits: scheduled while it
+     * is ON_HOLD with a follow-up time, dropped otherwise.
+     */
+    public void track(Candidate candidate) {
+        Long candidateId = candidate.getId();
+        LocalDateTime dueAt = candidate.getStage() == CandidateStage.ON_HOLD ? candidate.getNextFollowUpAt() : null;
+        AfterCommit.run(() -> {
+            if (dueAt == null) {
+                pending.remove(candidateId);
+                return;
+            }
+            if (!dueAt.equals(pending.put(candidateId, dueAt))) {
+                queue.add(new DueFollowUp(candidateId, dueAt));
+            }
+        });
+    }
+
+    private void fireDue() {
+        while (running) {
+            try {
+                DueFollowUp due = queue.poll(1, TimeUnit.SECONDS);
+                if (due != null && pending.remove(due.candidateId, due.dueAt)) {
+                    fireOrRetry(due);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void fireOrRetry(DueFollowUp due) {
+        try {
+            commandDispatcher.execute(due.candidateId,
+                    () -> optimisticRetry.execute("candidate.followUp", () -> fire(due.candidateId)));
+        } catch (RuntimeException ex) {
+            log.error("Failed to fire follow-up for candidate {}; retrying in a minute", due.candidateId, ex);
+            LocalDateTime retryAt = LocalDateTime.now().plusMinutes(1);
+            if (pending.putIfAbsent(due.candidateId, retryAt) == null) {
+                queue.add(new DueFollowUp(due.candidateId, retryAt));
+            }
+        }
+    }
+
+    private boolean fire(Long candidateId) {
+        Candidate candidate = candidateRepository.findById(candidateId).orElse(null);
+        if (candidate == null || candidate.getStage() != CandidateStage.ON_HOLD
+                || candidate.getNextFollowUpAt() == null
+                || candidate.getNextFollowUpAt().isAfter(LocalDateTime.now())) {
+            return false;
+        }
+        LocalDateTime dueAt = candidate.getNextFollowUpAt();
+        candidate.setNextFollowUpAt(null);
+        candidateRepository.save(candidate);
+
+        timelineEventWriter.append(TimelineEvent.builder()
+                .candidate(candidate)
+                .eventType(TimelineEventType.ON_HOLD)
+                .subType("follow_up_due")
+                .title("Follow-up Due")
+                .description(candidate.getHoldReason() != null
+                        ? String.format("Follow-up due. On hold: %s", candidate.getHoldReason())
+                        : "Follow-up due.")
+                .fromStage(CandidateStage.ON_HOLD)
+                .toStage(CandidateStage.ON_HOLD)
+                .subStatus(candidate.getSubStatus())
+                .build());
+        FollowUpDueEvent event = new FollowUpDueEvent(candidateId, candidate.getName(), candidate.getHoldReason(),
+                dueAt);
+        AfterCommit.run(() -> {
+            fired.increment();
+            eventPublisher.publishEvent(event);
+        });
+        return true;
+    }
+
+    private static final class DueFollowUp implements Delayed {
+        private final Long candidateId;
+        private final LocalDateTime dueAt;
+        private final long dueAtMillis;
+
+        private DueFollowUp(Long candidateId, LocalDateTime dueAt) {
+            this.candidateId = candidateId;
+            this.dueAt = dueAt;
+            this.dueAtMillis = dueAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueAtMillis, ((DueFollowUp) other).dueAtMillis);
+        }
+    }
+}
@@ -0,0 +1,389 @@
+package com.vic.crm.service;
+
+import com.vic.crm.dto.FunnelResponse;
+import com.vic.crm.entity.AssessmentAttempt;
+import com.vic.crm.entity.FunnelRollup;
+import com.vic.crm.entity.Opportunity;
+import com.vic.crm.entity.PipelineStep;
+import com.vic.crm.enums.FunnelGranularity;
+import com.vic.crm.enums.FunnelScope;
+import com.vic.crm.enums.FunnelStage;
+import com.vic.crm.enums.StepResult;
+import com.vic.crm.enums.StepState;
+import com.vic.crm.enums.StepType;
+import com.vic.crm.repository.AssessmentAttemptRepository;
+import com.vic.crm.repository.AttemptFunnelRow;
+import com.vic.crm.repository.FunnelRollupRepository;
+import com.vic.crm.repository.FunnelStageTotal;
+import com.vic.crm.repository.PipelineStepRepository;
+import com.vic.crm.repository.StepFunnelRow;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Vendor and client conversion funnels (OA, vendor screening, client interview, offer, placed)
+ * from pre-aggregated {@code funnel_rollups} rows. A fact is one completed assessment attempt or
+ * pipeline step, counted in the day, week and month of its {@code happenedAt} as reached and, if
+ * its result is PASS, as passed. Attempts are vendor-side, so client funnels start at the client
+ * interview.
+ *
+ * <p>The attempt and step writes report each fact's before and after state; the difference is
+ * applied to the affected rows after commit, in its own transaction. Changes that move facts
+ * indirectly (e.g. a position moved to another client) and deltas lost to failures are corrected
+ * by the full rebuild at startup and on {@code app.analytics.funnel.rebuild-cron}. Deltas and the
+ * rebuild are ordered by a {@link RebuildGuard}: the deltas of facts committed while the rebuild
+ * aggregates are merged into its rows before they replace the old ones, so each fact is counted
+ * exactly once.
+ */
+@Slf4j
+@Service
+public class FunnelRollupService {
+
+    static final Set<StepType> FUNNEL_STEP_TYPES =
+            EnumSet.of(StepType.CLIENT_INTERVIEW, StepType.OFFER, StepType.PLACED);
+
+    private static final int MAX_PERIODS = 366;
+
+    private final FunnelRollupRepository rollupRepository;
+    private final AssessmentAttemptRepository attemptRepository;
+    private final PipelineStepRepository stepRepository;
+    private final TransactionTemplate writeTransaction;
+    private final TransactionTemplate snapshotTransaction;
+    private final TransactionTemplate rebuildTransaction;
+    private final RebuildGuard<Map<Key, long[]>> rebuildGuard = new RebuildGuard<>(this::applyDeltas);
+
+    private volatile LocalDateTime rebuiltAt;
+
+    public FunnelRollupService(FunnelRollupRepository rollupRepository,
+            AssessmentAttemptRepository attemptRepository,
+            PipelineStepRepository stepRepository,
+            PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.attemptRepository = attemptRepository;
+        this.stepRepository = stepRepository;
+        // Deltas are applied from afterCommit callbacks, where the caller's transaction is finished
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.snapshotTransaction = RebuildGuard.snapshotTransaction(transactionManager);
+        this.rebuildTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * What one attempt or step contributes to the funnel; null when it contributes nothing
+     * (not completed, or a step type outside the funnel).
+     */
+    @Getter
+    public static final class Fact {
+        private final FunnelStage stage;
+        private final Long vendorId;
+        private final Long clientId;
+        private final LocalDate day;
+        private final boolean passed;
+
+        private Fact(FunnelStage stage, Long vendorId, Long clientId, LocalDateTime happenedAt, StepResult result) {
+            this.stage = stage;
+            this.vendorId = vendorId;
+            this.clientId = clientId;
+            this.day = happenedAt.toLocalDate();
+            this.passed = result == StepResult.PASS;
+        }
+
+        public static Fact of(AssessmentAttempt attempt) {
+            FunnelStage stage = FunnelStage.of(attempt.getAttemptType());
+            if (stage == null || attempt.getState() != StepState.COMPLETED || attempt.getHappenedAt() == null) {
+                return null;
+            }
+            return new Fact(stage, attempt.getVendorEngagement().getVendor().getId(), null,
+                    attempt.getHappenedAt(), attempt.getResult());
+        }
+
+        public static Fact of(PipelineStep step) {
+            FunnelStage stage = FunnelStage.of(step.getType());
+            if (stage == null || step.getState() != StepState.COMPLETED || step.getHappenedAt() == null) {
+                return null;
+            }
+            Opportunity opportunity = step.getOpportunity();
+            return new Fact(stage, opportunity.getVendorEngagement().getVendor().getId(),
+                    opportunity.getPosition().getClient().getId(), step.getHappenedAt(), step.getResult());
+        }
+
+        private boolean sameAs(Fact other) {
+            return other != null && stage == other.stage && passed == other.passed
+                    && Objects.equals(vendorId, other.vendorId) && Objects.equals(clientId, other.clientId)
+                    && Objects.equals(day, other.day);
+        }
+    }
+
+    /**
+     * Record an attempt or step changing from {@code before} to {@code after} (either may be null)
+     * once the current transaction commits.
+     */
+    public void recordChange(Fact before, Fact after) {
+        if (before == null ? after == null : before.sameAs(after)) {
+            return;
+        }
+        Map<Key, long[]> deltas = new LinkedHashMap<>();
+        if (before != null) {
+            addFact(deltas, before, -1);
+        }
+        if (after != null) {
+            addFact(deltas, after, 1);
+        }
+        deltas.values().removeIf(delta -> delta[0] == 0 && delta[1] == 0);
+        if (!deltas.isEmpty()) {
+            rebuildGuard.afterCommit(deltas);
+        }
+    }
+
+    private void applyDeltas(Map<Key, long[]> deltas) {
+        try {
+            writeTransaction.executeWithoutResult(status -> deltas.forEach(this::applyDelta));
+        } catch (DataIntegrityViolationException ex) {
+            // A concurrent write inserted one of the rows first; the retry updates it instead
+            try {
+                writeTransaction.executeWithoutResult(status -> deltas.forEach(this::applyDelta));
+            } catch (RuntimeException retryEx) {
+                log.warn("Failed to apply funnel deltas; the next rebuild corrects them", retryEx);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Failed to apply funnel deltas; the next rebuild corrects them", ex);
+        }
+    }
+
+    private void applyDelta(Key key, long[] delta) {
+        int updated = rollupRepository.addCounts(key.scope(), key.scopeId(), key.granularity(), key.periodStart(),
+                key.stage(), delta[0], delta[1]);
+        if (updated == 0 && delta[0] > 0) {
+            rollupRepository.save(key.toRollup(delta[0], delta[1]));
+        }
+    }
+
+    /**
+     * Funnel of one vendor or client between {@code from} and {@code to} (inclusive, widened to
+     * whole windows), with totals and per-window counts.
+     */
+    public FunnelResponse getFunnel(FunnelScope scope, Long scopeId, FunnelGranularity granularity,
+            LocalDate from, LocalDate to) {
+        FunnelResponse response = newResponse(scope, scopeId, granularity, from, to);
+        Map<LocalDate, Map<FunnelStage, long[]>> periods = new TreeMap<>();
+        Map<FunnelStage, long[]> totals = new EnumMap<>(FunnelStage.class);
+        for (FunnelRollup rollup : rollupRepository.findPeriods(scope, scopeId, granularity,
+                response.getFrom(), response.getTo())) {
+            if (rollup.getReached() == 0 && rollup.getPassed() == 0) {
+                // Emptied by deltas; the next rebuild drops the row
+                continue;
+            }
+            add(periods.computeIfAbsent(rollup.getPeriodStart(), start -> new EnumMap<>(FunnelStage.class)),
+                    rollup.getStage(), rollup.getReached(), rollup.getPassed());
+            add(totals, rollup.getStage(), rollup.getReached(), rollup.getPassed());
+        }
+        response.setStages(toStageCounts(totals));
+        periods.forEach((periodStart, counts) -> {
+            FunnelResponse.Period period = new FunnelResponse.Period();
+            period.setPeriodStart(periodStart);
+            period.setStages(toStageCounts(counts));
+            response.getPeriods().add(period);
+        });
+        return response;
+    }
+
+    /**
+     * Funnel totals of every vendor or client with activity between {@code from} and {@code to},
+     * for side-by-side comparison; read from the {@code granularity} rows.
+     */
+    public List<FunnelResponse> compareFunnels(FunnelScope scope, FunnelGranularity granularity,
+            LocalDate from, LocalDate to) {
+        FunnelResponse range = newResponse(scope, null, granularity, from, to);
+        Map<Long, Map<FunnelStage, long[]>> byScopeId = new LinkedHashMap<>();
+        for (FunnelStageTotal total : rollupRepository.sumByScopeId(scope, granularity, range.getFrom(),
+                range.getTo())) {
+            if (total.getReached() == 0 && total.getPassed() == 0) {
+                continue;
+            }
+            add(byScopeId.computeIfAbsent(total.getScopeId(), id -> new EnumMap<>(FunnelStage.class)),
+                    total.getStage(), total.getReached(), total.getPassed());
+        }
+        List<FunnelResponse> responses = new ArrayList<>();
+        byScopeId.forEach((scopeId, totals) -> {
+            FunnelResponse response = newResponse(scope, scopeId, granularity, range.getFrom(), range.getTo());
+            response.setStages(toStageCounts(totals));
+            responses.add(response);
+        });
+        return responses;
+    }
+
+    /**
+     * Replace every rollup row with a fresh aggregation over all completed attempts and funnel
+     * steps. The aggregation reads a snapshot while deltas keep landing on the old rows; only
+     * the final replace, with the deltas committed meanwhile merged in, excludes them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.analytics.funnel.rebuild-cron:0 0 4 * * *}")
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        Integer rows;
+        try (RebuildGuard<Map<Key, long[]>>.Rebuild rebuild = rebuildGuard.start()) {
+            Map<Key, long[]> counts = new HashMap<>();
+            snapshotTransaction.executeWithoutResult(status -> {
+                rebuild.pin(() -> {
+                    attemptRepository.existsById(0L);
+                    stepRepository.existsById(0L);
+                });
+                try (Stream<AttemptFunnelRow> attempts = attemptRepository.streamFunnelFacts(StepState.COMPLETED)) {
+                    attempts.forEach(row -> addFact(counts, FunnelStage.of(row.getAttemptType()),
+                            row.getVendorId(), null, row.getHappenedAt().toLocalDate(),
+                            row.getResult() == StepResult.PASS, 1));
+                }
+                try (Stream<StepFunnelRow> steps = stepRepository.streamFunnelFacts(StepState.COMPLETED,
+                        FUNNEL_STEP_TYPES)) {
+                    steps.forEach(row -> addFact(counts, FunnelStage.of(row.getType()), row.getVendorId(),
+                            row.getClientId(), row.getHappenedAt().toLocalDate(),
+                            row.getResult() == StepResult.PASS, 1));
+                }
+            });
+            // The transaction holds its connection before the swap takes the guard, so writers
+            // waiting at commit cannot starve it
+            rows = rebuildTransaction.execute(status -> {
+                List<FunnelRollup> rollups = new ArrayList<>(counts.size());
+                rebuild.swap(deltas -> {
+                    deltas.forEach(delta -> delta.forEach((key, count) -> {
+                        long[] total = counts.computeIfAbsent(key, k -> new long[2]);
+                        total[0] += count[0];
+                        total[1] += count[1];
+                    }));
+                    rollupRepository.deleteAllInBatch();
+                    counts.forEach((key, count) -> {
+                        if (count[0] != 0 || count[1] != 0) {
+                            rollups.add(key.toRollup(count[0], count[1]));
+                        }
+                    });
+                    rollupRepository.saveAll(rollups);
+                });
+                return rollups.size();
+            });
+        }
+        rebuiltAt = LocalDateTime.now();
+        log.info("Rebuilt {} funnel rollups in {} ms", rows, System.currentTimeMillis() - started);
+    }
+
+    private FunnelResponse newResponse(FunnelScope scope, Long scopeId, FunnelGranularity granularity,
+            LocalDate from, LocalDate to) {
+        LocalDate end = granularity.periodStart(to != null ? to : LocalDate.now());
+        LocalDate start = granularity.periodStart(from != null ? from : defaultFrom(granularity, end));
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        LocalDate limit = start;
+        for (int i = 0; i < MAX_PERIODS && !limit.isAfter(end); i++) {
+            limit = granularity.next(limit);
+        }
+        if (!limit.isAfter(end)) {
+            throw new IllegalArgumentException("Range spans more than " + MAX_PERIODS + " "
+                    + granularity.name().toLowerCase() + " windows");
+        }
+        FunnelResponse response = new FunnelResponse();
+        response.setScope(scope);
+        response.setScopeId(scopeId);
+        response.setGranularity(granularity);
+        response.setFrom(start);
+        response.setTo(end);
+        response.setRebuiltAt(rebuiltAt);
+        return response;
+    }
+
+    private static LocalDate defaultFrom(FunnelGranularity granularity, LocalDate end) {
+        return switch (granularity) {
+            case DAY -> end.minusDays(29);
+            case WEEK -> end.minusWeeks(11);
+            case MONTH -> end.minusMonths(11);
+        };
+    }
+
+    private static List<FunnelResponse.StageCount> toStageCounts(Map<FunnelStage, long[]> counts) {
+        List<FunnelResponse.StageCount> stages = new ArrayList<>();
+        Long previousReached = null;
+        for (FunnelStage stage : FunnelStage.values()) {
+            long[] count = counts.getOrDefault(stage, new long[2]);
+            FunnelResponse.StageCount stageCount = new FunnelResponse.StageCount();
+            stageCount.setStage(stage);
+            stageCount.setReached(count[0]);
+            stageCount.setPassed(count[1]);
+            stageCount.setPassRate(count[0] > 0 ? (double) count[1] / count[0] : null);
+            stageCount.setConversionRate(previousReached != null && previousReached > 0
+                    ? (double) count[0] / previousReached
+                    : null);
+            stages.add(stageCount);
+            previousReached = count[0];
+        }
+        return stages;
+    }
+
+    private static void add(Map<FunnelStage, long[]> counts, FunnelStage stage, long reached, long passed) {
+        long[] count = counts.computeIfAbsent(stage, s -> new long[2]);
+        count[0] += reached;
+        count[1] += passed;
+    }
+
+    private static void addFact(Map<Key, long[]> counts, Fact fact, int sign) {
+        addFact(counts, fact.stage, fact.vendorId, fact.clientId, fact.day, fact.passed, sign);
+    }
+
+    private static void addFact(Map<Key, long[]> counts, FunnelStage stage, Long vendorId, Long clientId,
+            LocalDate day, boolean passed, int sign) {
+        for (FunnelGranularity granularity : FunnelGranularity.values()) {
+            LocalDate periodStart = granularity.periodStart(day);
+            if (vendorId != null) {
+                addCount(counts, new Key(FunnelScope.VENDOR, vendorId, granularity, periodStart, stage), passed, sign);
+            }
+            if (clientId != null) {
+                addCount(counts, new Key(FunnelScope.CLIENT, clientId, granularity, periodStart, stage), passed, sign);
+            }
+        }
+    }
+
+    private static void addCount(Map<Key, long[]> counts, Key key, boolean passed, int sign) {
+        long[] count = counts.computeIfAbsent(key, k -> new long[2]);
+        count[0] += sign;
+        if (passed) {
+            count[1] += sign;
+        }
+    }
+
+    private record Key(FunnelScope scope, Long scopeId, FunnelGranularity granularity, LocalDate periodStart,
+            FunnelStage stage) {
+
+        FunnelRollup toRollup(long reached, long passed) {
+            return FunnelRollup.builder()
+                    .scope(scope)
+                    .scopeId(scopeId)
+                    .granularity(granularity)
+                    .periodStart(periodStart)
+                    .stage(stage)
+                    .reached(reached)
+                    .passed(passed)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.vic.crm.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vic.crm.entity.IdempotencyKey;
+import com.vic.crm.exception.IdempotencyKeyInProgressException;
+import com.vic.crm.repository.IdempotencyKeyRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key handling for POST endpoints that clients retry. The first request with a key
+ * reserves it in {@code idempotency_keys}, runs, and stores its status and JSON body; a retry
+ * with the same key gets that stored response back (marked {@code Idempotent-Replayed: true})
+ * without running the command again. Completed responses are also kept in a bounded in-memory
+ * cache so most replays never reach the database.
+ *
+ * <p>Only successful responses are stored: when the command throws, the reservation is released
+ * and the client may retry with the same key. A retry that arrives while the original is still
+ * running gets 409, and a key reused for a different request gets 400.
+ *
+ * <p>A reservation is a lease: one left behind by a request that died mid-flight (no status, and
+ * {@code reservedAt} older than {@code app.idempotency.lease-seconds}) is re-claimed by the next
+ * retry instead of answering 409 until the row is purged. So that the lease never re-runs a
+ * command that already committed, the response is written in the command's own transaction when
+ * the command opens one through {@link OptimisticRetry}; otherwise it is written right after.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    // The reservation of the idempotent request running on this thread (or on its command lane)
+    private static final ThreadLocal<Reservation> ACTIVE = new ThreadLocal<>();
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate keyTransaction;
+    private final Duration ttl;
+    private final Duration lease;
+    private final Cache<String, StoredResponse> completed;
+
+    public IdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.idempotency.cache-size:10000}") long cacheSize,
+            @Value("${app.idempotency.ttl-hours:24}") long ttlHours,
+            @Value("${app.idempotency.lease-seconds:60}") long leaseSeconds) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.objectMapper = objectMapper;
+        this.keyTransaction = new TransactionTemplate(transactionManager);
+        this.keyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttl = Duration.ofHours(ttlHours);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Run {@code command} at most once per {@code key}. {@code scope} (method and path) and
+     * {@code request} identify the request the key belongs to. Without a key the command just
+     * runs.
+     */
+    public ResponseEntity<?> execute(String key, String scope, Object request, HttpStatus status,
+            Supplier<?> command) {
+        if (key == null || key.isBlank()) {
+            return ResponseEntity.status(status).body(command.get());
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        String fingerprint = fingerprint(scope, request);
+
+        StoredResponse stored = completed.getIfPresent(key);
+        Reservation reservation = null;
+        if (stored == null) {
+            Object claim = reserveOrLoad(key, fingerprint, status);
+            if (claim instanceof Reservation taken) {
+                reservation = taken;
+            } else {
+                stored = (StoredResponse) claim;
+            }
+        }
+        if (stored != null) {
+            requireSameRequest(key, stored.fingerprint, fingerprint);
+            return ResponseEntity.status(stored.statusCode)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(REPLAYED_HEADER, "true")
+                    .body(stored.body);
+        }
+
+        Object result;
+        try {
+            result = runAs(reservation, command);
+        } catch (RuntimeException | Error ex) {
+            Reservation released = reservation;
+            keyTransaction.executeWithoutResult(
+                    tx -> idempotencyKeyRepository.deleteReservation(key, released.reservedAt));
+            throw ex;
+        }
+        String body;
+        boolean owned;
+        if (reservation.completed && reservation.result == result) {
+            // Already stored by the command's own transaction
+            body = reservation.body;
+            owned = true;
+        } else {
+            body = toJson(result);
+            Reservation held = reservation;
+            // Only while this request still holds the key: after its lease ran out another
+            // request may have reclaimed it, and that reservation's row is not ours to complete
+            Integer updated = keyTransaction.execute(tx -> idempotencyKeyRepository.completeReservation(key,
+                    held.reservedAt, status.value(), body, LocalDateTime.now()));
+            owned = updated != null && updated == 1;
+        }
+        if (owned) {
+            completed.put(key, new StoredResponse(fingerprint, status.value(), body));
+        }
+        return ResponseEntity.status(status).body(result);
+    }
+
+    /**
+     * Store {@code result} as the response of the idempotent request running on this thread, in
+     * the transaction that produced it. Called by {@link OptimisticRetry} just before the
+     * command's transaction commits; a no-op outside an idempotent request.
+     */
+    void completeInTransaction(Object result) {
+        Reservation reservation = ACTIVE.get();
+        if (reservation == null) {
+            return;
+        }
+        // Flush first so the body carries the versions and timestamps being committed
+        idempotencyKeyRepository.flush();
+        String body = toJson(result);
+        int updated = idempotencyKeyRepository.completeReservation(reservation.key, reservation.reservedAt,
+                reservation.statusCode, body, LocalDateTime.now());
+        // Rolled back with the transaction if the commit fails; a retried attempt completes again
+        reservation.completed = updated == 1;
+        reservation.result = result;
+        reservation.body = body;
+    }
+
+    /**
+     * Wrap {@code command} so that it runs as part of this thread's idempotent request on whichever
+     * thread executes it; used by the candidate command lanes.
+     */
+    static <T> Supplier<T> propagate(Supplier<T> command) {
+        Reservation reservation = ACTIVE.get();
+        if (reservation == null) {
+            return command;
+        }
+        return () -> runAs(reservation, command);
+    }
+
+    private static <T> T runAs(Reservation reservation, Supplier<T> command) {
+        Reservation previous = ACTIVE.get();
+        ACTIVE.set(reservation);
+        try {
+            return command.get();
+        } finally {
+            if (previous != null) {
+                ACTIVE.set(previous);
+            } else {
+                ACTIVE.remove();
+            }
+        }
+    }
+
+    /**
+     * Reserve {@code key} for this request and return the {@link Reservation}, or return the
+     * {@link StoredResponse} when the key has already completed.
+     */
+    private Object reserveOrLoad(String key, String fingerprint, HttpStatus status) {
+        LocalDateTime reservedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        Optional<IdempotencyKey> existing = keyTransaction.execute(tx -> idempotencyKeyRepository.findByKey(key));
+        if (existing.isPresent()) {
+            IdempotencyKey record = existing.get();
+            if (record.getStatusCode() != null) {
+                return loaded(record);
+            }
+            requireSameRequest(key, record.getFingerprint(), fingerprint);
+            if (!record.getReservedAt().isBefore(reservedAt.minus(lease))) {
+                throw inProgress(key);
+            }
+            // The original request died without completing or releasing the key; take over its lease
+            Integer claimed = keyTransaction.execute(tx -> idempotencyKeyRepository.reclaimReservation(key,
+                    record.getReservedAt(), reservedAt));
+            if (claimed == null || claimed != 1) {
+                throw inProgress(key);
+            }
+            return new Reservation(key, reservedAt, status.value());
+        }
+        try {
+            keyTransaction.executeWithoutResult(tx -> idempotencyKeyRepository.saveAndFlush(IdempotencyKey.builder()
+                    .key(key)
+                    .fingerprint(fingerprint)
+                    .reservedAt(reservedAt)
+                    .build()));
+            return new Reservation(key, reservedAt, status.value());
+        } catch (DataIntegrityViolationException ex) {
+            // Another request reserved the key between the lookup and the insert
+            throw inProgress(key);
+        }
+    }
+
+    private StoredResponse loaded(IdempotencyKey record) {
+        StoredResponse stored = new StoredResponse(record.getFingerprint(), record.getStatusCode(),
+                record.getResponseBody());
+        completed.put(record.getKey(), stored);
+        return stored;
+    }
+
+    private static void requireSameRequest(String key, String storedFingerprint, String fingerprint) {
+        if (!storedFingerprint.equals(fingerprint)) {
+            throw new IllegalArgumentException(HEADER + " " + key + " was already used for a different request");
+        }
+    }
+
+    private static IdempotencyKeyInProgressException inProgress(String key) {
+        return new IdempotencyKeyInProgressException(
+                "A request with " + HEADER + " " + key + " is still in progress; retry shortly");
+    }
+
+    private String fingerprint(String scope, Object request) {
+        return DigestUtils.md5DigestAsHex((scope + "\n" + toJson(request)).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to serialize idempotent response", ex);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:3600000}",
+            initialDelayString = "${app.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        keyTransaction.executeWithoutResult(
+                tx -> idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minus(ttl)));
+    }
+
+    /**
+     * A key this request holds, identified by its lease start so that a request whose lease was
+     * taken over can no longer complete or release it.
+     */
+    private static final class Reservation {
+        private final String key;
+        private final LocalDateTime reservedAt;
+        private final int statusCode;
+        private volatile boolean completed;
+        private volatile Object result;
+        private volatile String body;
+
+        private Reservation(String key, LocalDateTime reservedAt, int statusCode) {
+            this.key = key;
+            this.reservedAt = reservedAt;
+            this.statusCode = statusCode;
+        }
+    }
+
+    private static final class StoredResponse {
+        private final String fingerprint;
+        private final int statusCode;
+        private final String body;
+
+        private StoredResponse(String fingerprint, int statusCode, String body) {
+            this.fingerprint = fingerprint;
+            this.statusCode = statusCode;
+            this.body = body;
+        }
+    }
+}
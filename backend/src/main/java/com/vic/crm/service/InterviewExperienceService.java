@@ -1,6 +1,8 @@
 package com.vic.crm.service;
 
 import com.vic.crm.entity.InterviewExperience;
+import com.vic.crm.enums.SearchDocumentType;
+import com.vic.crm.enums.TagIndexType;
 import com.vic.crm.repository.InterviewExperienceRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -12,6 +14,9 @@ import java.util.List;
 public class InterviewExperienceService {
 
     private final InterviewExperienceRepository repository;
+    private final TagIndexService tagIndexService;
+    private final SearchIndexService searchIndexService;
+    private final CandidateService candidateService;
 
     public List<InterviewExperience> findAll() {
         return repository.findAll();
@@ -31,7 +36,11 @@ public class InterviewExperienceService {
     }
 
     public InterviewExperience create(InterviewExperience experience) {
-        return repository.save(experience);
+        experience.setCandidate(candidateService.resolveReference(experience.getCandidate()));
+        InterviewExperience saved = repository.save(experience);
+        tagIndexService.index(TagIndexType.INTERVIEW_EXPERIENCE, saved.getId(), saved.getTechTags());
+        searchIndexService.indexInterviewExperience(saved);
+        return saved;
     }
 
     public InterviewExperience update(Long id, InterviewExperience experience) {
@@ -39,14 +48,19 @@ public class InterviewExperienceService {
         existing.setTechCategory(experience.getTechCategory());
         existing.setClient(experience.getClient());
         existing.setVendor(experience.getVendor());
-        existing.setCandidate(experience.getCandidate());
+        existing.setCandidate(candidateService.resolveReference(experience.getCandidate()));
         existing.setTechTags(experience.getTechTags());
         existing.setRecordingUrl(experience.getRecordingUrl());
         existing.setNotes(experience.getNotes());
-        return repository.save(existing);
+        InterviewExperience saved = repository.save(existing);
+        tagIndexService.index(TagIndexType.INTERVIEW_EXPERIENCE, saved.getId(), saved.getTechTags());
+        searchIndexService.indexInterviewExperience(saved);
+        return saved;
     }
 
     public void delete(Long id) {
         repository.deleteById(id);
+        tagIndexService.remove(TagIndexType.INTERVIEW_EXPERIENCE, id);
+        searchIndexService.remove(SearchDocumentType.INTERVIEW_EXPERIENCE, id);
     }
 }
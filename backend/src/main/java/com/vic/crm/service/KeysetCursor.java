@@ -0,0 +1,66 @@
+package com.vic.crm.service;
+
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque (timestamp, id) position used for keyset pagination. Clients only ever see
+ * the encoded form and must hand it back unchanged.
+ *
+ * <p>The cursor also records the sort key and direction it was issued for; a position is
+ * meaningless under another ordering, so decoding it against a different sort is rejected.
+ */
+final class KeysetCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime timestamp;
+    private final Long id;
+
+    private KeysetCursor(LocalDateTime timestamp, Long id) {
+        this.timestamp = timestamp;
+        this.id = id;
+    }
+
+    LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    Long getId() {
+        return id;
+    }
+
+    static String encode(String sortKey, Sort.Direction direction, LocalDateTime timestamp, Long id) {
+        String raw = String.join(SEPARATOR, sortKey, direction.name(), String.valueOf(timestamp), String.valueOf(id));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode {@code cursor}, which must have been issued for {@code sortKey} in {@code direction}.
+     */
+    static KeysetCursor decode(String cursor, String sortKey, Sort.Direction direction) {
+        String[] parts;
+        LocalDateTime timestamp;
+        Long id;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            timestamp = LocalDateTime.parse(parts[2]);
+            id = Long.valueOf(parts[3]);
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (!parts[0].equals(sortKey) || !parts[1].equals(direction.name())) {
+            throw new IllegalArgumentException("Cursor was issued for sort " + parts[0] + " " + parts[1]
+                    + ", not " + sortKey + " " + direction.name());
+        }
+        return new KeysetCursor(timestamp, id);
+    }
+}
@@ -3,16 +3,19 @@ package com.vic.crm.service;
 import com.vic.crm.dto.TransitionRequest;
 import com.vic.crm.entity.Candidate;
 import com.vic.crm.entity.Mock;
+import com.vic.crm.entity.MockCriteriaRating;
 import com.vic.crm.enums.CandidateStage;
 import com.vic.crm.enums.CandidateSubStatus;
+import com.vic.crm.enums.SearchDocumentType;
 import com.vic.crm.enums.TimelineEventType;
 import com.vic.crm.exception.InvalidTransitionException;
 import com.vic.crm.repository.MockRepository;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 
@@ -26,6 +29,9 @@ public class MockService {
 
     private final MockRepository mockRepository;
     private final CandidateService candidateService;
+    private final SearchIndexService searchIndexService;
+    private final OptimisticRetry optimisticRetry;
+    private final CandidateCommandDispatcher commandDispatcher;
 
     public List<Mock> findAll() {
         return mockRepository.findAll();
@@ -43,15 +49,36 @@ public class MockService {
         return mockRepository.findByEvaluatorIdOrderByScheduledAtDesc(evaluatorId);
     }
 
-    @Transactional
+    /**
+     * Mock writes move the candidate's sub-status, so they run on the candidate's command lane;
+     * the candidate updates made from within then run inline in the same transaction.
+     */
     public Mock create(Mock mock) {
-        Mock saved = mockRepository.save(mock);
-        applyMockScheduled(saved);
-        return saved;
+        Long candidateId = mock.getCandidate() != null ? mock.getCandidate().getId() : null;
+        return commandDispatcher.execute(candidateId, () -> optimisticRetry.execute("mock.create", () -> {
+            // A rolled-back attempt leaves the generated id/version on the request object
+            mock.setId(null);
+            mock.setVersion(null);
+            mock.setCandidate(candidateService.resolveReference(mock.getCandidate()));
+            Mock saved = mockRepository.save(mock);
+            searchIndexService.indexMock(saved);
+            applyMockScheduled(saved);
+            return initialized(saved);
+        }));
     }
 
-    @Transactional
     public Mock update(Long id, Mock mock) {
+        // The mock's current candidate, and the new one when the update reassigns it
+        List<Long> candidateIds = new ArrayList<>();
+        mockRepository.findCandidateIdById(id).ifPresent(candidateIds::add);
+        if (mock.getCandidate() != null) {
+            candidateIds.add(mock.getCandidate().getId());
+        }
+        return commandDispatcher.executeAll(candidateIds,
+                () -> optimisticRetry.execute("mock.update", () -> doUpdate(id, mock)));
+    }
+
+    private Mock doUpdate(Long id, Mock mock) {
         return mockRepository.findById(id)
                 .map(existing -> {
                     boolean wasCompleted = Boolean.TRUE.equals(existing.getCompleted());
@@ -61,7 +88,7 @@ public class MockService {
                         existing.setScheduledAt(mock.getScheduledAt());
                     }
                     if (mock.getCandidate() != null) {
-                        existing.setCandidate(mock.getCandidate());
+                        existing.setCandidate(candidateService.resolveReference(mock.getCandidate()));
                     }
                     if (mock.getEvaluator() != null) {
                         existing.setEvaluator(mock.getEvaluator());
@@ -105,16 +132,31 @@ public class MockService {
                     }
 
                     Mock saved = mockRepository.save(existing);
+                    searchIndexService.indexMock(saved);
                     if (!wasCompleted && Boolean.TRUE.equals(saved.getCompleted())) {
                         applyMockCompleted(saved);
                     }
-                    return saved;
+                    return initialized(saved);
                 })
                 .orElse(null);
     }
 
+    /**
+     * Load the lazy associations the response serializes. Writes run on a candidate lane, so the
+     * returned mock is detached from the request's open session.
+     */
+    private Mock initialized(Mock mock) {
+        Hibernate.initialize(mock.getCandidate());
+        Hibernate.initialize(mock.getEvaluator());
+        for (MockCriteriaRating rating : mock.getCriteriaRatings()) {
+            Hibernate.initialize(rating.getCriteria());
+        }
+        return mock;
+    }
+
     public void delete(Long id) {
         mockRepository.deleteById(id);
+        searchIndexService.remove(SearchDocumentType.MOCK, id);
     }
 
     private void applyMockScheduled(Mock mock) {
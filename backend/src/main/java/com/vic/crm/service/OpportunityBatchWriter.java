@@ -0,0 +1,105 @@
+package com.vic.crm.service;
+
+import com.vic.crm.entity.Opportunity;
+import com.vic.crm.entity.OpportunityAttemptLink;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserts opportunities and their attempt links as JDBC batches for bulk submission; like
+ * {@link TimelineEventBatchWriter}, this sidesteps Hibernate's refusal to batch IDENTITY inserts.
+ * Only ids are read from the referenced engagements, positions and attempts, so references from
+ * {@code getReferenceById} are enough.
+ */
+@Service
+@RequiredArgsConstructor
+public class OpportunityBatchWriter {
+
+    private static final String INSERT_OPPORTUNITY = """
+            insert into opportunities (version, vendor_engagement_id, position_id, submitted_at, status,
+                notes, created_at, updated_at)
+            values (0, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_LINK = """
+            insert into opportunity_attempt_links (opportunity_id, attempt_id, created_at)
+            values (?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert {@code opportunities} in the caller's transaction; generated ids, version and
+     * timestamps are copied back onto them.
+     */
+    public void insertAll(List<Opportunity> opportunities) {
+        if (opportunities.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_OPPORTUNITY, new String[] { "id" }),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Opportunity opportunity = opportunities.get(i);
+                        ps.setLong(1, opportunity.getVendorEngagement().getId());
+                        ps.setLong(2, opportunity.getPosition().getId());
+                        ps.setTimestamp(3, Timestamp.valueOf(opportunity.getSubmittedAt()));
+                        ps.setString(4, opportunity.getStatus().name());
+                        ps.setString(5, opportunity.getNotes());
+                        ps.setTimestamp(6, Timestamp.valueOf(now));
+                        ps.setTimestamp(7, Timestamp.valueOf(now));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return opportunities.size();
+                    }
+                }, keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < opportunities.size(); i++) {
+            Opportunity opportunity = opportunities.get(i);
+            opportunity.setId(TimelineEventBatchWriter.generatedId(keys.get(i)));
+            opportunity.setVersion(0L);
+            opportunity.setCreatedAt(now);
+            opportunity.setUpdatedAt(now);
+        }
+    }
+
+    /**
+     * Insert {@code links} in the caller's transaction; each must reference a saved opportunity.
+     */
+    public void insertLinks(List<OpportunityAttemptLink> links) {
+        if (links.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_LINK, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                OpportunityAttemptLink link = links.get(i);
+                ps.setLong(1, link.getOpportunity().getId());
+                ps.setLong(2, link.getAttempt().getId());
+                ps.setTimestamp(3, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return links.size();
+            }
+        });
+    }
+}
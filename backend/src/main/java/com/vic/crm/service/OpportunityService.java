@@ -1,40 +1,52 @@
 package com.vic.crm.service;
 
+import com.vic.crm.dto.BulkOpportunityRequest;
+import com.vic.crm.dto.BulkOpportunityResponse;
 import com.vic.crm.dto.CreateOpportunityRequest;
+import com.vic.crm.dto.OpportunityStepRollup;
 import com.vic.crm.entity.AssessmentAttempt;
 import com.vic.crm.entity.Opportunity;
 import com.vic.crm.entity.OpportunityAttemptLink;
-import com.vic.crm.entity.PipelineStep;
 import com.vic.crm.entity.Position;
 import com.vic.crm.entity.VendorEngagement;
 import com.vic.crm.enums.OpportunityStatus;
-import com.vic.crm.enums.StepState;
-import com.vic.crm.enums.StepType;
 import com.vic.crm.exception.ResourceNotFoundException;
 import com.vic.crm.repository.AssessmentAttemptRepository;
+import com.vic.crm.repository.AttemptOwnerRow;
 import com.vic.crm.repository.OpportunityAttemptLinkRepository;
 import com.vic.crm.repository.OpportunityRepository;
 import com.vic.crm.repository.PipelineStepRepository;
 import com.vic.crm.repository.PositionRepository;
 import com.vic.crm.repository.VendorEngagementRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class OpportunityService {
 
+    static final int MAX_BULK_SUBMISSION = 500;
+
     private final OpportunityRepository opportunityRepository;
     private final VendorEngagementRepository engagementRepository;
     private final PositionRepository positionRepository;
     private final AssessmentAttemptRepository attemptRepository;
     private final OpportunityAttemptLinkRepository linkRepository;
     private final PipelineStepRepository pipelineStepRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OpportunityBatchWriter opportunityBatchWriter;
 
     public Opportunity findById(Long id) {
         return opportunityRepository.findById(id)
@@ -66,25 +78,34 @@ public class OpportunityService {
             attachAttempts(saved.getId(), request.getAttachAttemptIds());
         }
 
+        eventPublisher.publishEvent(new EngagementChangedEvent(engagementId));
         return saved;
     }
 
     @Transactional
     public List<OpportunityAttemptLink> attachAttempts(Long opportunityId, List<Long> attemptIds) {
         Opportunity opportunity = findById(opportunityId);
-        List<OpportunityAttemptLink> created = new ArrayList<>();
         for (Long attemptId : attemptIds) {
             if (attemptId == null) {
                 throw new IllegalArgumentException("attemptId is required");
             }
-            AssessmentAttempt attempt = attemptRepository.findById(attemptId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Assessment attempt not found: " + attemptId));
+        }
+        Map<Long, AssessmentAttempt> attempts = new HashMap<>();
+        for (AssessmentAttempt attempt : attemptRepository.findAllById(new LinkedHashSet<>(attemptIds))) {
+            attempts.put(attempt.getId(), attempt);
+        }
+        Set<Long> linked = new HashSet<>(linkRepository.findAttemptIdsByOpportunityId(opportunityId));
+
+        List<OpportunityAttemptLink> created = new ArrayList<>();
+        for (Long attemptId : attemptIds) {
+            AssessmentAttempt attempt = attempts.get(attemptId);
+            if (attempt == null) {
+                throw new ResourceNotFoundException("Assessment attempt not found: " + attemptId);
+            }
             if (!attempt.getVendorEngagement().getId().equals(opportunity.getVendorEngagement().getId())) {
                 throw new IllegalArgumentException("Attempt does not belong to the same vendor engagement");
             }
-
-            boolean exists = linkRepository.findByOpportunityIdAndAttemptId(opportunityId, attemptId).isPresent();
-            if (!exists) {
+            if (linked.add(attemptId)) {
                 OpportunityAttemptLink link = OpportunityAttemptLink.builder()
                         .opportunity(opportunity)
                         .attempt(attempt)
@@ -92,9 +113,154 @@ public class OpportunityService {
                 created.add(linkRepository.save(link));
             }
         }
+        eventPublisher.publishEvent(new EngagementChangedEvent(opportunity.getVendorEngagement().getId()));
         return created;
     }
 
+    /**
+     * Create many opportunities at once, e.g. one candidate to many positions or many candidates
+     * to one position. Engagements, positions and attempt ownership are validated with one
+     * IN-list query each, and the opportunities and their attempt links are inserted as JDBC
+     * batches. Invalid submissions are reported per item and skipped; the rest are written.
+     */
+    @Transactional
+    public BulkOpportunityResponse bulkCreate(List<BulkOpportunityRequest.Submission> submissions) {
+        if (submissions == null || submissions.isEmpty()) {
+            throw new IllegalArgumentException("submissions is required");
+        }
+        if (submissions.size() > MAX_BULK_SUBMISSION) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_SUBMISSION + " submissions per request");
+        }
+
+        Set<Long> engagementIds = new HashSet<>();
+        Set<Long> positionIds = new HashSet<>();
+        Set<Long> attemptIds = new HashSet<>();
+        for (BulkOpportunityRequest.Submission submission : submissions) {
+            if (submission == null) {
+                continue;
+            }
+            addIfPresent(engagementIds, submission.getVendorEngagementId());
+            addIfPresent(positionIds, submission.getPositionId());
+            if (submission.getAttachAttemptIds() != null) {
+                submission.getAttachAttemptIds().forEach(id -> addIfPresent(attemptIds, id));
+            }
+        }
+        Set<Long> existingEngagements = new HashSet<>();
+        if (!engagementIds.isEmpty()) {
+            engagementRepository.findKeysByIds(engagementIds).forEach(key -> existingEngagements.add(key.getId()));
+        }
+        Set<Long> existingPositions = positionIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(positionRepository.findExistingIds(positionIds));
+        Map<Long, Long> attemptOwners = new HashMap<>();
+        if (!attemptIds.isEmpty()) {
+            for (AttemptOwnerRow row : attemptRepository.findOwnersByIds(attemptIds)) {
+                attemptOwners.put(row.getId(), row.getEngagementId());
+            }
+        }
+
+        BulkOpportunityResponse response = new BulkOpportunityResponse();
+        response.setRequested(submissions.size());
+        List<Opportunity> opportunities = new ArrayList<>();
+        List<BulkOpportunityResponse.Result> accepted = new ArrayList<>();
+        Set<List<Long>> seen = new HashSet<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < submissions.size(); i++) {
+            BulkOpportunityRequest.Submission submission = submissions.get(i);
+            BulkOpportunityResponse.Result result = new BulkOpportunityResponse.Result();
+            result.setIndex(i);
+            response.getResults().add(result);
+            if (submission == null) {
+                result.setError("Submission is required");
+                continue;
+            }
+            result.setVendorEngagementId(submission.getVendorEngagementId());
+            result.setPositionId(submission.getPositionId());
+
+            String error = validateSubmission(submission, existingEngagements, existingPositions, attemptOwners);
+            if (error == null && !seen.add(List.of(submission.getVendorEngagementId(), submission.getPositionId()))) {
+                error = "Duplicate submission in request";
+            }
+            if (error != null) {
+                result.setError(error);
+                continue;
+            }
+            if (submission.getAttachAttemptIds() != null) {
+                result.setAttachedAttemptIds(List.copyOf(new LinkedHashSet<>(submission.getAttachAttemptIds())));
+            }
+            opportunities.add(Opportunity.builder()
+                    .vendorEngagement(engagementRepository.getReferenceById(submission.getVendorEngagementId()))
+                    .position(positionRepository.getReferenceById(submission.getPositionId()))
+                    .submittedAt(submission.getSubmittedAt() != null ? submission.getSubmittedAt() : now)
+                    .status(OpportunityStatus.ACTIVE)
+                    .build());
+            accepted.add(result);
+        }
+
+        opportunityBatchWriter.insertAll(opportunities);
+        List<OpportunityAttemptLink> links = new ArrayList<>();
+        for (int i = 0; i < accepted.size(); i++) {
+            BulkOpportunityResponse.Result result = accepted.get(i);
+            Opportunity opportunity = opportunities.get(i);
+            result.setSuccess(true);
+            result.setOpportunityId(opportunity.getId());
+            for (Long attemptId : result.getAttachedAttemptIds()) {
+                links.add(OpportunityAttemptLink.builder()
+                        .opportunity(opportunity)
+                        .attempt(attemptRepository.getReferenceById(attemptId))
+                        .build());
+            }
+        }
+        opportunityBatchWriter.insertLinks(links);
+
+        response.setSucceeded(accepted.size());
+        response.setFailed(submissions.size() - accepted.size());
+        if (!accepted.isEmpty()) {
+            eventPublisher.publishEvent(new EngagementChangedEvent(accepted.stream()
+                    .map(BulkOpportunityResponse.Result::getVendorEngagementId)
+                    .collect(Collectors.toSet())));
+        }
+        return response;
+    }
+
+    private static String validateSubmission(BulkOpportunityRequest.Submission submission,
+            Set<Long> existingEngagements, Set<Long> existingPositions, Map<Long, Long> attemptOwners) {
+        Long engagementId = submission.getVendorEngagementId();
+        if (engagementId == null) {
+            return "vendorEngagementId is required";
+        }
+        if (!existingEngagements.contains(engagementId)) {
+            return "Vendor engagement not found: " + engagementId;
+        }
+        if (submission.getPositionId() == null) {
+            return "positionId is required";
+        }
+        if (!existingPositions.contains(submission.getPositionId())) {
+            return "Position not found: " + submission.getPositionId();
+        }
+        if (submission.getAttachAttemptIds() != null) {
+            for (Long attemptId : submission.getAttachAttemptIds()) {
+                if (attemptId == null) {
+                    return "attemptId is required";
+                }
+                Long owner = attemptOwners.get(attemptId);
+                if (owner == null) {
+                    return "Assessment attempt not found: " + attemptId;
+                }
+                if (!owner.equals(engagementId)) {
+                    return "Attempt does not belong to the same vendor engagement";
+                }
+            }
+        }
+        return null;
+    }
+
+    private static void addIfPresent(Set<Long> ids, Long id) {
+        if (id != null) {
+            ids.add(id);
+        }
+    }
+
     public List<OpportunityAttemptLink> getAttemptLinks(Long opportunityId) {
         findById(opportunityId);
         return linkRepository.findByOpportunityId(opportunityId);
@@ -102,18 +268,25 @@ public class OpportunityService {
 
     @Transactional
     public void detachAttempt(Long opportunityId, Long attemptId) {
-        findById(opportunityId);
+        Opportunity opportunity = findById(opportunityId);
         linkRepository.deleteByOpportunityIdAndAttemptId(opportunityId, attemptId);
+        eventPublisher.publishEvent(new EngagementChangedEvent(opportunity.getVendorEngagement().getId()));
     }
 
+    /**
+     * Re-derive {@code opportunityId}'s status from its pipeline steps, unless it is overridden.
+     * Called by the step writes in their own transaction, so the status commits with the step;
+     * OpportunityStatusReconciler corrects anything that drifts anyway.
+     */
     @Transactional
     public Opportunity refreshStatusFromSteps(Long opportunityId) {
         Opportunity opportunity = findById(opportunityId);
         if (opportunity.getStatusOverride() != null) {
             return opportunity;
         }
-        List<PipelineStep> steps = pipelineStepRepository.findByOpportunityIdOrderByCreatedAtAsc(opportunityId);
-        OpportunityStatus derived = deriveStatus(steps);
+        List<OpportunityStepRollup> rollups =
+                pipelineStepRepository.findRollupsByOpportunityIds(List.of(opportunityId));
+        OpportunityStatus derived = deriveStatus(rollups.isEmpty() ? null : rollups.get(0));
         if (derived != opportunity.getStatus()) {
             opportunity.setStatus(derived);
             return opportunityRepository.save(opportunity);
@@ -121,31 +294,24 @@ public class OpportunityService {
         return opportunity;
     }
 
-    private OpportunityStatus deriveStatus(List<PipelineStep> steps) {
-        boolean hasInterview = steps.stream().anyMatch(step -> step.getType() == StepType.CLIENT_INTERVIEW);
-        boolean hasOffer = steps.stream().anyMatch(step -> isCompletedOffer(step));
-        boolean hasPlaced = steps.stream().anyMatch(step -> isCompletedPlaced(step));
-
-        if (hasPlaced) {
+    /**
+     * Status implied by an opportunity's step rollup (null when it has no steps): PLACED once a
+     * PLACED step is completed, else OFFERED once an offer is completed or accepted, else
+     * INTERVIEWING once a client interview exists, else ACTIVE.
+     */
+    static OpportunityStatus deriveStatus(OpportunityStepRollup rollup) {
+        if (rollup == null) {
+            return OpportunityStatus.ACTIVE;
+        }
+        if (rollup.getCompletedPlacements() > 0) {
             return OpportunityStatus.PLACED;
         }
-        if (hasOffer) {
+        if (rollup.getCompletedOffers() > 0) {
             return OpportunityStatus.OFFERED;
         }
-        if (hasInterview) {
+        if (rollup.getInterviews() > 0) {
             return OpportunityStatus.INTERVIEWING;
         }
         return OpportunityStatus.ACTIVE;
     }
-
-    private boolean isCompletedOffer(PipelineStep step) {
-        if (step.getState() != StepState.COMPLETED) {
-            return false;
-        }
-        return step.getType() == StepType.OFFER || step.getType() == StepType.OFFER_ACCEPTED;
-    }
-
-    private boolean isCompletedPlaced(PipelineStep step) {
-        return step.getState() == StepState.COMPLETED && step.getType() == StepType.PLACED;
-    }
 }
@@ -0,0 +1,97 @@
+package com.vic.crm.service;
+
+import com.vic.crm.dto.OpportunityStepRollup;
+import com.vic.crm.enums.OpportunityStatus;
+import com.vic.crm.repository.OpportunityRepository;
+import com.vic.crm.repository.OpportunityStatusRow;
+import com.vic.crm.repository.PipelineStepRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Background correction of derived opportunity statuses. Step writes keep {@code status} current
+ * in their own transaction; this pass re-derives it for every non-overridden opportunity, a
+ * keyset page at a time with one rollup query per page, and rewrites only the rows that drifted.
+ * Reads never touch the status.
+ */
+@Slf4j
+@Service
+public class OpportunityStatusReconciler {
+
+    private final OpportunityRepository opportunityRepository;
+    private final PipelineStepRepository pipelineStepRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public OpportunityStatusReconciler(OpportunityRepository opportunityRepository,
+            PipelineStepRepository pipelineStepRepository,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.opportunity-status.batch-size:500}") int batchSize) {
+        this.opportunityRepository = opportunityRepository;
+        this.pipelineStepRepository = pipelineStepRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Returns the number of opportunities whose status was corrected.
+     */
+    @Scheduled(fixedDelayString = "${app.opportunity-status.reconcile-interval-ms:3600000}",
+            initialDelayString = "${app.opportunity-status.reconcile-interval-ms:3600000}")
+    public int reconcile() {
+        int corrected = 0;
+        long afterId = 0;
+        while (true) {
+            List<OpportunityStatusRow> page = opportunityRepository.findDerivedStatusPage(afterId,
+                    PageRequest.ofSize(batchSize));
+            if (page.isEmpty()) {
+                break;
+            }
+            Integer fixed = transactionTemplate.execute(status -> correct(page));
+            corrected += fixed != null ? fixed : 0;
+            if (page.size() < batchSize) {
+                break;
+            }
+            afterId = page.get(page.size() - 1).getId();
+        }
+        if (corrected > 0) {
+            log.info("Corrected the derived status of {} opportunities", corrected);
+        }
+        return corrected;
+    }
+
+    private int correct(List<OpportunityStatusRow> page) {
+        Map<Long, OpportunityStepRollup> rollups = new HashMap<>();
+        for (OpportunityStepRollup rollup : pipelineStepRepository.findRollupsByOpportunityIds(
+                page.stream().map(OpportunityStatusRow::getId).toList())) {
+            rollups.put(rollup.getOpportunityId(), rollup);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int corrected = 0;
+        for (OpportunityStatusRow row : page) {
+            OpportunityStatus derived = OpportunityService.deriveStatus(rollups.get(row.getId()));
+            if (derived != row.getStatus()) {
+                int updated = opportunityRepository.updateDerivedStatus(row.getId(), row.getStatus(), derived, now);
+                if (updated > 0) {
+                    eventPublisher.publishEvent(new EngagementChangedEvent(row.getEngagementId()));
+                }
+                corrected += updated;
+            }
+        }
+        return corrected;
+    }
+}
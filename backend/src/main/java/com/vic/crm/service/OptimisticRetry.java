@@ -0,0 +1,103 @@
+package com.vic.crm.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a unit of work in its own transaction and re-runs it, with jittered exponential backoff,
+ * when it loses an optimistic-lock race ({@code @Version} conflict). Each attempt re-reads the
+ * rows, so the retried write is applied to the winner's state rather than overwriting it.
+ *
+ * <p>When a transaction is already active the work simply joins it: a conflict can only be
+ * detected when the outer transaction commits, so the outermost caller owns the retry.
+ *
+ * <p>The result of an idempotent request's command is stored with its key inside the transaction
+ * that produced it (see {@link IdempotencyService}).
+ *
+ * <p>Meters, tagged with {@code operation}: {@code crm.optimistic_lock.conflicts} (every
+ * conflict), {@code crm.optimistic_lock.retries} (attempts after the first) and
+ * {@code crm.optimistic_lock.exhausted} (gave up and rethrew; surfaces as HTTP 409).
+ */
+@Component
+public class OptimisticRetry {
+
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final IdempotencyService idempotencyService;
+    private final int maxAttempts;
+    private final long backoffMs;
+
+    public OptimisticRetry(PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            IdempotencyService idempotencyService,
+            @Value("${app.optimistic-retry.max-attempts:4}") int maxAttempts,
+            @Value("${app.optimistic-retry.backoff-ms:25}") long backoffMs) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.idempotencyService = idempotencyService;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMs = backoffMs;
+    }
+
+    public <T> T execute(String operation, Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    T result = work.get();
+                    idempotencyService.completeInTransaction(result);
+                    return result;
+                });
+            } catch (RuntimeException ex) {
+                if (!isOptimisticLockFailure(ex)) {
+                    throw ex;
+                }
+                meterRegistry.counter("crm.optimistic_lock.conflicts", "operation", operation).increment();
+                if (attempt >= maxAttempts) {
+                    meterRegistry.counter("crm.optimistic_lock.exhausted", "operation", operation).increment();
+                    throw ex;
+                }
+                meterRegistry.counter("crm.optimistic_lock.retries", "operation", operation).increment();
+                backoff(attempt);
+            }
+        }
+    }
+
+    public void run(String operation, Runnable work) {
+        execute(operation, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    private void backoff(int attempt) {
+        long base = backoffMs << (attempt - 1);
+        long delay = base / 2 + ThreadLocalRandom.current().nextLong(base + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying after a concurrent update", ex);
+        }
+    }
+
+    private static boolean isOptimisticLockFailure(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockingFailureException || cause instanceof OptimisticLockException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -12,6 +12,7 @@ import com.vic.crm.exception.ResourceNotFoundException;
 import com.vic.crm.repository.OpportunityRepository;
 import com.vic.crm.repository.PipelineStepRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,6 +31,8 @@ public class PipelineStepService {
     private final PipelineStepRepository stepRepository;
     private final OpportunityRepository opportunityRepository;
     private final OpportunityService opportunityService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FunnelRollupService funnelRollupService;
 
     public List<PipelineStep> findByOpportunityId(Long opportunityId) {
         return stepRepository.findByOpportunityIdOrderByCreatedAtAsc(opportunityId);
@@ -81,13 +84,16 @@ public class PipelineStepService {
                 .build();
 
         PipelineStep saved = stepRepository.save(step);
+        funnelRollupService.recordChange(null, FunnelRollupService.Fact.of(saved));
         opportunityService.refreshStatusFromSteps(opportunityId);
+        eventPublisher.publishEvent(new EngagementChangedEvent(opportunity.getVendorEngagement().getId()));
         return saved;
     }
 
     @Transactional
     public PipelineStep update(Long stepId, UpdatePipelineStepRequest request) {
         PipelineStep step = findById(stepId);
+        FunnelRollupService.Fact before = FunnelRollupService.Fact.of(step);
 
         if (request.getState() != null) {
             step.setState(request.getState());
@@ -115,7 +121,9 @@ public class PipelineStepService {
         }
 
         PipelineStep saved = stepRepository.save(step);
+        funnelRollupService.recordChange(before, FunnelRollupService.Fact.of(saved));
         opportunityService.refreshStatusFromSteps(step.getOpportunity().getId());
+        eventPublisher.publishEvent(new EngagementChangedEvent(step.getOpportunity().getVendorEngagement().getId()));
         return saved;
     }
 
@@ -0,0 +1,7 @@
+package com.vic.crm.service;
+
+/**
+ * A position was updated; engagement summaries show its title and client.
+ */
+public record PositionChangedEvent(Long positionId) {
+}
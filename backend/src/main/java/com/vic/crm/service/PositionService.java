@@ -1,9 +1,12 @@
 package com.vic.crm.service;
 
 import com.vic.crm.entity.Position;
+import com.vic.crm.enums.TagIndexType;
 import com.vic.crm.repository.PositionRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -12,6 +15,8 @@ import java.util.List;
 public class PositionService {
 
     private final PositionRepository positionRepository;
+    private final TagIndexService tagIndexService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<Position> findAll() {
         return positionRepository.findAll();
@@ -42,9 +47,12 @@ public class PositionService {
         if (position.getStatus() == null) {
             position.setStatus("OPEN");
         }
-        return positionRepository.save(position);
+        Position saved = positionRepository.save(position);
+        tagIndexService.index(TagIndexType.POSITION, saved.getId(), saved.getTrack());
+        return saved;
     }
 
+    @Transactional
     public Position update(Long id, Position position) {
         Position existing = findById(id);
         existing.setTitle(position.getTitle());
@@ -65,10 +73,14 @@ public class PositionService {
         existing.setPayRate(position.getPayRate());
         existing.setHeadcount(position.getHeadcount());
         existing.setJdUrl(position.getJdUrl());
-        return positionRepository.save(existing);
+        Position saved = positionRepository.save(existing);
+        tagIndexService.index(TagIndexType.POSITION, saved.getId(), saved.getTrack());
+        eventPublisher.publishEvent(new PositionChangedEvent(saved.getId()));
+        return saved;
     }
 
     public void delete(Long id) {
         positionRepository.deleteById(id);
+        tagIndexService.remove(TagIndexType.POSITION, id);
     }
 }
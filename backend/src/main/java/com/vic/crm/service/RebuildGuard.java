@@ -0,0 +1,200 @@
+package com.vic.crm.service;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Orders the incremental deltas of a derived aggregate (counters, histograms, rollup rows)
+ * against full rebuilds of it. A writer's transaction holds the guard shared from just before it
+ * commits until its delta has been applied. A rebuild holds it exclusively only twice, briefly:
+ * to pin the snapshot it reads the sources from and start capturing deltas, and to replay the
+ * captured deltas onto its result and swap that in. Every change is therefore either in the
+ * rebuild's snapshot or captured and replayed, never both, and is counted exactly once; writers
+ * only wait for those two short steps.
+ *
+ * <p>The rebuild must read in a {@link #snapshotTransaction REPEATABLE_READ} transaction and
+ * pin it by reading every source table (H2 takes the snapshot per table on first access).
+ *
+ * @param <D> the delta a writer records
+ */
+final class RebuildGuard<D> {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuilding = new ReentrantLock();
+    private final Consumer<D> apply;
+
+    /** Deltas committed since the running rebuild pinned its snapshot; null when none is running. */
+    private ConcurrentLinkedQueue<D> captured;
+
+    /**
+     * @param apply applies a committed delta to the live aggregate
+     */
+    RebuildGuard(Consumer<D> apply) {
+        this.apply = apply;
+    }
+
+    /** Read-only transaction whose snapshot stays fixed from its first read of each table. */
+    static TransactionTemplate snapshotTransaction(PlatformTransactionManager transactionManager) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        transaction.setReadOnly(true);
+        return transaction;
+    }
+
+    /**
+     * Apply {@code delta} once the current transaction commits (discarded on rollback), or now
+     * when no transaction is active.
+     */
+    void afterCommit(D delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lock.readLock().lock();
+            try {
+                commit(delta);
+            } finally {
+                lock.readLock().unlock();
+            }
+            return;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingDeltas<?> pending && pending.guard == this) {
+                @SuppressWarnings("unchecked")
+                PendingDeltas<D> mine = (PendingDeltas<D>) pending;
+                mine.deltas.add(delta);
+                return;
+            }
+        }
+        PendingDeltas<D> pending = new PendingDeltas<>(this);
+        pending.deltas.add(delta);
+        TransactionSynchronizationManager.registerSynchronization(pending);
+    }
+
+    /** Caller holds the shared lock. */
+    private void commit(D delta) {
+        apply.accept(delta);
+        ConcurrentLinkedQueue<D> buffer = captured;
+        if (buffer != null) {
+            buffer.add(delta);
+        }
+    }
+
+    /**
+     * Start a rebuild; rebuilds of one guard run one at a time. Close the returned handle when
+     * done, whether or not it swapped.
+     */
+    Rebuild start() {
+        rebuilding.lock();
+        return new Rebuild();
+    }
+
+    /** One running rebuild. */
+    final class Rebuild implements AutoCloseable {
+        private boolean capturing;
+        private boolean closed;
+
+        private Rebuild() {
+        }
+
+        /**
+         * Pin the rebuild's snapshot with {@code pin}, a trivial read of every source table made
+         * inside the rebuild's snapshot transaction, and capture every delta committed after it.
+         */
+        void pin(Runnable pin) {
+            lock.writeLock().lock();
+            try {
+                pin.run();
+                captured = new ConcurrentLinkedQueue<>();
+                capturing = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Hand the deltas captured since {@link #pin} to {@code install}, which must replay them
+         * onto the rebuilt aggregate and swap it in, and stop capturing. Inside a transaction the
+         * guard stays exclusive until it completes, so the swap is committed before any further
+         * delta is applied.
+         */
+        void swap(Consumer<List<D>> install) {
+            lock.writeLock().lock();
+            boolean held = true;
+            try {
+                List<D> deltas = captured != null ? new ArrayList<>(captured) : List.of();
+                captured = null;
+                capturing = false;
+                install.accept(deltas);
+                if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            lock.writeLock().unlock();
+                        }
+                    });
+                    held = false;
+                }
+            } finally {
+                if (held) {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                if (capturing) {
+                    // Failed before the swap: the live aggregate already has every delta
+                    lock.writeLock().lock();
+                    captured = null;
+                    lock.writeLock().unlock();
+                }
+            } finally {
+                rebuilding.unlock();
+            }
+        }
+    }
+
+    /** The deltas one transaction recorded against one guard. */
+    private static final class PendingDeltas<D> implements TransactionSynchronization {
+        private final RebuildGuard<D> guard;
+        private final List<D> deltas = new ArrayList<>();
+        private boolean locked;
+
+        private PendingDeltas(RebuildGuard<D> guard) {
+            this.guard = guard;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            guard.lock.readLock().lock();
+            locked = true;
+        }
+
+        @Override
+        public void afterCommit() {
+            deltas.forEach(guard::commit);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (locked) {
+                locked = false;
+                guard.lock.readLock().unlock();
+            }
+        }
+    }
+}
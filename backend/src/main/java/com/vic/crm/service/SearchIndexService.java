@@ -0,0 +1,417 @@
+package com.vic.crm.service;
+
+import com.vic.crm.dto.SearchResponse;
+import com.vic.crm.entity.Candidate;
+import com.vic.crm.entity.InterviewExperience;
+import com.vic.crm.entity.Mock;
+import com.vic.crm.entity.TimelineEvent;
+import com.vic.crm.enums.SearchDocumentType;
+import com.vic.crm.repository.CandidateRepository;
+import com.vic.crm.repository.InterviewExperienceRepository;
+import com.vic.crm.repository.MockRepository;
+import com.vic.crm.repository.SearchSourceRow;
+import com.vic.crm.repository.TimelineEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Embedded Lucene full-text index over candidate notes, timeline events, mock feedback and
+ * interview experience notes. Service writes enqueue index operations after commit; a single
+ * background worker drains them in batches, so request threads never touch the index writer.
+ * The worker and {@link #rebuild()} take turns on the writer, so queued operations are applied
+ * after a rebuild rather than interleaved with it.
+ */
+@Slf4j
+@Service
+public class SearchIndexService {
+
+    static final int DEFAULT_LIMIT = 20;
+    static final int MAX_LIMIT = 100;
+
+    private static final String FIELD_KEY = "key";
+    private static final String FIELD_TYPE = "type";
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_CANDIDATE_ID = "candidateId";
+    private static final String FIELD_TITLE = "title";
+    private static final String FIELD_BODY = "body";
+    private static final int SNIPPET_LENGTH = 200;
+    private static final int MAX_BATCH = 500;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MS = 500;
+
+    private final CandidateRepository candidateRepository;
+    private final TimelineEventRepository timelineEventRepository;
+    private final MockRepository mockRepository;
+    private final InterviewExperienceRepository interviewExperienceRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final String indexDir;
+    private final boolean rebuildOnStartup;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final BlockingQueue<IndexOperation> queue = new LinkedBlockingQueue<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private Thread worker;
+    private volatile boolean running;
+
+    public SearchIndexService(CandidateRepository candidateRepository,
+            TimelineEventRepository timelineEventRepository,
+            MockRepository mockRepository,
+            InterviewExperienceRepository interviewExperienceRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.search.index-dir:search-index}") String indexDir,
+            @Value("${app.search.rebuild-on-startup:true}") boolean rebuildOnStartup) {
+        this.candidateRepository = candidateRepository;
+        this.timelineEventRepository = timelineEventRepository;
+        this.mockRepository = mockRepository;
+        this.interviewExperienceRepository = interviewExperienceRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.indexDir = indexDir;
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        directory = FSDirectory.open(Paths.get(indexDir));
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+        searcherManager = new SearcherManager(writer, null);
+        running = true;
+        worker = new Thread(this::drainQueue, "search-indexer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void close() throws IOException, InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup || writer.getDocStats().numDocs == 0) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Drop the index and re-feed it from the database with streaming projections. The worker is
+     * held off meanwhile; operations queued during the rebuild are applied once it finishes.
+     */
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        writeLock.lock();
+        try {
+            writer.deleteAll();
+            feed(SearchDocumentType.CANDIDATE, candidateRepository::streamSearchSource);
+            feed(SearchDocumentType.TIMELINE_EVENT, timelineEventRepository::streamSearchSource);
+            feed(SearchDocumentType.MOCK, mockRepository::streamSearchSource);
+            feed(SearchDocumentType.INTERVIEW_EXPERIENCE, interviewExperienceRepository::streamSearchSource);
+            writer.commit();
+            searcherManager.maybeRefresh();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to rebuild search index", ex);
+        } finally {
+            writeLock.unlock();
+        }
+        log.info("Search index rebuilt with {} documents in {} ms",
+                writer.getDocStats().numDocs, System.currentTimeMillis() - started);
+    }
+
+    public void indexCandidate(Candidate candidate) {
+        enqueue(SearchDocumentType.CANDIDATE, candidate.getId(), candidate.getId(),
+                candidate.getName(), candidate.getNotes());
+    }
+
+    public void indexTimelineEvent(TimelineEvent event) {
+        Long candidateId = event.getCandidate() != null ? event.getCandidate().getId() : null;
+        enqueue(SearchDocumentType.TIMELINE_EVENT, event.getId(), candidateId,
+                event.getTitle(), event.getDescription());
+    }
+
+    public void indexMock(Mock mock) {
+        Long candidateId = mock.getCandidate() != null ? mock.getCandidate().getId() : null;
+        enqueue(SearchDocumentType.MOCK, mock.getId(), candidateId, mock.getStage(),
+                join(mock.getStrengths(), mock.getWeaknesses(), mock.getSummary()));
+    }
+
+    public void indexInterviewExperience(InterviewExperience experience) {
+        Long candidateId = experience.getCandidate() != null ? experience.getCandidate().getId() : null;
+        String clientName = experience.getClient() != null ? experience.getClient().getCompanyName() : null;
+        enqueue(SearchDocumentType.INTERVIEW_EXPERIENCE, experience.getId(), candidateId,
+                join(experience.getTechCategory(), clientName), experience.getNotes());
+    }
+
+    public void remove(SearchDocumentType type, Long id) {
+        if (id == null) {
+            return;
+        }
+        AfterCommit.run(() -> queue.add(new IndexOperation(type, id, null, null, null, true)));
+    }
+
+    /**
+     * Ranked (BM25) search over title and body. Facets count matches per document type for the
+     * same query, independent of the optional type filter applied to the hits.
+     */
+    public SearchResponse search(String queryText, SearchDocumentType type, Integer limit) {
+        if (queryText == null || queryText.isBlank()) {
+            throw new IllegalArgumentException("q is required");
+        }
+        int size = limit == null || limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        Query textQuery = parse(queryText);
+
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            Map<SearchDocumentType, Long> facets = new EnumMap<>(SearchDocumentType.class);
+            long total = 0;
+            for (SearchDocumentType facet : SearchDocumentType.values()) {
+                long count = searcher.count(withType(textQuery, facet));
+                facets.put(facet, count);
+                if (type == null || type == facet) {
+                    total += count;
+                }
+            }
+
+            TopDocs topDocs = searcher.search(type != null ? withType(textQuery, type) : textQuery, size);
+            StoredFields storedFields = searcher.storedFields();
+            List<SearchResponse.Hit> hits = new ArrayList<>();
+            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                hits.add(toHit(storedFields.document(scoreDoc.doc), scoreDoc.score));
+            }
+
+            SearchResponse response = new SearchResponse();
+            response.setQuery(queryText);
+            response.setTotal(total);
+            response.setFacets(facets);
+            response.setHits(hits);
+            return response;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Search failed", ex);
+        } finally {
+            if (searcher != null) {
+                try {
+                    searcherManager.release(searcher);
+                } catch (IOException ignored) {
+                    // searcher is closed with the manager
+                }
+            }
+        }
+    }
+
+    private void enqueue(SearchDocumentType type, Long id, Long candidateId, String title, String body) {
+        if (id == null) {
+            return;
+        }
+        AfterCommit.run(() -> queue.add(new IndexOperation(type, id, candidateId, title, body, false)));
+    }
+
+    private void drainQueue() {
+        List<IndexOperation> batch = new ArrayList<>();
+        while (running) {
+            try {
+                IndexOperation first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+                applyBatch(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Apply and commit {@code batch}, retrying the whole batch with backoff when it fails. Every
+     * operation is an idempotent update or delete by key, so re-applying a partly applied batch is
+     * safe, and newer operations stay queued behind it so per-document order holds.
+     */
+    private void applyBatch(List<IndexOperation> batch) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            writeLock.lock();
+            try {
+                for (IndexOperation operation : batch) {
+                    apply(operation);
+                }
+                writer.commit();
+                searcherManager.maybeRefresh();
+                return;
+            } catch (IOException | RuntimeException ex) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    log.error("Dropping {} search index operations after {} attempts; the next rebuild restores them",
+                            batch.size(), attempt, ex);
+                    return;
+                }
+                log.warn("Failed to apply {} search index operations (attempt {}), retrying",
+                        batch.size(), attempt, ex);
+            } finally {
+                writeLock.unlock();
+            }
+            Thread.sleep(RETRY_BACKOFF_MS * attempt);
+        }
+    }
+
+    private void apply(IndexOperation operation) throws IOException {
+        Term key = new Term(FIELD_KEY, key(operation.type, operation.id));
+        if (operation.delete) {
+            writer.deleteDocuments(key);
+        } else {
+            writer.updateDocument(key, toDocument(operation.type, operation.id, operation.candidateId,
+                    operation.title, operation.body));
+        }
+    }
+
+    private void feed(SearchDocumentType type, Supplier<Stream<SearchSourceRow>> source) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<SearchSourceRow> rows = source.get()) {
+                rows.forEach(row -> {
+                    try {
+                        writer.updateDocument(new Term(FIELD_KEY, key(type, row.getId())),
+                                toDocument(type, row.getId(), row.getCandidateId(), row.getTitle(), row.getBody()));
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        });
+    }
+
+    private Document toDocument(SearchDocumentType type, Long id, Long candidateId, String title, String body) {
+        Document document = new Document();
+        document.add(new StringField(FIELD_KEY, key(type, id), Field.Store.NO));
+        document.add(new StringField(FIELD_TYPE, type.name(), Field.Store.YES));
+        document.add(new StoredField(FIELD_ID, id));
+        if (candidateId != null) {
+            document.add(new StoredField(FIELD_CANDIDATE_ID, candidateId));
+        }
+        document.add(new TextField(FIELD_TITLE, title != null ? title : "", Field.Store.YES));
+        document.add(new TextField(FIELD_BODY, body != null ? body : "", Field.Store.YES));
+        return document;
+    }
+
+    private SearchResponse.Hit toHit(Document document, float score) {
+        SearchResponse.Hit hit = new SearchResponse.Hit();
+        hit.setType(SearchDocumentType.valueOf(document.get(FIELD_TYPE)));
+        hit.setId(document.getField(FIELD_ID).numericValue().longValue());
+        if (document.getField(FIELD_CANDIDATE_ID) != null) {
+            hit.setCandidateId(document.getField(FIELD_CANDIDATE_ID).numericValue().longValue());
+        }
+        hit.setTitle(document.get(FIELD_TITLE));
+        String body = document.get(FIELD_BODY);
+        hit.setSnippet(body != null && body.length() > SNIPPET_LENGTH ? body.substring(0, SNIPPET_LENGTH) : body);
+        hit.setScore(score);
+        return hit;
+    }
+
+    private Query parse(String queryText) {
+        MultiFieldQueryParser parser = new MultiFieldQueryParser(
+                new String[] { FIELD_TITLE, FIELD_BODY }, analyzer, Map.of(FIELD_TITLE, 2.0f, FIELD_BODY, 1.0f));
+        parser.setDefaultOperator(QueryParser.Operator.AND);
+        parser.setAllowLeadingWildcard(false);
+        try {
+            return parser.parse(queryText);
+        } catch (ParseException ex) {
+            throw new IllegalArgumentException("Invalid search query: " + queryText);
+        }
+    }
+
+    private Query withType(Query query, SearchDocumentType type) {
+        return new BooleanQuery.Builder()
+                .add(query, BooleanClause.Occur.MUST)
+                .add(new TermQuery(new Term(FIELD_TYPE, type.name())), BooleanClause.Occur.FILTER)
+                .build();
+    }
+
+    private String key(SearchDocumentType type, Long id) {
+        return type.name() + ":" + id;
+    }
+
+    private String join(String... parts) {
+        StringBuilder builder = new StringBuilder();
+        for (String part : parts) {
+            if (part != null && !part.isBlank()) {
+                if (builder.length() > 0) {
+                    builder.append(' ');
+                }
+                builder.append(part);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static final class IndexOperation {
+        private final SearchDocumentType type;
+        private final Long id;
+        private final Long candidateId;
+        private final String title;
+        private final String body;
+        private final boolean delete;
+
+        private IndexOperation(SearchDocumentType type, Long id, Long candidateId, String title, String body,
+                boolean delete) {
+            this.type = type;
+            this.id = id;
+            this.candidateId = candidateId;
+            this.title = title;
+            this.body = body;
+            this.delete = delete;
+        }
+    }
+}
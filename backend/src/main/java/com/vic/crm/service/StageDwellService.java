@@ -0,0 +1,279 @@
+package com.vic.crm.service;
+
+import com.vic.crm.dto.StageDwellResponse;
+import com.vic.crm.enums.CandidateStage;
+import com.vic.crm.enums.TimelineEventType;
+import com.vic.crm.repository.CandidateAssignmentRow;
+import com.vic.crm.repository.StageChangeRow;
+import com.vic.crm.repository.TimelineEventArchiveRepository;
+import com.vic.crm.repository.TimelineEventRepository;
+import com.vic.crm.repository.TimelineExportRow;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Time-in-stage percentiles, globally and per batch and recruiter. A stay is the time between a
+ * candidate entering a stage (creation, or a transition into it) and the transition out of it;
+ * stays still in progress are not counted. Each (scope, stage) pair keeps an HdrHistogram with
+ * two significant digits, so p50/p90/p99 cost constant memory however many stays are recorded.
+ *
+ * <p>The histograms are rebuilt in one streaming pass over the stage change events of both
+ * timeline tiers at startup and periodically; in between, CandidateService reports each
+ * completed stay after commit. A {@link RebuildGuard} orders the two: a stay committed while a
+ * rebuild streams is replayed onto the new histograms, so it is recorded exactly once. Stays are
+ * attributed to the candidate's current batch and recruiter.
+ */
+@Slf4j
+@Service
+public class StageDwellService {
+
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final TimelineEventRepository timelineEventRepository;
+    private final TimelineEventArchiveRepository archiveRepository;
+    private final TimelineArchiveService timelineArchiveService;
+    private final TransactionTemplate snapshotTransaction;
+
+    private volatile Sketches sketches = new Sketches();
+    private volatile LocalDateTime rebuiltAt;
+
+    private final RebuildGuard<Stay> rebuildGuard = new RebuildGuard<>(stay -> sketches.record(stay));
+
+    public StageDwellService(TimelineEventRepository timelineEventRepository,
+            TimelineEventArchiveRepository archiveRepository,
+            TimelineArchiveService timelineArchiveService,
+            PlatformTransactionManager transactionManager) {
+        this.timelineEventRepository = timelineEventRepository;
+        this.archiveRepository = archiveRepository;
+        this.timelineArchiveService = timelineArchiveService;
+        this.snapshotTransaction = RebuildGuard.snapshotTransaction(transactionManager);
+    }
+
+    /**
+     * Record a stay in {@code before}'s stage that started at {@code enteredAt} and ended at
+     * {@code leftAt}, once the current transaction commits.
+     */
+    public void recordStay(CandidateStatsService.Snapshot before, LocalDateTime enteredAt, LocalDateTime leftAt) {
+        if (before.getStage() == null || enteredAt == null || leftAt == null) {
+            return;
+        }
+        long millis = Duration.between(enteredAt, leftAt).toMillis();
+        if (millis < 0) {
+            return;
+        }
+        rebuildGuard.afterCommit(new Stay(before.getStage(), before.getBatchId(), before.getRecruiterId(), millis));
+    }
+
+    public StageDwellResponse getStageDwell(Set<CandidateStage> stages, Long batchId, Long recruiterId) {
+        Sketches current = sketches;
+        StageHistograms histograms;
+        if (batchId != null) {
+            histograms = current.byBatch.get(batchId);
+        } else if (recruiterId != null) {
+            histograms = current.byRecruiter.get(recruiterId);
+        } else {
+            histograms = current.global;
+        }
+
+        StageDwellResponse response = new StageDwellResponse();
+        response.setBatchId(batchId);
+        response.setRecruiterId(batchId == null ? recruiterId : null);
+        for (CandidateStage stage : CandidateStage.values()) {
+            if (stages != null && !stages.isEmpty() && !stages.contains(stage)) {
+                continue;
+            }
+            StageDwellResponse.StageDwell dwell = new StageDwellResponse.StageDwell();
+            dwell.setStage(stage);
+            if (histograms != null) {
+                // Percentiles read a consistent copy; recording continues on the live histogram
+                Histogram copy = histograms.forStage(stage).copy();
+                if (copy.getTotalCount() > 0) {
+                    dwell.setCount(copy.getTotalCount());
+                    dwell.setP50Ms(copy.getValueAtPercentile(50));
+                    dwell.setP90Ms(copy.getValueAtPercentile(90));
+                    dwell.setP99Ms(copy.getValueAtPercentile(99));
+                    dwell.setMaxMs(copy.getMaxValue());
+                    dwell.setMeanMs(copy.getMean());
+                }
+            }
+            response.getStages().add(dwell);
+        }
+        response.setRebuiltAt(rebuiltAt);
+        return response;
+    }
+
+    /**
+     * Replace the histograms with a fresh pass over every stage change in both timeline tiers.
+     * Cold-tier candidates are replayed first; their hot events (written after archiving) carry
+     * on from where the archived timeline left off. Stays committed during the pass are replayed
+     * onto the new histograms before they are swapped in.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.analytics.stage-dwell.rebuild-interval-ms:3600000}",
+            initialDelayString = "${app.analytics.stage-dwell.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        try (RebuildGuard<Stay>.Rebuild rebuild = rebuildGuard.start()) {
+            Sketches fresh = new Sketches();
+            snapshotTransaction.executeWithoutResult(status -> {
+                // Both tiers, as archiving moves events from one to the other
+                rebuild.pin(() -> {
+                    timelineEventRepository.existsById(0L);
+                    archiveRepository.existsById(0L);
+                });
+                replay(fresh);
+            });
+            rebuild.swap(stays -> {
+                stays.forEach(fresh::record);
+                sketches = fresh;
+                rebuiltAt = LocalDateTime.now();
+            });
+        }
+        log.info("Rebuilt stage dwell histograms in {} ms", System.currentTimeMillis() - started);
+    }
+
+    private void replay(Sketches target) {
+        Map<Long, LocalDateTime> archivedEntries = replayArchived(target);
+        try (Stream<StageChangeRow> rows = timelineEventRepository.streamStageChanges(
+                TimelineEventType.CANDIDATE_CREATED)) {
+            Replay replay = new Replay(target);
+            rows.forEach(row -> {
+                if (!row.getCandidateId().equals(replay.candidateId)) {
+                    replay.start(row.getCandidateId(), row.getBatchId(), row.getRecruiterId(),
+                            archivedEntries.get(row.getCandidateId()));
+                }
+                replay.apply(row.getEventType(), row.getFromStage(), row.getToStage(), row.getEventDate());
+            });
+        }
+    }
+
+    /**
+     * Replay archived timelines into {@code target}; returns when each archived candidate last
+     * entered a stage, so its hot events can continue the replay.
+     */
+    private Map<Long, LocalDateTime> replayArchived(Sketches target) {
+        Map<Long, CandidateAssignmentRow> assignments = new HashMap<>();
+        for (CandidateAssignmentRow row : archiveRepository.findArchivedAssignments()) {
+            assignments.put(row.getCandidateId(), row);
+        }
+        Map<Long, LocalDateTime> lastEntries = new HashMap<>();
+        if (assignments.isEmpty()) {
+            return lastEntries;
+        }
+        Replay replay = new Replay(target);
+        try (Stream<TimelineExportRow> rows = timelineArchiveService.streamExport(null)) {
+            rows.forEach(row -> {
+                if (!row.getCandidateId().equals(replay.candidateId)) {
+                    CandidateAssignmentRow assignment = assignments.get(row.getCandidateId());
+                    replay.start(row.getCandidateId(),
+                            assignment != null ? assignment.getBatchId() : null,
+                            assignment != null ? assignment.getRecruiterId() : null, null);
+                }
+                replay.apply(row.getEventType(), row.getFromStage(), row.getToStage(), row.getEventDate());
+                if (replay.enteredAt != null) {
+                    lastEntries.put(row.getCandidateId(), replay.enteredAt);
+                }
+            });
+        }
+        return lastEntries;
+    }
+
+    /**
+     * Walks one candidate's events in time order and records each completed stay.
+     */
+    private static final class Replay {
+        private final Sketches target;
+        private Long candidateId;
+        private Long batchId;
+        private Long recruiterId;
+        private LocalDateTime enteredAt;
+
+        private Replay(Sketches target) {
+            this.target = target;
+        }
+
+        void start(Long candidateId, Long batchId, Long recruiterId, LocalDateTime enteredAt) {
+            this.candidateId = candidateId;
+            this.batchId = batchId;
+            this.recruiterId = recruiterId;
+            this.enteredAt = enteredAt;
+        }
+
+        void apply(TimelineEventType eventType, CandidateStage fromStage, CandidateStage toStage,
+                LocalDateTime eventDate) {
+            if (eventDate == null) {
+                return;
+            }
+            if (eventType == TimelineEventType.CANDIDATE_CREATED) {
+                enteredAt = eventDate;
+                return;
+            }
+            if (fromStage == null || toStage == null || fromStage == toStage) {
+                return;
+            }
+            if (enteredAt != null) {
+                long millis = Duration.between(enteredAt, eventDate).toMillis();
+                if (millis >= 0) {
+                    target.record(fromStage, batchId, recruiterId, millis);
+                }
+            }
+            enteredAt = eventDate;
+        }
+    }
+
+    /** One completed stay, as recorded after commit. */
+    private record Stay(CandidateStage stage, Long batchId, Long recruiterId, long millis) {
+    }
+
+    private static final class Sketches {
+        private final StageHistograms global = new StageHistograms();
+        private final Map<Long, StageHistograms> byBatch = new ConcurrentHashMap<>();
+        private final Map<Long, StageHistograms> byRecruiter = new ConcurrentHashMap<>();
+
+        void record(Stay stay) {
+            record(stay.stage(), stay.batchId(), stay.recruiterId(), stay.millis());
+        }
+
+        void record(CandidateStage stage, Long batchId, Long recruiterId, long millis) {
+            global.forStage(stage).recordValue(millis);
+            if (batchId != null) {
+                byBatch.computeIfAbsent(batchId, id -> new StageHistograms()).forStage(stage).recordValue(millis);
+            }
+            if (recruiterId != null) {
+                byRecruiter.computeIfAbsent(recruiterId, id -> new StageHistograms()).forStage(stage)
+                        .recordValue(millis);
+            }
+        }
+    }
+
+    private static final class StageHistograms {
+        private final Histogram[] byStage = new Histogram[CandidateStage.values().length];
+
+        StageHistograms() {
+            for (int i = 0; i < byStage.length; i++) {
+                // Auto-resizing, so stays from seconds to years fit without a configured maximum
+                byStage[i] = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+            }
+        }
+
+        Histogram forStage(CandidateStage stage) {
+            return byStage[Objects.requireNonNull(stage).ordinal()];
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.vic.crm.service;
+
+import com.vic.crm.enums.TagIndexType;
+import com.vic.crm.repository.CandidateRepository;
+import com.vic.crm.repository.InterviewExperienceRepository;
+import com.vic.crm.repository.PositionRepository;
+import com.vic.crm.repository.TaggedRow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory inverted index over comma-separated tech tags. Each normalized tag maps to a
+ * compressed bitmap of entity ids, so AND/OR/NOT queries are bitmap operations rather than
+ * LIKE scans. Rebuilt from the database at startup and kept current by service writes; writes
+ * that commit while a rebuild loads are replayed onto the rebuilt index before it is swapped in.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TagIndexService {
+
+    private final CandidateRepository candidateRepository;
+    private final PositionRepository positionRepository;
+    private final InterviewExperienceRepository interviewExperienceRepository;
+
+    private final Map<TagIndexType, TagIndex> indexes = createIndexes();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAll() {
+        long started = System.currentTimeMillis();
+        CompletableFuture.allOf(
+                CompletableFuture.runAsync(() -> rebuild(TagIndexType.CANDIDATE, candidateRepository::findAllTechTags)),
+                CompletableFuture.runAsync(() -> rebuild(TagIndexType.POSITION, positionRepository::findAllTracks)),
+                CompletableFuture.runAsync(() -> rebuild(TagIndexType.INTERVIEW_EXPERIENCE,
+                        interviewExperienceRepository::findAllTechTags)))
+                .join();
+        log.info("Tag index rebuilt in {} ms", System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Re-index one entity once the current transaction commits. Blank tags remove it.
+     */
+    public void index(TagIndexType type, Long id, String rawTags) {
+        if (id == null) {
+            return;
+        }
+        Set<String> tags = tokenize(rawTags);
+        AfterCommit.run(() -> indexes.get(type).put(toIntId(id), tags));
+    }
+
+    public void remove(TagIndexType type, Long id) {
+        if (id == null) {
+            return;
+        }
+        AfterCommit.run(() -> indexes.get(type).put(toIntId(id), Set.of()));
+    }
+
+    /**
+     * Ids tagged with every tag in {@code all}, at least one tag in {@code any} and none of
+     * the tags in {@code none}. Empty clauses are ignored; with only {@code none} the query
+     * runs against every tagged entity of the type.
+     */
+    public long[] query(TagIndexType type, Collection<String> all, Collection<String> any,
+            Collection<String> none) {
+        RoaringBitmap result = indexes.get(type).query(normalize(all), normalize(any), normalize(none));
+        long[] ids = new long[result.getCardinality()];
+        int i = 0;
+        for (int id : result) {
+            ids[i++] = id;
+        }
+        return ids;
+    }
+
+    public Map<String, Integer> tagCounts(TagIndexType type) {
+        return indexes.get(type).counts();
+    }
+
+    private void rebuild(TagIndexType type, Supplier<List<TaggedRow>> loader) {
+        TagIndex index = indexes.get(type);
+        index.startRebuild();
+        try {
+            TagIndex fresh = new TagIndex();
+            for (TaggedRow row : loader.get()) {
+                fresh.put(toIntId(row.getId()), tokenize(row.getTags()));
+            }
+            index.replaceWith(fresh);
+        } finally {
+            index.endRebuild();
+        }
+    }
+
+    private static Map<TagIndexType, TagIndex> createIndexes() {
+        Map<TagIndexType, TagIndex> indexes = new EnumMap<>(TagIndexType.class);
+        for (TagIndexType type : TagIndexType.values()) {
+            indexes.put(type, new TagIndex());
+        }
+        return indexes;
+    }
+
+    static Set<String> tokenize(String rawTags) {
+        Set<String> tags = new LinkedHashSet<>();
+        if (rawTags == null) {
+            return tags;
+        }
+        for (String token : rawTags.split("[,;]")) {
+            String tag = normalizeTag(token);
+            if (!tag.isEmpty()) {
+                tags.add(tag);
+            }
+        }
+        return tags;
+    }
+
+    private static Set<String> normalize(Collection<String> tags) {
+        Set<String> normalized = new LinkedHashSet<>();
+        if (tags != null) {
+            for (String tag : tags) {
+                normalized.addAll(tokenize(tag));
+            }
+        }
+        return normalized;
+    }
+
+    private static String normalizeTag(String tag) {
+        return tag.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static int toIntId(Long id) {
+        return Math.toIntExact(id);
+    }
+
+    /**
+     * One inverted index: tag -> bitmap of ids, plus the forward id -> tags map needed to
+     * retract stale postings on update.
+     */
+    private static final class TagIndex {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private Map<String, RoaringBitmap> postings = new HashMap<>();
+        private Map<Integer, Set<String>> tagsById = new HashMap<>();
+        private RoaringBitmap universe = new RoaringBitmap();
+        // Latest tags put per id since a rebuild started loading; null when none is running.
+        // A put replaces an id's tags outright, so replaying one the load already saw is harmless.
+        private Map<Integer, Set<String>> putsDuringRebuild;
+
+        void put(int id, Set<String> tags) {
+            lock.writeLock().lock();
+            try {
+                if (putsDuringRebuild != null) {
+                    putsDuringRebuild.put(id, tags);
+                }
+                Set<String> previous = tagsById.remove(id);
+                if (previous != null) {
+                    for (String tag : previous) {
+                        RoaringBitmap bitmap = postings.get(tag);
+                        if (bitmap != null) {
+                            bitmap.remove(id);
+                            if (bitmap.isEmpty()) {
+                                postings.remove(tag);
+                            }
+                        }
+                    }
+                }
+                if (tags.isEmpty()) {
+                    universe.remove(id);
+                    return;
+                }
+                tagsById.put(id, tags);
+                universe.add(id);
+                for (String tag : tags) {
+                    postings.computeIfAbsent(tag, key -> new RoaringBitmap()).add(id);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void startRebuild() {
+            lock.writeLock().lock();
+            try {
+                putsDuringRebuild = new HashMap<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void endRebuild() {
+            lock.writeLock().lock();
+            try {
+                putsDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void replaceWith(TagIndex other) {
+            for (RoaringBitmap bitmap : other.postings.values()) {
+                bitmap.runOptimize();
+            }
+            lock.writeLock().lock();
+            try {
+                if (putsDuringRebuild != null) {
+                    putsDuringRebuild.forEach(other::put);
+                }
+                postings = other.postings;
+                tagsById = other.tagsById;
+                universe = other.universe;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        RoaringBitmap query(Set<String> all, Set<String> any, Set<String> none) {
+            lock.readLock().lock();
+            try {
+                RoaringBitmap result = universe.clone();
+                for (String tag : all) {
+                    result.and(postings.getOrDefault(tag, new RoaringBitmap()));
+                }
+                if (!any.isEmpty()) {
+                    RoaringBitmap union = new RoaringBitmap();
+                    for (String tag : any) {
+                        RoaringBitmap bitmap = postings.get(tag);
+                        if (bitmap != null) {
+                            union.or(bitmap);
+                        }
+                    }
+                    result.and(union);
+                }
+                for (String tag : none) {
+                    RoaringBitmap bitmap = postings.get(tag);
+                    if (bitmap != null) {
+                        result.andNot(bitmap);
+                    }
+                }
+                return result;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        Map<String, Integer> counts() {
+            lock.readLock().lock();
+            try {
+                Map<String, Integer> counts = new HashMap<>();
+                postings.forEach((tag, bitmap) -> counts.put(tag, bitmap.getCardinality()));
+                return counts;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
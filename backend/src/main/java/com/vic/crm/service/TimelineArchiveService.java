@@ -0,0 +1,332 @@
+package com.vic.crm.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vic.crm.dto.TimelineEventView;
+import com.vic.crm.entity.TimelineEvent;
+import com.vic.crm.entity.TimelineEventArchive;
+import com.vic.crm.entity.User;
+import com.vic.crm.enums.CandidateStage;
+import com.vic.crm.enums.CandidateSubStatus;
+import com.vic.crm.enums.CloseReason;
+import com.vic.crm.enums.SearchDocumentType;
+import com.vic.crm.enums.TimelineEventType;
+import com.vic.crm.repository.CandidateRepository;
+import com.vic.crm.repository.TimelineEventArchiveRepository;
+import com.vic.crm.repository.TimelineEventRepository;
+import com.vic.crm.repository.TimelineExportRow;
+import com.vic.crm.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Two-tier timeline storage. Candidates who have been PLACED, ELIMINATED or WITHDRAWN for longer
+ * than {@code app.timeline-archive.after-days} have their events moved out of the hot
+ * {@code timeline_events} table (and its index) into one gzip-compressed row per candidate in
+ * {@code timeline_event_archives}. Events keep their ids and dates, and the timeline reads merge
+ * both tiers, so archiving is invisible to API clients. Archived events leave the search index.
+ */
+@Slf4j
+@Service
+public class TimelineArchiveService {
+
+    static final Set<CandidateStage> ARCHIVABLE_STAGES =
+            EnumSet.of(CandidateStage.PLACED, CandidateStage.ELIMINATED, CandidateStage.WITHDRAWN);
+
+    /** Timeline order: newest first, id breaks ties. */
+    static final Comparator<TimelineEventView> NEWEST_FIRST = Comparator
+            .comparing(TimelineEventView::getEventDate, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(TimelineEventView::getId, Comparator.reverseOrder());
+
+    private static final TypeReference<List<TimelineEventView>> PAYLOAD_TYPE = new TypeReference<>() {
+    };
+
+    private final CandidateRepository candidateRepository;
+    private final TimelineEventRepository timelineEventRepository;
+    private final TimelineEventArchiveRepository archiveRepository;
+    private final UserRepository userRepository;
+    private final SearchIndexService searchIndexService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int afterDays;
+    private final int batchSize;
+
+    public TimelineArchiveService(CandidateRepository candidateRepository,
+            TimelineEventRepository timelineEventRepository,
+            TimelineEventArchiveRepository archiveRepository,
+            UserRepository userRepository,
+            SearchIndexService searchIndexService,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.timeline-archive.after-days:365}") int afterDays,
+            @Value("${app.timeline-archive.batch-size:200}") int batchSize) {
+        this.candidateRepository = candidateRepository;
+        this.timelineEventRepository = timelineEventRepository;
+        this.archiveRepository = archiveRepository;
+        this.userRepository = userRepository;
+        this.searchIndexService = searchIndexService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.afterDays = afterDays;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Archive every long-terminal candidate that still has hot events. Each candidate is moved in
+     * its own transaction; one that fails is logged and left hot for the next run. Returns the
+     * number of candidates archived.
+     */
+    @Scheduled(cron = "${app.timeline-archive.cron:0 30 3 * * *}")
+    public int archiveLongTerminal() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(afterDays);
+        int archived = 0;
+        int failed = 0;
+        long afterId = 0L;
+        while (true) {
+            // Keyset on id, so a failed candidate is not picked up again in this run
+            List<Long> candidateIds = candidateRepository.findIdsWithTimelineToArchive(ARCHIVABLE_STAGES, cutoff,
+                    afterId, PageRequest.ofSize(batchSize));
+            if (candidateIds.isEmpty()) {
+                break;
+            }
+            for (Long candidateId : candidateIds) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> archiveCandidate(candidateId));
+                    archived++;
+                } catch (RuntimeException ex) {
+                    failed++;
+                    log.error("Failed to archive timeline of candidate {}", candidateId, ex);
+                }
+            }
+            if (candidateIds.size() < batchSize) {
+                break;
+            }
+            afterId = candidateIds.get(candidateIds.size() - 1);
+        }
+        if (archived > 0 || failed > 0) {
+            log.info("Archived timelines of {} candidates terminal since before {} ({} failed)", archived, cutoff,
+                    failed);
+        }
+        return archived;
+    }
+
+    /**
+     * Move all of {@code candidateId}'s hot events into its archive row, merging with events
+     * archived earlier. Events appended concurrently stay hot until the next run.
+     */
+    private void archiveCandidate(Long candidateId) {
+        List<TimelineEvent> hot = timelineEventRepository.findByCandidateIdOrderByEventDateDesc(candidateId);
+        if (hot.isEmpty()) {
+            return;
+        }
+        TimelineEventArchive archive = archiveRepository.findByCandidateId(candidateId)
+                .orElseGet(() -> TimelineEventArchive.builder()
+                        .candidate(candidateRepository.getReferenceById(candidateId))
+                        .build());
+        List<TimelineEventView> events = new ArrayList<>(archive.getPayload() != null
+                ? decode(archive.getPayload())
+                : List.of());
+        for (TimelineEvent event : hot) {
+            events.add(toView(event));
+        }
+        events.sort(NEWEST_FIRST);
+
+        archive.setPayload(encode(events));
+        archive.setEventCount(events.size());
+        archive.setLastEventDate(events.get(0).getEventDate());
+        archive.setFirstEventDate(events.get(events.size() - 1).getEventDate());
+        archive.setArchivedAt(LocalDateTime.now());
+        archiveRepository.save(archive);
+
+        List<Long> ids = hot.stream().map(TimelineEvent::getId).toList();
+        timelineEventRepository.deleteAllByIdInBatch(ids);
+        AfterCommit.run(() -> {
+            for (Long id : ids) {
+                searchIndexService.remove(SearchDocumentType.TIMELINE_EVENT, id);
+            }
+        });
+    }
+
+    /**
+     * Archived events of one candidate, newest first; empty when nothing is archived.
+     */
+    public List<TimelineEventView> findArchivedViews(Long candidateId) {
+        return archiveRepository.findPayloadByCandidateId(candidateId)
+                .map(this::decode)
+                .orElse(List.of());
+    }
+
+    /**
+     * Archived events of one candidate rebuilt as {@link TimelineEvent}s, with the current
+     * {@link User} of each actor, so they serialize exactly like hot events.
+     */
+    public List<TimelineEvent> findArchivedEvents(Long candidateId) {
+        List<TimelineEventView> views = findArchivedViews(candidateId);
+        if (views.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> actorIds = views.stream()
+                .map(TimelineEventView::getCreatedById)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, User> actors = userRepository.findAllById(actorIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        List<TimelineEvent> events = new ArrayList<>(views.size());
+        for (TimelineEventView view : views) {
+            events.add(TimelineEvent.builder()
+                    .id(view.getId())
+                    .eventType(view.getEventType())
+                    .subType(view.getSubType())
+                    .fromStage(view.getFromStage())
+                    .toStage(view.getToStage())
+                    .subStatus(view.getSubStatus())
+                    .closeReason(view.getCloseReason())
+                    .title(view.getTitle())
+                    .description(view.getDescription())
+                    .createdBy(view.getCreatedById() != null ? actors.get(view.getCreatedById()) : null)
+                    .eventDate(view.getEventDate())
+                    .metaJson(view.getMetaJson())
+                    .build());
+        }
+        return events;
+    }
+
+    /**
+     * Archived events as timeline export rows, in {@link ExportService#TIMELINE_EXPORT_ORDER}
+     * (by candidate, then oldest first). Must be consumed inside the caller's (read-only)
+     * transaction.
+     */
+    public Stream<TimelineExportRow> streamExport(Long candidateId) {
+        return archiveRepository.streamExport(candidateId)
+                .flatMap(row -> decode(row.getPayload()).stream()
+                        .sorted(NEWEST_FIRST.reversed())
+                        .map(view -> new ArchivedExportRow(row.getCandidateId(), row.getCandidateName(), view)));
+    }
+
+    static TimelineEventView toView(TimelineEvent event) {
+        User actor = event.getCreatedBy();
+        return new TimelineEventView(event.getId(), event.getEventType(), event.getSubType(),
+                event.getFromStage(), event.getToStage(), event.getSubStatus(), event.getCloseReason(),
+                event.getTitle(), event.getDescription(),
+                actor != null ? actor.getId() : null, actor != null ? actor.getName() : null,
+                event.getEventDate(), event.getMetaJson());
+    }
+
+    private byte[] encode(List<TimelineEventView> events) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, events);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to compress archived timeline", ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    private List<TimelineEventView> decode(byte[] payload) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            return objectMapper.readValue(gzip, PAYLOAD_TYPE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read archived timeline", ex);
+        }
+    }
+
+    private static final class ArchivedExportRow implements TimelineExportRow {
+        private final Long candidateId;
+        private final String candidateName;
+        private final TimelineEventView view;
+
+        private ArchivedExportRow(Long candidateId, String candidateName, TimelineEventView view) {
+            this.candidateId = candidateId;
+            this.candidateName = candidateName;
+            this.view = view;
+        }
+
+        @Override
+        public Long getId() {
+            return view.getId();
+        }
+
+        @Override
+        public Long getCandidateId() {
+            return candidateId;
+        }
+
+        @Override
+        public String getCandidateName() {
+            return candidateName;
+        }
+
+        @Override
+        public TimelineEventType getEventType() {
+            return view.getEventType();
+        }
+
+        @Override
+        public String getSubType() {
+            return view.getSubType();
+        }
+
+        @Override
+        public CandidateStage getFromStage() {
+            return view.getFromStage();
+        }
+
+        @Override
+        public CandidateStage getToStage() {
+            return view.getToStage();
+        }
+
+        @Override
+        public CandidateSubStatus getSubStatus() {
+            return view.getSubStatus();
+        }
+
+        @Override
+        public CloseReason getCloseReason() {
+            return view.getCloseReason();
+        }
+
+        @Override
+        public String getTitle() {
+            return view.getTitle();
+        }
+
+        @Override
+        public String getDescription() {
+            return view.getDescription();
+        }
+
+        @Override
+        public String getCreatedByName() {
+            return view.getCreatedByName();
+        }
+
+        @Override
+        public LocalDateTime getEventDate() {
+            return view.getEventDate();
+        }
+    }
+}
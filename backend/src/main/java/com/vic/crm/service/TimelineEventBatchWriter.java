@@ -0,0 +1,103 @@
+package com.vic.crm.service;
+
+import com.vic.crm.entity.TimelineEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserts many timeline events as one JDBC batch. Hibernate cannot batch inserts of
+ * IDENTITY-keyed entities, so set-based writers (bulk import, {@link TransactionalTimelineEventWriter})
+ * go through here instead of {@code saveAll}. Generated ids are copied back onto the events and
+ * each event is queued for full-text indexing.
+ */
+@Service
+@RequiredArgsConstructor
+public class TimelineEventBatchWriter {
+
+    private static final String INSERT_TIMELINE_EVENT = """
+            insert into timeline_events (candidate_id, event_type, sub_type, from_stage, to_stage, sub_status,
+                close_reason, title, description, created_by, event_date, meta_json)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SearchIndexService searchIndexService;
+
+    /**
+     * Insert {@code events} in the caller's transaction. Every event must reference a saved
+     * candidate; a null event date is set to now.
+     */
+    public void insertAll(List<TimelineEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (TimelineEvent event : events) {
+            if (event.getEventDate() == null) {
+                event.setEventDate(now);
+            }
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_TIMELINE_EVENT, new String[] { "id" }),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        TimelineEvent event = events.get(i);
+                        ps.setLong(1, event.getCandidate().getId());
+                        ps.setString(2, event.getEventType().name());
+                        ps.setString(3, event.getSubType());
+                        ps.setString(4, name(event.getFromStage()));
+                        ps.setString(5, name(event.getToStage()));
+                        ps.setString(6, name(event.getSubStatus()));
+                        ps.setString(7, name(event.getCloseReason()));
+                        ps.setString(8, event.getTitle());
+                        ps.setString(9, event.getDescription());
+                        if (event.getCreatedBy() != null) {
+                            ps.setLong(10, event.getCreatedBy().getId());
+                        } else {
+                            ps.setNull(10, Types.BIGINT);
+                        }
+                        ps.setTimestamp(11, Timestamp.valueOf(event.getEventDate()));
+                        ps.setString(12, event.getMetaJson());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return events.size();
+                    }
+                }, keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < events.size(); i++) {
+            TimelineEvent event = events.get(i);
+            event.setId(generatedId(keys.get(i)));
+            searchIndexService.indexTimelineEvent(event);
+        }
+    }
+
+    static Long generatedId(Map<String, Object> keys) {
+        for (Map.Entry<String, Object> entry : keys.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase("id") && entry.getValue() instanceof Number number) {
+                return number.longValue();
+            }
+        }
+        throw new IllegalStateException("No generated id returned for inserted row");
+    }
+
+    private static String name(Enum<?> value) {
+        return value != null ? value.name() : null;
+    }
+}
@@ -0,0 +1,74 @@
+package com.vic.crm.service;
+
+import com.vic.crm.entity.TimelineEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes timeline events recorded as a side effect of lifecycle operations (transitions,
+ * sub-status changes, batch moves, follow-ups) in the caller's transaction, without a
+ * per-event IDENTITY round trip. Events appended during a transaction are collected and inserted
+ * as one JDBC batch through {@link TimelineEventBatchWriter} just before it commits, so they are
+ * committed or rolled back together with the change they describe and nothing is lost on a
+ * crash.
+ *
+ * <p>The event date is fixed when the event is appended. Without a transaction the events are
+ * inserted immediately.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionalTimelineEventWriter {
+
+    private final TimelineEventBatchWriter batchWriter;
+
+    public void append(TimelineEvent event) {
+        appendAll(List.of(event));
+    }
+
+    public void appendAll(List<TimelineEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (TimelineEvent event : events) {
+            if (event.getEventDate() == null) {
+                event.setEventDate(now);
+            }
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            batchWriter.insertAll(events);
+            return;
+        }
+        // Synchronizations are suspended with their transaction, so a REQUIRES_NEW inner
+        // transaction collects its own events
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingEvents pending && pending.writer == this) {
+                pending.events.addAll(events);
+                return;
+            }
+        }
+        PendingEvents pending = new PendingEvents(this);
+        pending.events.addAll(events);
+        TransactionSynchronizationManager.registerSynchronization(pending);
+    }
+
+    private static final class PendingEvents implements TransactionSynchronization {
+        private final TransactionalTimelineEventWriter writer;
+        private final List<TimelineEvent> events = new ArrayList<>();
+
+        private PendingEvents(TransactionalTimelineEventWriter writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            writer.batchWriter.insertAll(events);
+        }
+    }
+}
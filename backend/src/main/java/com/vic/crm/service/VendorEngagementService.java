@@ -10,6 +10,7 @@ import com.vic.crm.repository.CandidateRepository;
 import com.vic.crm.repository.VendorEngagementRepository;
 import com.vic.crm.repository.VendorRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +23,7 @@ public class VendorEngagementService {
     private final VendorEngagementRepository engagementRepository;
     private final CandidateRepository candidateRepository;
     private final VendorRepository vendorRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public VendorEngagement findById(Long id) {
         return engagementRepository.findById(id)
@@ -55,6 +57,8 @@ public class VendorEngagementService {
                 .notes(request.getNotes())
                 .build();
 
-        return engagementRepository.save(engagement);
+        VendorEngagement saved = engagementRepository.save(engagement);
+        eventPublisher.publishEvent(new EngagementChangedEvent(saved.getId()));
+        return saved;
     }
 }
@@ -0,0 +1,9 @@
+-- Backfill candidates.stage_updated_at and make it NOT NULL (run before starting with
+-- ddl-auto=validate on a database created before the column was required). Keyset pages order
+-- by (stage_updated_at, id), so a null value would drop the row out of every page after the first.
+
+UPDATE candidates
+SET stage_updated_at = COALESCE(updated_at, created_at, CURRENT_TIMESTAMP)
+WHERE stage_updated_at IS NULL;
+
+ALTER TABLE candidates ALTER COLUMN stage_updated_at SET NOT NULL;
@@ -0,0 +1,44 @@
+-- Range-partitioned timeline_events for PostgreSQL (run before starting with ddl-auto=validate).
+-- Partitions are yearly on event_date; queries for one candidate's timeline prune to the
+-- partitions covering the requested dates, and old years shrink as the archiver moves events of
+-- long-terminal candidates to timeline_event_archives. Create next year's partition ahead of
+-- time; rows that fall outside every range land in timeline_events_default.
+
+CREATE TABLE timeline_events (
+    id           BIGSERIAL    NOT NULL,
+    candidate_id BIGINT       NOT NULL REFERENCES candidates (id),
+    event_type   VARCHAR(255) NOT NULL,
+    sub_type     VARCHAR(255),
+    from_stage   VARCHAR(255),
+    to_stage     VARCHAR(255),
+    sub_status   VARCHAR(255),
+    close_reason VARCHAR(255),
+    title        VARCHAR(255),
+    description  VARCHAR(255),
+    created_by   BIGINT REFERENCES users (id),
+    event_date   TIMESTAMP(6) NOT NULL,
+    meta_json    TEXT,
+    -- The partition key must be part of every unique constraint on a partitioned table
+    PRIMARY KEY (id, event_date)
+) PARTITION BY RANGE (event_date);
+
+CREATE TABLE timeline_events_2025 PARTITION OF timeline_events
+    FOR VALUES FROM ('2025-01-01') TO ('2026-01-01');
+CREATE TABLE timeline_events_2026 PARTITION OF timeline_events
+    FOR VALUES FROM ('2026-01-01') TO ('2027-01-01');
+CREATE TABLE timeline_events_2027 PARTITION OF timeline_events
+    FOR VALUES FROM ('2027-01-01') TO ('2028-01-01');
+CREATE TABLE timeline_events_default PARTITION OF timeline_events DEFAULT;
+
+-- Keyset index for the paged timeline; created on every partition
+CREATE INDEX idx_timeline_candidate_date ON timeline_events (candidate_id, event_date, id);
+
+CREATE TABLE timeline_event_archives (
+    id               BIGSERIAL PRIMARY KEY,
+    candidate_id     BIGINT       NOT NULL UNIQUE REFERENCES candidates (id),
+    event_count      INTEGER      NOT NULL,
+    first_event_date TIMESTAMP(6),
+    last_event_date  TIMESTAMP(6),
+    payload          BYTEA        NOT NULL,
+    archived_at      TIMESTAMP(6) NOT NULL
+);
@@ -0,0 +1,177 @@
+package com.vic.crm.service;
+
+import com.vic.crm.dto.DuplicateMatch;
+import com.vic.crm.dto.DuplicatePair;
+import com.vic.crm.entity.Candidate;
+import com.vic.crm.enums.DuplicateKeyType;
+import com.vic.crm.repository.CandidateIdentityRow;
+import com.vic.crm.repository.CandidateRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CandidateDedupeServiceTest {
+
+    @Test
+    void jaroWinklerMatchesReferenceValues() {
+        assertThat(CandidateDedupeService.nameSimilarity("martha", "marhta")).isCloseTo(0.9611, within(0.0001));
+        assertThat(CandidateDedupeService.nameSimilarity("dwayne", "duane")).isCloseTo(0.84, within(0.0001));
+        assertThat(CandidateDedupeService.nameSimilarity("dixon", "dicksonx")).isCloseTo(0.8133, within(0.0001));
+        assertThat(CandidateDedupeService.nameSimilarity("abc", "xyz")).isZero();
+        assertThat(CandidateDedupeService.nameSimilarity("", "sara")).isZero();
+        assertThat(CandidateDedupeService.nameSimilarity("sara", "sara")).isEqualTo(1.0);
+    }
+
+    @Test
+    void nameSimilarityIgnoresTokenOrderCaseAndPunctuation() {
+        String a = CandidateDedupeService.normalizeName("Sara Song");
+        String b = CandidateDedupeService.normalizeName("SONG, sara");
+
+        assertThat(a).isEqualTo("sara song");
+        assertThat(CandidateDedupeService.nameSimilarity(a, b)).isEqualTo(1.0);
+    }
+
+    @Test
+    void identifiersAreNormalizedBeforeBlocking() {
+        assertThat(CandidateDedupeService.normalizeEmail(" Sara.Song+crm@GoogleMail.com "))
+                .isEqualTo("sarasong@gmail.com");
+        assertThat(CandidateDedupeService.normalizeEmail("sara.song+crm@example.com"))
+                .isEqualTo("sara.song@example.com");
+        assertThat(CandidateDedupeService.normalizePhone("+1 (415) 555-0123")).isEqualTo("4155550123");
+        assertThat(CandidateDedupeService.normalizePhone("12345")).isNull();
+        assertThat(CandidateDedupeService.normalizeHandle("@Sara#6560")).isEqualTo("sara");
+        assertThat(CandidateDedupeService.normalizeLinkedinUrl("https://www.LinkedIn.com/in/sara/?trk=x"))
+                .isEqualTo("linkedin.com/in/sara");
+    }
+
+    @Test
+    void findMatchesComparesOnlyCandidatesSharingABlock() {
+        CandidateDedupeService service = new CandidateDedupeService(mock(CandidateRepository.class));
+        service.index(candidate(1L, "Sara Song", "sara.song@gmail.com", null));
+        service.index(candidate(2L, "S. Song", null, "415-555-0123"));
+        // Same name, but no shared identifier: never compared
+        service.index(candidate(3L, "Sara Song", "other@example.com", "212-555-0000"));
+
+        List<DuplicateMatch> matches = service.findMatches(
+                candidate(null, "Song Sara", "sarasong+crm@gmail.com", "+1 415 555 0123"));
+
+        assertThat(matches).extracting(DuplicateMatch::getCandidateId).containsExactly(1L, 2L);
+        assertThat(matches.get(0).getMatchedOn()).containsExactly(DuplicateKeyType.EMAIL);
+        assertThat(matches.get(0).getNameSimilarity()).isEqualTo(1.0);
+        assertThat(matches.get(0).getScore()).isEqualTo(2.0);
+        assertThat(matches.get(1).getMatchedOn()).containsExactly(DuplicateKeyType.PHONE);
+    }
+
+    @Test
+    void findMatchesExcludesItselfAndOversizedBlocks() {
+        CandidateDedupeService service = new CandidateDedupeService(mock(CandidateRepository.class));
+        for (long id = 1; id <= CandidateDedupeService.MAX_BLOCK_SIZE + 1; id++) {
+            service.index(candidate(id, "Front Desk " + id, null, "800-555-0100"));
+        }
+        service.index(candidate(100L, "Ana Lee", "ana@example.com", null));
+
+        assertThat(service.findMatches(candidate(null, "Front Desk", null, "800-555-0100"))).isEmpty();
+        assertThat(service.findMatches(candidate(100L, "Ana Lee", "ana@example.com", null))).isEmpty();
+    }
+
+    @Test
+    void scanMergesPairsFoundInSeveralBlocks() {
+        CandidateRepository repository = mock(CandidateRepository.class);
+        when(repository.findAllIdentities()).thenReturn(List.of(
+                row(1L, "Sara Song", "sara@example.com", "415-555-0123"),
+                row(2L, "Sara Song", "SARA@example.com", "(415) 555-0123"),
+                row(3L, "Bo Chen", "bo@example.com", null),
+                row(4L, "Bob Chen", "bo@example.com", null)));
+        CandidateDedupeService service = new CandidateDedupeService(repository);
+
+        List<DuplicatePair> pairs = service.scan(0.0, 10);
+
+        assertThat(pairs).hasSize(2);
+        assertThat(pairs.get(0).getLeftId()).isEqualTo(1L);
+        assertThat(pairs.get(0).getRightId()).isEqualTo(2L);
+        assertThat(pairs.get(0).getMatchedOn()).containsExactlyInAnyOrder(DuplicateKeyType.EMAIL, DuplicateKeyType.PHONE);
+        assertThat(pairs.get(0).getScore()).isEqualTo(2.8);
+        assertThat(pairs.get(1).getMatchedOn()).containsExactly(DuplicateKeyType.EMAIL);
+
+        assertThat(service.scan(2.5, 10)).hasSize(1);
+        assertThat(service.scan(0.0, 1)).hasSize(1);
+    }
+
+    @Test
+    void loadIndexKeepsCandidatesSavedWhileItLoads() {
+        CandidateRepository repository = mock(CandidateRepository.class);
+        CandidateDedupeService service = new CandidateDedupeService(repository);
+        service.index(candidate(1L, "Sara Song", "sara@example.com", null));
+        when(repository.findAllIdentities()).thenAnswer(invocation -> {
+            // Checks keep using the old index while the new one loads
+            assertThat(service.findMatches(candidate(null, "Sara Song", "sara@example.com", null)))
+                    .extracting(DuplicateMatch::getCandidateId).containsExactly(1L);
+            List<CandidateIdentityRow> stale = List.of(row(1L, "Sara Song", "sara@example.com", null));
+            // Saved after the load read: a changed email and a new candidate
+            service.index(candidate(1L, "Sara Song", "sara.song@example.com", null));
+            service.index(candidate(2L, "Bo Chen", "bo@example.com", null));
+            return stale;
+        });
+
+        service.loadIndex();
+
+        assertThat(service.findMatches(candidate(null, "Sara Song", "sara@example.com", null))).isEmpty();
+        assertThat(service.findMatches(candidate(null, "Sara Song", "sara.song@example.com", null)))
+                .extracting(DuplicateMatch::getCandidateId).containsExactly(1L);
+        assertThat(service.findMatches(candidate(null, "Bo Chen", "bo@example.com", null)))
+                .extracting(DuplicateMatch::getCandidateId).containsExactly(2L);
+    }
+
+    private static Candidate candidate(Long id, String name, String email, String phone) {
+        Candidate candidate = new Candidate();
+        candidate.setId(id);
+        candidate.setName(name);
+        candidate.setEmail(email);
+        candidate.setPhone(phone);
+        return candidate;
+    }
+
+    private static CandidateIdentityRow row(Long id, String name, String email, String phone) {
+        return new CandidateIdentityRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getEmail() {
+                return email;
+            }
+
+            @Override
+            public String getPhone() {
+                return phone;
+            }
+
+            @Override
+            public String getWechatId() {
+                return null;
+            }
+
+            @Override
+            public String getDiscordName() {
+                return null;
+            }
+
+            @Override
+            public String getLinkedinUrl() {
+                return null;
+            }
+        };
+    }
+}
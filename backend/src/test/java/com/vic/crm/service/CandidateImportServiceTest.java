@@ -0,0 +1,151 @@
+package com.vic.crm.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vic.crm.dto.CandidateImportResponse;
+import com.vic.crm.entity.Candidate;
+import com.vic.crm.repository.BatchRepository;
+import com.vic.crm.repository.CandidateRepository;
+import com.vic.crm.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class CandidateImportServiceTest {
+
+    @Autowired
+    private CandidateImportService candidateImportService;
+    @Autowired
+    private CandidateRepository candidateRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private BatchRepository batchRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CandidateDedupeService candidateDedupeService;
+    @Autowired
+    private CandidateStatsService candidateStatsService;
+    @Autowired
+    private TagIndexService tagIndexService;
+    @Autowired
+    private SearchIndexService searchIndexService;
+    @Autowired
+    private TimelineEventBatchWriter timelineEventBatchWriter;
+
+    @Test
+    void parsesQuotedFieldsAcrossLines() {
+        String tag = tag();
+        String csv = "name,email,notes\r\n"
+                + "\"Lee, Ana\"," + tag + "-a@example.com,\"said \"\"hi\"\"\"\r\n"
+                + "\r\n"
+                + "Bo Chen," + tag + "-b@example.com,\"line one\nline two\"\n"
+                + "Cy Park," + tag + "-c@example.com\n";
+
+        CandidateImportResponse response = importCsv(candidateImportService, csv);
+
+        assertThat(response.getTotal()).isEqualTo(3);
+        assertThat(response.getImported()).isEqualTo(3);
+        assertThat(response.getErrors()).isEmpty();
+        assertThat(candidate(tag + "-a@example.com"))
+                .extracting(Candidate::getName, Candidate::getNotes)
+                .containsExactly("Lee, Ana", "said \"hi\"");
+        assertThat(candidate(tag + "-b@example.com").getNotes()).isEqualTo("line one\nline two");
+        assertThat(candidate(tag + "-c@example.com").getNotes()).isNull();
+    }
+
+    @Test
+    void reportsMalformedRowsByRecordNumber() {
+        String tag = tag();
+        String csv = "name,email,relocation\n"
+                + "Ana," + tag + "-a@example.com,true,extra\n"
+                + "Bo," + tag + "-b@example.com,maybe\n"
+                + "," + tag + "-c@example.com,false\n";
+
+        CandidateImportResponse response = importCsv(candidateImportService, csv);
+
+        assertThat(response.getTotal()).isEqualTo(3);
+        assertThat(response.getImported()).isZero();
+        assertThat(response.getErrors())
+                .extracting(CandidateImportResponse.RowError::getRow)
+                .containsExactly(2, 3, 4);
+        assertThat(response.getErrors().get(0).getMessage()).isEqualTo("Expected 3 columns but found 4");
+        assertThat(response.getErrors().get(1).getMessage()).startsWith("Invalid value");
+        assertThat(response.getErrors().get(2).getMessage()).isEqualTo("name is required");
+    }
+
+    @Test
+    void rejectedRowDoesNotClaimItsKeys() {
+        String tag = tag();
+        String csv = "name,email,phone\n"
+                + "Ana," + tag + "-a@example.com,+1 555 " + phone(tag) + "\n"
+                // Rejected on the phone; its email must stay free for the next row
+                + "Bo," + tag + "-b@example.com,+1 555 " + phone(tag) + "\n"
+                + "Cy," + tag + "-b@example.com,\n";
+
+        CandidateImportResponse response = importCsv(candidateImportService, csv);
+
+        assertThat(response.getImported()).isEqualTo(2);
+        assertThat(response.getErrors())
+                .extracting(CandidateImportResponse.RowError::getRow)
+                .containsExactly(3);
+        assertThat(candidate(tag + "-b@example.com").getName()).isEqualTo("Cy");
+    }
+
+    @Test
+    void failedChunkReleasesItsKeys() {
+        String tag = tag();
+        String csv = "name,email\n"
+                + "x".repeat(300) + "," + tag + "-a@example.com\n"
+                + "Ana," + tag + "-a@example.com\n";
+
+        CandidateImportResponse response = importCsv(withChunkSize(1), csv);
+
+        assertThat(response.getImported()).isEqualTo(1);
+        assertThat(response.getErrors())
+                .extracting(CandidateImportResponse.RowError::getRow)
+                .containsExactly(2);
+        assertThat(response.getErrors().get(0).getMessage()).startsWith("Chunk insert failed");
+        assertThat(candidate(tag + "-a@example.com").getName()).isEqualTo("Ana");
+    }
+
+    private CandidateImportService withChunkSize(int chunkSize) {
+        return new CandidateImportService(jdbcTemplate, transactionManager, objectMapper, batchRepository,
+                userRepository, candidateDedupeService, candidateStatsService, tagIndexService, searchIndexService,
+                timelineEventBatchWriter, chunkSize);
+    }
+
+    private static CandidateImportResponse importCsv(CandidateImportService service, String csv) {
+        return service.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), false);
+    }
+
+    private Candidate candidate(String email) {
+        List<Candidate> matches = candidateRepository.findAll().stream()
+                .filter(candidate -> email.equals(candidate.getEmail()))
+                .toList();
+        assertThat(matches).hasSize(1);
+        return matches.get(0);
+    }
+
+    private static String tag() {
+        return "import-" + UUID.randomUUID();
+    }
+
+    private static String phone(String tag) {
+        return String.valueOf(1_000_000 + Math.floorMod(tag.hashCode(), 9_000_000));
+    }
+}
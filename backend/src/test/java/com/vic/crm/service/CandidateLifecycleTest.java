@@ -0,0 +1,444 @@
+package com.vic.crm.service;
+
+import com.vic.crm.dto.AllowedTransitionsResponse;
+import com.vic.crm.dto.TransitionRequest;
+import com.vic.crm.entity.Batch;
+import com.vic.crm.entity.Candidate;
+import com.vic.crm.enums.CandidateStage;
+import com.vic.crm.enums.CandidateSubStatus;
+import com.vic.crm.enums.CloseReason;
+import com.vic.crm.enums.OfferType;
+import com.vic.crm.exception.InvalidTransitionException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Parity between the compiled {@link CandidateLifecycle} tables and the original map-and-if
+ * implementation, which is kept below verbatim as the reference.
+ */
+class CandidateLifecycleTest {
+
+    @Test
+    void transitionMaskMatchesReference() {
+        for (CandidateStage from : CandidateStage.values()) {
+            for (CandidateStage to : CandidateStage.values()) {
+                assertThat(CandidateLifecycle.isTransitionAllowed(from, to))
+                        .as("%s -> %s", from, to)
+                        .isEqualTo(Reference.ALLOWED_TRANSITIONS.get(from).contains(to));
+            }
+            assertThat(CandidateLifecycle.isTransitionAllowed(from, null)).isFalse();
+            assertThat(CandidateLifecycle.isTransitionAllowed(null, from)).isFalse();
+            assertThat(CandidateLifecycle.isNonTerminal(from)).isEqualTo(Reference.NON_TERMINAL_STAGES.contains(from));
+        }
+    }
+
+    @Test
+    void subStatusMaskAndDefaultsMatchReference() {
+        for (CandidateStage stage : CandidateStage.values()) {
+            for (CandidateSubStatus subStatus : CandidateSubStatus.values()) {
+                assertThat(CandidateLifecycle.isSubStatusAllowed(stage, subStatus))
+                        .as("%s / %s", stage, subStatus)
+                        .isEqualTo(Reference.SUB_STATUS_BY_STAGE.get(stage).contains(subStatus));
+            }
+            assertThat(CandidateLifecycle.defaultSubStatus(stage)).isEqualTo(Reference.DEFAULT_SUB_STATUS.get(stage));
+        }
+        assertThat(CandidateLifecycle.isSubStatusAllowed(null, CandidateSubStatus.SOURCED)).isFalse();
+        assertThat(CandidateLifecycle.isSubStatusAllowed(CandidateStage.SOURCING, null)).isFalse();
+    }
+
+    @Test
+    void checkReportsTheSameFirstViolationAsReference() {
+        Map<String, TransitionRequest> requests = requests();
+        List<String> mismatches = new ArrayList<>();
+        for (Candidate candidate : candidates()) {
+            // Rules only run once the transition itself is known to be allowed
+            for (CandidateStage to : Reference.ALLOWED_TRANSITIONS.get(candidate.getStage())) {
+                for (Map.Entry<String, TransitionRequest> request : requests.entrySet()) {
+                    String expected = Reference.violation(candidate, to, request.getValue());
+                    String actual = violation(candidate, to, request.getValue());
+                    if (!String.valueOf(expected).equals(String.valueOf(actual))) {
+                        mismatches.add(describe(candidate) + " -> " + to + " with " + request.getKey()
+                                + ": expected " + expected + " but was " + actual);
+                    }
+                }
+            }
+        }
+        assertThat(mismatches).isEmpty();
+    }
+
+    @Test
+    void preflightListsLegalTargetsWithTheirRequirements() {
+        Map<String, TransitionRequest> requests = requests();
+        TransitionRequest full = requests.get("full");
+        for (Candidate candidate : candidates()) {
+            AllowedTransitionsResponse response = CandidateLifecycle.preflight(candidate);
+
+            List<CandidateStage> expectedTargets = Arrays.stream(CandidateStage.values())
+                    .filter(Reference.ALLOWED_TRANSITIONS.get(candidate.getStage())::contains)
+                    .toList();
+            assertThat(response.getTargets())
+                    .extracting(AllowedTransitionsResponse.Target::getToStage)
+                    .as(describe(candidate))
+                    .containsExactlyElementsOf(expectedTargets);
+
+            for (AllowedTransitionsResponse.Target target : response.getTargets()) {
+                CandidateStage to = target.getToStage();
+                String context = describe(candidate) + " -> " + to;
+                assertThat(target.getDefaultSubStatus()).isEqualTo(Reference.DEFAULT_SUB_STATUS.get(to));
+                assertThat(target.getSubStatuses()).containsExactlyInAnyOrderElementsOf(
+                        Reference.SUB_STATUS_BY_STAGE.get(to));
+
+                String stateViolation = Reference.violation(candidate, to, full);
+                assertThat(target.isReady()).as(context).isEqualTo(stateViolation == null);
+                if (stateViolation != null) {
+                    assertThat(target.getUnmetRequirements()).as(context).startsWith(stateViolation);
+                    continue;
+                }
+                assertThat(target.getUnmetRequirements()).as(context).isEmpty();
+                // A field is required exactly when leaving it out of an otherwise full request fails
+                for (String field : REQUEST_FIELDS.keySet()) {
+                    boolean fails = Reference.violation(candidate, to, requests.get("no " + field)) != null;
+                    assertThat(target.getRequiredFields().contains(field)).as(context + " " + field).isEqualTo(fails);
+                }
+            }
+        }
+    }
+
+    @Test
+    void preflightOfStagelessCandidateHasNoTargets() {
+        Candidate candidate = new Candidate();
+        candidate.setStage(null);
+
+        assertThat(CandidateLifecycle.preflight(candidate).getTargets()).isEmpty();
+    }
+
+    private static String violation(Candidate candidate, CandidateStage to, TransitionRequest request) {
+        try {
+            CandidateLifecycle.check(candidate, to, request);
+            return null;
+        } catch (InvalidTransitionException ex) {
+            return ex.getMessage();
+        }
+    }
+
+    private static final Map<String, Consumer<TransitionRequest>> REQUEST_FIELDS = new LinkedHashMap<>();
+
+    static {
+        REQUEST_FIELDS.put("startDate", request -> request.setStartDate(null));
+        REQUEST_FIELDS.put("offerType", request -> request.setOfferType(null));
+        REQUEST_FIELDS.put("closeReason", request -> request.setCloseReason(null));
+        REQUEST_FIELDS.put("withdrawReason", request -> request.setWithdrawReason(" "));
+        REQUEST_FIELDS.put("holdReason", request -> request.setHoldReason(null));
+        REQUEST_FIELDS.put("nextFollowUpAt", request -> request.setNextFollowUpAt(null));
+        REQUEST_FIELDS.put("reactivateReason", request -> request.setReactivateReason(""));
+        REQUEST_FIELDS.put("reason", request -> request.setReason(null));
+    }
+
+    private static Map<String, TransitionRequest> requests() {
+        Map<String, TransitionRequest> requests = new LinkedHashMap<>();
+        requests.put("full", fullRequest());
+        requests.put("empty", new TransitionRequest());
+        REQUEST_FIELDS.forEach((field, clear) -> {
+            TransitionRequest request = fullRequest();
+            clear.accept(request);
+            requests.put("no " + field, request);
+        });
+        return requests;
+    }
+
+    private static TransitionRequest fullRequest() {
+        TransitionRequest request = new TransitionRequest();
+        request.setStartDate(LocalDate.of(2025, 6, 1));
+        request.setOfferType(OfferType.W2);
+        request.setCloseReason(CloseReason.values()[0]);
+        request.setWithdrawReason("moved on");
+        request.setHoldReason("visa");
+        request.setNextFollowUpAt(LocalDateTime.of(2025, 7, 1, 9, 0));
+        request.setReactivateReason("back");
+        request.setReason("client feedback");
+        return request;
+    }
+
+    /**
+     * Every stage crossed with the sub-statuses the rules look at, batch presence, resumeReady,
+     * profile completeness and lastActiveStage.
+     */
+    private static List<Candidate> candidates() {
+        List<CandidateSubStatus> subStatuses = List.of(CandidateSubStatus.SOURCED,
+                CandidateSubStatus.DIRECT_MARKETING_READY, CandidateSubStatus.RESUME_PREPARING,
+                CandidateSubStatus.RESUME_READY, CandidateSubStatus.MOCK_THEORY_READY,
+                CandidateSubStatus.MOCK_REAL_PASSED);
+        List<Consumer<Candidate>> profiles = List.of(
+                candidate -> { },
+                candidate -> candidate.setName(" "),
+                candidate -> {
+                    candidate.setEmail(null);
+                    candidate.setPhone("");
+                },
+                candidate -> candidate.setEmail(null),
+                candidate -> candidate.setWorkAuth(null),
+                candidate -> candidate.setTechTags(""),
+                candidate -> {
+                    candidate.setCity(null);
+                    candidate.setState(" ");
+                },
+                candidate -> candidate.setCity(null));
+        List<Boolean> resumeReady = Arrays.asList(null, false, true);
+        List<CandidateStage> lastActiveStages = Arrays.asList(null, CandidateStage.TRAINING, CandidateStage.MARKETING);
+
+        List<Candidate> candidates = new ArrayList<>();
+        for (CandidateStage stage : CandidateStage.values()) {
+            for (CandidateSubStatus subStatus : subStatuses) {
+                for (boolean withBatch : new boolean[] { false, true }) {
+                    for (Boolean ready : resumeReady) {
+                        for (Consumer<Candidate> profile : profiles) {
+                            for (CandidateStage lastActiveStage : lastActiveStages) {
+                                Candidate candidate = new Candidate();
+                                candidate.setId((long) candidates.size() + 1);
+                                candidate.setName("Ana Lee");
+                                candidate.setEmail("ana@example.com");
+                                candidate.setPhone("555-0100");
+                                candidate.setWorkAuth("H1B");
+                                candidate.setTechTags("java");
+                                candidate.setCity("Austin");
+                                candidate.setState("TX");
+                                candidate.setStage(stage);
+                                candidate.setSubStatus(subStatus);
+                                candidate.setBatch(withBatch ? Batch.builder().id(1L).build() : null);
+                                candidate.setResumeReady(ready);
+                                candidate.setLastActiveStage(lastActiveStage);
+                                profile.accept(candidate);
+                                candidates.add(candidate);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private static String describe(Candidate candidate) {
+        return "[" + candidate.getStage() + "/" + candidate.getSubStatus() + " batch=" + (candidate.getBatch() != null)
+                + " resumeReady=" + candidate.getResumeReady() + " lastActive=" + candidate.getLastActiveStage()
+                + " name=" + candidate.getName() + " email=" + candidate.getEmail() + " phone=" + candidate.getPhone()
+                + " workAuth=" + candidate.getWorkAuth() + " techTags=" + candidate.getTechTags()
+                + " city=" + candidate.getCity() + " state=" + candidate.getState() + "]";
+    }
+
+    /**
+     * The transition tables and rule checks as they stood before they were compiled into
+     * {@link CandidateLifecycle}.
+     */
+    private static final class Reference {
+
+        static final Set<CandidateStage> NON_TERMINAL_STAGES = Set.of(
+                CandidateStage.SOURCING,
+                CandidateStage.TRAINING,
+                CandidateStage.RESUME,
+                CandidateStage.MOCKING,
+                CandidateStage.MARKETING,
+                CandidateStage.OFFERED);
+
+        static final Map<CandidateStage, Set<CandidateStage>> ALLOWED_TRANSITIONS = Map.of(
+                CandidateStage.SOURCING, Set.of(CandidateStage.TRAINING, CandidateStage.MARKETING,
+                        CandidateStage.ELIMINATED, CandidateStage.WITHDRAWN, CandidateStage.ON_HOLD),
+                CandidateStage.TRAINING, Set.of(CandidateStage.RESUME, CandidateStage.ELIMINATED,
+                        CandidateStage.WITHDRAWN, CandidateStage.ON_HOLD),
+                CandidateStage.RESUME, Set.of(CandidateStage.MOCKING, CandidateStage.ELIMINATED,
+                        CandidateStage.WITHDRAWN, CandidateStage.ON_HOLD),
+                CandidateStage.MOCKING, Set.of(CandidateStage.MARKETING, CandidateStage.ELIMINATED,
+                        CandidateStage.WITHDRAWN, CandidateStage.ON_HOLD),
+                CandidateStage.MARKETING, Set.of(CandidateStage.OFFERED, CandidateStage.ELIMINATED,
+                        CandidateStage.WITHDRAWN, CandidateStage.ON_HOLD),
+                CandidateStage.OFFERED, Set.of(CandidateStage.PLACED, CandidateStage.MARKETING,
+                        CandidateStage.ELIMINATED, CandidateStage.WITHDRAWN, CandidateStage.ON_HOLD),
+                CandidateStage.PLACED,
+                Set.of(CandidateStage.MARKETING, CandidateStage.ELIMINATED, CandidateStage.WITHDRAWN),
+                CandidateStage.ELIMINATED, Set.of(CandidateStage.SOURCING, CandidateStage.TRAINING,
+                        CandidateStage.RESUME, CandidateStage.MOCKING, CandidateStage.MARKETING, CandidateStage.OFFERED),
+                CandidateStage.WITHDRAWN, Set.of(CandidateStage.SOURCING, CandidateStage.TRAINING,
+                        CandidateStage.RESUME, CandidateStage.MOCKING, CandidateStage.MARKETING, CandidateStage.OFFERED),
+                CandidateStage.ON_HOLD, Set.of(CandidateStage.SOURCING, CandidateStage.TRAINING,
+                        CandidateStage.RESUME, CandidateStage.MOCKING, CandidateStage.MARKETING, CandidateStage.OFFERED));
+
+        static final Map<CandidateStage, Set<CandidateSubStatus>> SUB_STATUS_BY_STAGE = Map.of(
+                CandidateStage.SOURCING, Set.of(
+                        CandidateSubStatus.SOURCED, CandidateSubStatus.CONTACTED, CandidateSubStatus.SCREENING_SCHEDULED,
+                        CandidateSubStatus.SCREENING_PASSED, CandidateSubStatus.SCREENING_FAILED,
+                        CandidateSubStatus.TRAINING_CONTRACT_SENT, CandidateSubStatus.TRAINING_CONTRACT_SIGNED,
+                        CandidateSubStatus.BATCH_ASSIGNED,
+                        CandidateSubStatus.DIRECT_MARKETING_READY),
+                CandidateStage.TRAINING, Set.of(
+                        CandidateSubStatus.IN_TRAINING),
+                CandidateStage.RESUME, Set.of(
+                        CandidateSubStatus.RESUME_PREPARING, CandidateSubStatus.RESUME_READY),
+                CandidateStage.MOCKING, Set.of(
+                        CandidateSubStatus.MOCK_THEORY_READY, CandidateSubStatus.MOCK_THEORY_SCHEDULED,
+                        CandidateSubStatus.MOCK_THEORY_PASSED, CandidateSubStatus.MOCK_THEORY_FAILED,
+                        CandidateSubStatus.MOCK_REAL_SCHEDULED, CandidateSubStatus.MOCK_REAL_PASSED,
+                        CandidateSubStatus.MOCK_REAL_FAILED),
+                CandidateStage.MARKETING, Set.of(CandidateSubStatus.MARKETING_ACTIVE),
+                CandidateStage.OFFERED, Set.of(
+                        CandidateSubStatus.OFFER_PENDING, CandidateSubStatus.OFFER_ACCEPTED,
+                        CandidateSubStatus.OFFER_DECLINED),
+                CandidateStage.ON_HOLD, Set.of(
+                        CandidateSubStatus.WAITING_DOCS, CandidateSubStatus.PERSONAL_PAUSE,
+                        CandidateSubStatus.VISA_ISSUE, CandidateSubStatus.OTHER),
+                CandidateStage.PLACED, Set.of(CandidateSubStatus.PLACED_CONFIRMED),
+                CandidateStage.ELIMINATED, Set.of(CandidateSubStatus.CLOSED),
+                CandidateStage.WITHDRAWN, Set.of(CandidateSubStatus.SELF_WITHDRAWN));
+
+        static final Map<CandidateStage, CandidateSubStatus> DEFAULT_SUB_STATUS = Map.of(
+                CandidateStage.SOURCING, CandidateSubStatus.SOURCED,
+                CandidateStage.TRAINING, CandidateSubStatus.IN_TRAINING,
+                CandidateStage.RESUME, CandidateSubStatus.RESUME_PREPARING,
+                CandidateStage.MOCKING, CandidateSubStatus.MOCK_THEORY_READY,
+                CandidateStage.MARKETING, CandidateSubStatus.MARKETING_ACTIVE,
+                CandidateStage.OFFERED, CandidateSubStatus.OFFER_PENDING,
+                CandidateStage.ON_HOLD, CandidateSubStatus.OTHER,
+                CandidateStage.PLACED, CandidateSubStatus.PLACED_CONFIRMED,
+                CandidateStage.ELIMINATED, CandidateSubStatus.CLOSED,
+                CandidateStage.WITHDRAWN, CandidateSubStatus.SELF_WITHDRAWN);
+
+        static {
+            assertThat(ALLOWED_TRANSITIONS.keySet()).isEqualTo(EnumSet.allOf(CandidateStage.class));
+        }
+
+        static String violation(Candidate candidate, CandidateStage toStage, TransitionRequest request) {
+            try {
+                validateTransitionRules(candidate, candidate.getStage(), toStage, request);
+                return null;
+            } catch (InvalidTransitionException ex) {
+                return ex.getMessage();
+            }
+        }
+
+        private static void validateTransitionRules(Candidate candidate, CandidateStage fromStage,
+                CandidateStage toStage, TransitionRequest request) {
+            if (toStage == CandidateStage.TRAINING) {
+                requireBatch(candidate.getBatch());
+            }
+
+            if (fromStage == CandidateStage.SOURCING && toStage == CandidateStage.MARKETING) {
+                if (candidate.getSubStatus() != CandidateSubStatus.DIRECT_MARKETING_READY) {
+                    throw new InvalidTransitionException("DIRECT_MARKETING_READY is required for direct marketing");
+                }
+                validateDirectMarketingCompleteness(candidate);
+            }
+
+            if (fromStage == CandidateStage.MOCKING && toStage == CandidateStage.MARKETING) {
+                if (candidate.getSubStatus() != CandidateSubStatus.MOCK_REAL_PASSED) {
+                    throw new InvalidTransitionException("MOCK_REAL_PASSED is required to enter MARKETING");
+                }
+            }
+            if (toStage == CandidateStage.MOCKING) {
+                if (fromStage == CandidateStage.RESUME) {
+                    if (candidate.getSubStatus() != CandidateSubStatus.RESUME_READY) {
+                        throw new InvalidTransitionException("RESUME_READY is required to enter MOCKING");
+                    }
+                } else if (candidate.getResumeReady() == null || !candidate.getResumeReady()) {
+                    throw new InvalidTransitionException("resumeReady must be true to enter MOCKING");
+                }
+            }
+
+            if (toStage == CandidateStage.PLACED) {
+                requireDate(request.getStartDate(), "startDate is required for PLACED");
+            }
+
+            if (toStage == CandidateStage.OFFERED && request.getOfferType() == null) {
+                throw new InvalidTransitionException("offerType is required for OFFERED");
+            }
+
+            if (toStage == CandidateStage.ELIMINATED && request.getCloseReason() == null) {
+                throw new InvalidTransitionException("closeReason is required for ELIMINATED");
+            }
+
+            if (toStage == CandidateStage.WITHDRAWN && isBlank(request.getWithdrawReason())) {
+                throw new InvalidTransitionException("withdrawReason is required for WITHDRAWN");
+            }
+
+            if (toStage == CandidateStage.ON_HOLD) {
+                if (isBlank(request.getHoldReason()) || request.getNextFollowUpAt() == null) {
+                    throw new InvalidTransitionException("holdReason and nextFollowUpAt are required for ON_HOLD");
+                }
+            }
+
+            if ((fromStage == CandidateStage.ELIMINATED || fromStage == CandidateStage.WITHDRAWN)
+                    && NON_TERMINAL_STAGES.contains(toStage)) {
+                if (isBlank(request.getReactivateReason())) {
+                    throw new InvalidTransitionException("reactivateReason is required to reactivate a candidate");
+                }
+            }
+
+            if (fromStage == CandidateStage.ON_HOLD
+                    && candidate.getLastActiveStage() != null
+                    && toStage != candidate.getLastActiveStage()
+                    && isBlank(request.getReason())) {
+                throw new InvalidTransitionException("reason is required to jump from ON_HOLD to a new stage");
+            }
+
+            if (fromStage == CandidateStage.OFFERED && toStage == CandidateStage.MARKETING) {
+                requireReason(request.getReason(), "reason is required to return to MARKETING");
+            }
+            if (fromStage == CandidateStage.PLACED && toStage == CandidateStage.MARKETING) {
+                requireReason(request.getReason(), "reason is required to return to MARKETING");
+            }
+        }
+
+        private static void validateDirectMarketingCompleteness(Candidate candidate) {
+            if (isBlank(candidate.getName())) {
+                throw new InvalidTransitionException("name is required for direct marketing");
+            }
+            if (isBlank(candidate.getEmail()) && isBlank(candidate.getPhone())) {
+                throw new InvalidTransitionException("email or phone is required for direct marketing");
+            }
+            if (isBlank(candidate.getWorkAuth())) {
+                throw new InvalidTransitionException("workAuth is required for direct marketing");
+            }
+            if (isBlank(candidate.getTechTags())) {
+                throw new InvalidTransitionException("techTags is required for direct marketing");
+            }
+            if (isBlank(candidate.getCity()) && isBlank(candidate.getState())) {
+                throw new InvalidTransitionException("city or state is required for direct marketing");
+            }
+            if (candidate.getResumeReady() == null || !candidate.getResumeReady()) {
+                throw new InvalidTransitionException("resumeReady must be true for direct marketing");
+            }
+        }
+
+        private static void requireBatch(Batch batch) {
+            if (batch == null) {
+                throw new InvalidTransitionException("batch is required for TRAINING");
+            }
+        }
+
+        private static void requireDate(LocalDate date, String message) {
+            if (date == null) {
+                throw new InvalidTransitionException(message);
+            }
+        }
+
+        private static void requireReason(String reason, String message) {
+            if (isBlank(reason)) {
+                throw new InvalidTransitionException(message);
+            }
+        }
+
+        private static boolean isBlank(String value) {
+            return value == null || value.trim().isEmpty();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.vic.crm.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExportServiceTest {
+
+    @Test
+    void mergeSortedInterleavesBothStreamsAndClosesThem() {
+        AtomicInteger closed = new AtomicInteger();
+        Stream<Integer> hot = Stream.of(1, 4, 5, 9).onClose(closed::incrementAndGet);
+        Stream<Integer> archived = Stream.of(2, 3, 6, 10, 11).onClose(closed::incrementAndGet);
+
+        List<Integer> merged;
+        try (Stream<Integer> rows = ExportService.mergeSorted(hot, archived, Comparator.naturalOrder())) {
+            merged = rows.toList();
+        }
+
+        assertThat(merged).containsExactly(1, 2, 3, 4, 5, 6, 9, 10, 11);
+        assertThat(closed).hasValue(2);
+    }
+
+    @Test
+    void mergeSortedHandlesEmptyInputs() {
+        assertThat(ExportService.mergeSorted(Stream.<Integer>empty(), Stream.of(1, 2), Comparator.naturalOrder()))
+                .containsExactly(1, 2);
+        assertThat(ExportService.mergeSorted(Stream.of(1, 2), Stream.<Integer>empty(), Comparator.naturalOrder()))
+                .containsExactly(1, 2);
+        assertThat(ExportService.mergeSorted(Stream.<Integer>empty(), Stream.<Integer>empty(),
+                Comparator.naturalOrder())).isEmpty();
+    }
+}
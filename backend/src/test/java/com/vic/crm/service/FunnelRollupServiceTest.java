@@ -0,0 +1,106 @@
+package com.vic.crm.service;
+
+import com.vic.crm.dto.FunnelResponse;
+import com.vic.crm.entity.AssessmentAttempt;
+import com.vic.crm.entity.Vendor;
+import com.vic.crm.entity.VendorEngagement;
+import com.vic.crm.enums.AssessmentType;
+import com.vic.crm.enums.FunnelGranularity;
+import com.vic.crm.enums.FunnelScope;
+import com.vic.crm.enums.FunnelStage;
+import com.vic.crm.enums.StepResult;
+import com.vic.crm.enums.StepState;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class FunnelRollupServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2021, 3, 3);
+
+    @Autowired
+    private FunnelRollupService funnelRollupService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void recordChangeAppliesReachedAndPassedDeltas() {
+        long vendorId = vendorId();
+        FunnelRollupService.Fact passed = fact(vendorId, AssessmentType.OA, StepResult.PASS, DAY);
+        FunnelRollupService.Fact failed = fact(vendorId, AssessmentType.OA, StepResult.FAIL, DAY);
+
+        funnelRollupService.recordChange(null, passed);
+        assertCounts(vendorId, FunnelGranularity.DAY, DAY, FunnelStage.OA, 1, 1);
+
+        funnelRollupService.recordChange(passed, failed);
+        assertCounts(vendorId, FunnelGranularity.DAY, DAY, FunnelStage.OA, 1, 0);
+
+        funnelRollupService.recordChange(failed, null);
+        assertCounts(vendorId, FunnelGranularity.DAY, DAY, FunnelStage.OA, 0, 0);
+    }
+
+    @Test
+    void recordChangeMovesFactBetweenWindowsAndStages() {
+        long vendorId = vendorId();
+        LocalDate nextDay = DAY.plusDays(1);
+        FunnelRollupService.Fact before = fact(vendorId, AssessmentType.OA, StepResult.PASS, DAY);
+        FunnelRollupService.Fact after = fact(vendorId, AssessmentType.VENDOR_SCREENING, StepResult.PASS, nextDay);
+
+        funnelRollupService.recordChange(null, before);
+        funnelRollupService.recordChange(before, after);
+
+        assertCounts(vendorId, FunnelGranularity.DAY, DAY, FunnelStage.OA, 0, 0);
+        assertCounts(vendorId, FunnelGranularity.DAY, nextDay, FunnelStage.VENDOR_SCREENING, 1, 1);
+        // Both days fall in the same month, which only moves the fact between stages
+        assertCounts(vendorId, FunnelGranularity.MONTH, DAY, FunnelStage.OA, 0, 0);
+        assertCounts(vendorId, FunnelGranularity.MONTH, DAY, FunnelStage.VENDOR_SCREENING, 1, 1);
+    }
+
+    @Test
+    void recordChangeInRolledBackTransactionIsDiscarded() {
+        long vendorId = vendorId();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            funnelRollupService.recordChange(null, fact(vendorId, AssessmentType.OA, StepResult.PASS, DAY));
+            status.setRollbackOnly();
+        });
+
+        assertCounts(vendorId, FunnelGranularity.DAY, DAY, FunnelStage.OA, 0, 0);
+    }
+
+    private void assertCounts(long vendorId, FunnelGranularity granularity, LocalDate day, FunnelStage stage,
+            long reached, long passed) {
+        FunnelResponse funnel = funnelRollupService.getFunnel(FunnelScope.VENDOR, vendorId, granularity, day, day);
+        FunnelResponse.StageCount count = funnel.getStages().stream()
+                .filter(stageCount -> stageCount.getStage() == stage)
+                .findFirst()
+                .orElseThrow();
+        assertThat(count.getReached()).as("%s reached", stage).isEqualTo(reached);
+        assertThat(count.getPassed()).as("%s passed", stage).isEqualTo(passed);
+    }
+
+    private static FunnelRollupService.Fact fact(long vendorId, AssessmentType type, StepResult result,
+            LocalDate day) {
+        Vendor vendor = Vendor.builder().id(vendorId).build();
+        return FunnelRollupService.Fact.of(AssessmentAttempt.builder()
+                .vendorEngagement(VendorEngagement.builder().vendor(vendor).build())
+                .attemptType(type)
+                .state(StepState.COMPLETED)
+                .result(result)
+                .happenedAt(day.atTime(10, 0))
+                .build());
+    }
+
+    // Rollup rows carry the scope id without a foreign key, so each test uses its own vendor id
+    private static long vendorId() {
+        return ThreadLocalRandom.current().nextLong(1_000_000_000L, Long.MAX_VALUE);
+    }
+}
@@ -0,0 +1,160 @@
+package com.vic.crm.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vic.crm.entity.IdempotencyKey;
+import com.vic.crm.exception.IdempotencyKeyInProgressException;
+import com.vic.crm.repository.IdempotencyKeyRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class IdempotencyServiceTest {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void retryReplaysStoredResponseWithoutRunningAgain() {
+        String key = key();
+        AtomicInteger runs = new AtomicInteger();
+
+        ResponseEntity<?> first = idempotencyService.execute(key, "POST /test", Map.of("a", 1), HttpStatus.CREATED,
+                () -> Map.of("run", runs.incrementAndGet()));
+        ResponseEntity<?> retry = idempotencyService.execute(key, "POST /test", Map.of("a", 1), HttpStatus.CREATED,
+                () -> Map.of("run", runs.incrementAndGet()));
+
+        assertThat(runs).hasValue(1);
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(first.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(retry.getBody()).isEqualTo("{\"run\":1}");
+    }
+
+    @Test
+    void keyReusedForDifferentRequestIsRejected() {
+        String key = key();
+        idempotencyService.execute(key, "POST /test", Map.of("a", 1), HttpStatus.OK, () -> "done");
+
+        assertThatThrownBy(() -> idempotencyService.execute(key, "POST /test", Map.of("a", 2), HttpStatus.OK,
+                () -> "again"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("different request");
+        assertThatThrownBy(() -> idempotencyService.execute(key, "POST /other", Map.of("a", 1), HttpStatus.OK,
+                () -> "again"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void retryWhileOriginalRunsIsInProgress() {
+        String key = key();
+
+        idempotencyService.execute(key, "POST /test", Map.of(), HttpStatus.OK, () -> {
+            assertThatThrownBy(() -> idempotencyService.execute(key, "POST /test", Map.of(), HttpStatus.OK,
+                    () -> "retry"))
+                    .isInstanceOf(IdempotencyKeyInProgressException.class);
+            return "original";
+        });
+
+        assertThat(idempotencyKeyRepository.findByKey(key).orElseThrow().getStatusCode()).isEqualTo(200);
+    }
+
+    @Test
+    void failedCommandReleasesKey() {
+        String key = key();
+
+        assertThatThrownBy(() -> idempotencyService.execute(key, "POST /test", Map.of(), HttpStatus.OK, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(idempotencyKeyRepository.findByKey(key)).isEmpty();
+
+        ResponseEntity<?> retry = idempotencyService.execute(key, "POST /test", Map.of(), HttpStatus.OK, () -> "ok");
+        assertThat(retry.getBody()).isEqualTo("ok");
+    }
+
+    @Test
+    void expiredLeaseIsReclaimedAndStaleHolderCannotReleaseIt() {
+        IdempotencyService noLease = new IdempotencyService(idempotencyKeyRepository, objectMapper,
+                transactionManager, 100, 24, 0);
+        String key = key();
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThatThrownBy(() -> noLease.execute(key, "POST /test", Map.of(), HttpStatus.OK, () -> {
+            runs.incrementAndGet();
+            pause();
+            // A retry after the lease ran out takes the key over and completes it
+            ResponseEntity<?> retry = noLease.execute(key, "POST /test", Map.of(), HttpStatus.OK,
+                    () -> "run " + runs.incrementAndGet());
+            assertThat(retry.getBody()).isEqualTo("run 2");
+            throw new IllegalStateException("original failed late");
+        })).isInstanceOf(IllegalStateException.class);
+
+        IdempotencyKey record = idempotencyKeyRepository.findByKey(key).orElseThrow();
+        assertThat(record.getStatusCode()).isEqualTo(200);
+        assertThat(record.getResponseBody()).isEqualTo("\"run 2\"");
+        assertThat(runs).hasValue(2);
+    }
+
+    @Test
+    void staleHolderCannotCompleteAReclaimedKey() {
+        IdempotencyService noLease = new IdempotencyService(idempotencyKeyRepository, objectMapper,
+                transactionManager, 100, 24, 0);
+        String key = key();
+
+        ResponseEntity<?> original = noLease.execute(key, "POST /test", Map.of(), HttpStatus.OK, () -> {
+            pause();
+            noLease.execute(key, "POST /test", Map.of(), HttpStatus.OK, () -> "run 2");
+            return "run 1";
+        });
+        assertThat(original.getBody()).isEqualTo("run 1");
+
+        assertThat(idempotencyKeyRepository.findByKey(key).orElseThrow().getResponseBody()).isEqualTo("\"run 2\"");
+        ResponseEntity<?> retry = noLease.execute(key, "POST /test", Map.of(), HttpStatus.OK, () -> "run 3");
+        assertThat(retry.getBody()).isEqualTo("\"run 2\"");
+    }
+
+    @Test
+    void responseIsStoredInTheCommandsTransaction() {
+        String key = key();
+
+        idempotencyService.execute(key, "POST /test", Map.of(), HttpStatus.OK, () -> {
+            String result = optimisticRetry.execute("test.idempotent", () -> "committed");
+            // The command's transaction has committed, and the response with it
+            IdempotencyKey record = idempotencyKeyRepository.findByKey(key).orElseThrow();
+            assertThat(record.getStatusCode()).isEqualTo(200);
+            assertThat(record.getResponseBody()).isEqualTo("\"committed\"");
+            return result;
+        });
+    }
+
+    private static String key() {
+        return "test-" + UUID.randomUUID();
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
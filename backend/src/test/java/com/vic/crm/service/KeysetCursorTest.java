@@ -0,0 +1,65 @@
+package com.vic.crm.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2025, 3, 14, 9, 26, 53, 589_000_000);
+
+    @Test
+    void roundTripsPosition() {
+        String cursor = KeysetCursor.encode("stageUpdatedAt", Sort.Direction.DESC, TIMESTAMP, 42L);
+
+        KeysetCursor position = KeysetCursor.decode(cursor, "stageUpdatedAt", Sort.Direction.DESC);
+
+        assertThat(position.getTimestamp()).isEqualTo(TIMESTAMP);
+        assertThat(position.getId()).isEqualTo(42L);
+    }
+
+    @Test
+    void isUrlSafe() {
+        String cursor = KeysetCursor.encode("createdAt", Sort.Direction.ASC, TIMESTAMP, Long.MAX_VALUE);
+
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void rejectsCursorForAnotherSortKey() {
+        String cursor = KeysetCursor.encode("stageUpdatedAt", Sort.Direction.DESC, TIMESTAMP, 42L);
+
+        assertThatThrownBy(() -> KeysetCursor.decode(cursor, "createdAt", Sort.Direction.DESC))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("stageUpdatedAt");
+    }
+
+    @Test
+    void rejectsCursorForAnotherDirection() {
+        String cursor = KeysetCursor.encode("stageUpdatedAt", Sort.Direction.DESC, TIMESTAMP, 42L);
+
+        assertThatThrownBy(() -> KeysetCursor.decode(cursor, "stageUpdatedAt", Sort.Direction.ASC))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        for (String raw : new String[] { "", "stageUpdatedAt|DESC|null|42", "stageUpdatedAt|DESC|2025-03-14T09:26|x",
+                "2025-03-14T09:26|42", "stageUpdatedAt|DESC|2025-03-14T09:26|42|1" }) {
+            String cursor = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+            assertThatThrownBy(() -> KeysetCursor.decode(cursor, "stageUpdatedAt", Sort.Direction.DESC))
+                    .as(raw)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Invalid cursor");
+        }
+        assertThatThrownBy(() -> KeysetCursor.decode("not base64!", "stageUpdatedAt", Sort.Direction.DESC))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+}
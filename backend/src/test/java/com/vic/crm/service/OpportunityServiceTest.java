@@ -0,0 +1,162 @@
+package com.vic.crm.service;
+
+import com.vic.crm.dto.OpportunityStepRollup;
+import com.vic.crm.entity.Candidate;
+import com.vic.crm.entity.Client;
+import com.vic.crm.entity.Opportunity;
+import com.vic.crm.entity.PipelineStep;
+import com.vic.crm.entity.Position;
+import com.vic.crm.entity.Vendor;
+import com.vic.crm.entity.VendorEngagement;
+import com.vic.crm.enums.CandidateStage;
+import com.vic.crm.enums.CandidateSubStatus;
+import com.vic.crm.enums.OpportunityStatus;
+import com.vic.crm.enums.StepResult;
+import com.vic.crm.enums.StepState;
+import com.vic.crm.enums.StepType;
+import com.vic.crm.repository.CandidateRepository;
+import com.vic.crm.repository.ClientRepository;
+import com.vic.crm.repository.OpportunityRepository;
+import com.vic.crm.repository.PipelineStepRepository;
+import com.vic.crm.repository.PositionRepository;
+import com.vic.crm.repository.VendorEngagementRepository;
+import com.vic.crm.repository.VendorRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class OpportunityServiceTest {
+
+    private static final LocalDateTime DAY_ONE = LocalDateTime.of(2024, 5, 1, 10, 0);
+    private static final LocalDateTime DAY_TWO = DAY_ONE.plusDays(1);
+
+    @Autowired
+    private OpportunityService opportunityService;
+    @Autowired
+    private PipelineStepRepository pipelineStepRepository;
+    @Autowired
+    private OpportunityRepository opportunityRepository;
+    @Autowired
+    private CandidateRepository candidateRepository;
+    @Autowired
+    private VendorRepository vendorRepository;
+    @Autowired
+    private VendorEngagementRepository vendorEngagementRepository;
+    @Autowired
+    private ClientRepository clientRepository;
+    @Autowired
+    private PositionRepository positionRepository;
+
+    @Test
+    void deriveStatusTakesTheFurthestCompletedMilestone() {
+        assertThat(OpportunityService.deriveStatus(null)).isEqualTo(OpportunityStatus.ACTIVE);
+        assertThat(OpportunityService.deriveStatus(rollup(0, 0, 0))).isEqualTo(OpportunityStatus.ACTIVE);
+        assertThat(OpportunityService.deriveStatus(rollup(2, 0, 0))).isEqualTo(OpportunityStatus.INTERVIEWING);
+        assertThat(OpportunityService.deriveStatus(rollup(2, 1, 0))).isEqualTo(OpportunityStatus.OFFERED);
+        assertThat(OpportunityService.deriveStatus(rollup(0, 1, 1))).isEqualTo(OpportunityStatus.PLACED);
+    }
+
+    @Test
+    void rollupQueryPicksLatestStepAndCountsEveryStep() {
+        Opportunity interviewing = opportunity();
+        Opportunity placed = opportunity();
+        Opportunity empty = opportunity();
+        step(interviewing, StepType.CLIENT_INTERVIEW, StepState.COMPLETED, StepResult.PASS, DAY_ONE);
+        // Offered but not completed: does not count as an offer
+        step(interviewing, StepType.OFFER, StepState.PLANNED, StepResult.PENDING, DAY_ONE.minusDays(3));
+        PipelineStep second = step(interviewing, StepType.CLIENT_INTERVIEW, StepState.PLANNED, StepResult.PENDING,
+                DAY_TWO);
+        step(placed, StepType.OFFER_ACCEPTED, StepState.COMPLETED, StepResult.PASS, DAY_ONE);
+        step(placed, StepType.PLACED, StepState.COMPLETED, StepResult.PASS, DAY_TWO);
+        // Same happenedAt as the placement but written later, so it is the latest step
+        PipelineStep latestOffer = step(placed, StepType.OFFER, StepState.COMPLETED, StepResult.PASS, DAY_TWO);
+
+        Map<Long, OpportunityStepRollup> rollups = pipelineStepRepository
+                .findRollupsByOpportunityIds(List.of(interviewing.getId(), placed.getId(), empty.getId()))
+                .stream()
+                .collect(Collectors.toMap(OpportunityStepRollup::getOpportunityId, Function.identity()));
+
+        assertThat(rollups).containsOnlyKeys(interviewing.getId(), placed.getId());
+        OpportunityStepRollup first = rollups.get(interviewing.getId());
+        assertThat(first.getLatestStepId()).isEqualTo(second.getId());
+        assertThat(first.getLatestType()).isEqualTo(StepType.CLIENT_INTERVIEW);
+        assertThat(first.getLatestState()).isEqualTo(StepState.PLANNED);
+        assertThat(first.getLatestHappenedAt()).isEqualTo(DAY_TWO);
+        assertThat(first.getInterviews()).isEqualTo(2);
+        assertThat(first.getCompletedOffers()).isZero();
+        assertThat(first.getCompletedPlacements()).isZero();
+        assertThat(OpportunityService.deriveStatus(first)).isEqualTo(OpportunityStatus.INTERVIEWING);
+
+        OpportunityStepRollup last = rollups.get(placed.getId());
+        assertThat(last.getLatestStepId()).isEqualTo(latestOffer.getId());
+        assertThat(last.getInterviews()).isZero();
+        assertThat(last.getCompletedOffers()).isEqualTo(2);
+        assertThat(last.getCompletedPlacements()).isEqualTo(1);
+        assertThat(OpportunityService.deriveStatus(last)).isEqualTo(OpportunityStatus.PLACED);
+    }
+
+    @Test
+    void refreshStatusFromStepsRespectsOverride() {
+        Opportunity opportunity = opportunity();
+        step(opportunity, StepType.CLIENT_INTERVIEW, StepState.COMPLETED, StepResult.PASS, DAY_ONE);
+
+        assertThat(opportunityService.refreshStatusFromSteps(opportunity.getId()).getStatus())
+                .isEqualTo(OpportunityStatus.INTERVIEWING);
+
+        opportunity.setStatusOverride(OpportunityStatus.ACTIVE);
+        opportunityRepository.save(opportunity);
+        step(opportunity, StepType.PLACED, StepState.COMPLETED, StepResult.PASS, DAY_TWO);
+
+        assertThat(opportunityService.refreshStatusFromSteps(opportunity.getId()).getStatus())
+                .isEqualTo(OpportunityStatus.INTERVIEWING);
+    }
+
+    private Opportunity opportunity() {
+        Candidate candidate = candidateRepository.save(Candidate.builder()
+                .name("Opportunity Test")
+                .stage(CandidateStage.MARKETING)
+                .subStatus(CandidateSubStatus.MARKETING_ACTIVE)
+                .build());
+        Vendor vendor = vendorRepository.save(Vendor.builder().companyName("Test Vendor").build());
+        VendorEngagement engagement = vendorEngagementRepository.save(VendorEngagement.builder()
+                .candidate(candidate)
+                .vendor(vendor)
+                .build());
+        Client client = clientRepository.save(Client.builder().companyName("Test Client").build());
+        Position position = positionRepository.save(Position.builder().title("Engineer").client(client).build());
+        return opportunityRepository.save(Opportunity.builder()
+                .vendorEngagement(engagement)
+                .position(position)
+                .build());
+    }
+
+    private PipelineStep step(Opportunity opportunity, StepType type, StepState state, StepResult result,
+            LocalDateTime happenedAt) {
+        return pipelineStepRepository.saveAndFlush(PipelineStep.builder()
+                .opportunity(opportunity)
+                .type(type)
+                .state(state)
+                .result(result)
+                .happenedAt(happenedAt)
+                .build());
+    }
+
+    private static OpportunityStepRollup rollup(long interviews, long completedOffers, long completedPlacements) {
+        OpportunityStepRollup rollup = new OpportunityStepRollup();
+        rollup.setInterviews(interviews);
+        rollup.setCompletedOffers(completedOffers);
+        rollup.setCompletedPlacements(completedPlacements);
+        return rollup;
+    }
+}
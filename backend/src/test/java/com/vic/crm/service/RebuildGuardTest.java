@@ -0,0 +1,110 @@
+package com.vic.crm.service;
+
+import com.vic.crm.entity.Candidate;
+import com.vic.crm.enums.CandidateStage;
+import com.vic.crm.enums.CandidateSubStatus;
+import com.vic.crm.repository.CandidateRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class RebuildGuardTest {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private CandidateRepository candidateRepository;
+
+    @Test
+    void deltaIsAppliedOnlyAfterCommit() {
+        AtomicLong live = new AtomicLong();
+        RebuildGuard<Long> guard = new RebuildGuard<>(live::addAndGet);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            guard.afterCommit(1L);
+            guard.afterCommit(1L);
+            assertThat(live).hasValue(0);
+        });
+        assertThat(live).hasValue(2);
+
+        transaction.executeWithoutResult(status -> {
+            guard.afterCommit(1L);
+            status.setRollbackOnly();
+        });
+        assertThat(live).hasValue(2);
+    }
+
+    @Test
+    void changeCommittedDuringRebuildIsCountedExactlyOnce() {
+        AtomicLong live = new AtomicLong();
+        RebuildGuard<Long> guard = new RebuildGuard<>(live::addAndGet);
+        TransactionTemplate snapshot = RebuildGuard.snapshotTransaction(transactionManager);
+        insertCandidate(guard);
+        List<Long> replayed = new ArrayList<>();
+
+        try (RebuildGuard<Long>.Rebuild rebuild = guard.start()) {
+            long counted = snapshot.execute(status -> {
+                rebuild.pin(() -> candidateRepository.existsById(0L));
+                // Commits while the rebuild reads, without waiting for it
+                CompletableFuture.runAsync(() -> insertCandidate(guard)).orTimeout(5, TimeUnit.SECONDS).join();
+                return candidateRepository.count();
+            });
+            assertThat(live).hasValue(2);
+
+            rebuild.swap(deltas -> {
+                replayed.addAll(deltas);
+                live.set(counted + deltas.stream().mapToLong(Long::longValue).sum());
+            });
+        }
+
+        assertThat(replayed).containsExactly(1L);
+        assertThat(live).hasValue(candidateRepository.count());
+
+        insertCandidate(guard);
+        assertThat(live).hasValue(candidateRepository.count());
+    }
+
+    @Test
+    void abandonedRebuildStopsCapturing() {
+        AtomicLong live = new AtomicLong();
+        RebuildGuard<Long> guard = new RebuildGuard<>(live::addAndGet);
+
+        try (RebuildGuard<Long>.Rebuild rebuild = guard.start()) {
+            rebuild.pin(() -> { });
+            guard.afterCommit(1L);
+        }
+        guard.afterCommit(1L);
+        assertThat(live).hasValue(2);
+
+        List<Long> replayed = new ArrayList<>();
+        try (RebuildGuard<Long>.Rebuild rebuild = guard.start()) {
+            rebuild.pin(() -> { });
+            guard.afterCommit(1L);
+            rebuild.swap(replayed::addAll);
+        }
+        assertThat(replayed).containsExactly(1L);
+    }
+
+    private void insertCandidate(RebuildGuard<Long> guard) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            candidateRepository.save(Candidate.builder()
+                    .name("Rebuild Guard Test")
+                    .stage(CandidateStage.MARKETING)
+                    .subStatus(CandidateSubStatus.MARKETING_ACTIVE)
+                    .build());
+            guard.afterCommit(1L);
+        });
+    }
+}
@@ -0,0 +1,72 @@
+package com.vic.crm.service;
+
+import com.vic.crm.enums.TagIndexType;
+import com.vic.crm.repository.CandidateRepository;
+import com.vic.crm.repository.InterviewExperienceRepository;
+import com.vic.crm.repository.PositionRepository;
+import com.vic.crm.repository.TaggedRow;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TagIndexServiceTest {
+
+    @Test
+    void queryCombinesAllAnyAndNone() {
+        CandidateRepository candidates = mock(CandidateRepository.class);
+        when(candidates.findAllTechTags()).thenReturn(List.of(
+                row(1L, "Java, Spring"),
+                row(2L, "java;React"),
+                row(3L, "Python")));
+        TagIndexService service = service(candidates);
+        service.rebuildAll();
+
+        assertThat(service.query(TagIndexType.CANDIDATE, Set.of("JAVA"), Set.of(), Set.of())).containsExactly(1, 2);
+        assertThat(service.query(TagIndexType.CANDIDATE, Set.of(), Set.of("spring", "python"), Set.of()))
+                .containsExactly(1, 3);
+        assertThat(service.query(TagIndexType.CANDIDATE, Set.of(), Set.of(), Set.of("java"))).containsExactly(3);
+    }
+
+    @Test
+    void putDuringRebuildSurvivesTheSwap() {
+        CandidateRepository candidates = mock(CandidateRepository.class);
+        TagIndexService service = service(candidates);
+        when(candidates.findAllTechTags()).thenAnswer(invocation -> {
+            List<TaggedRow> stale = List.of(row(1L, "java"), row(2L, "go"));
+            // Commits after the loader read, so the loaded rows no longer match
+            service.index(TagIndexType.CANDIDATE, 1L, "kotlin");
+            service.index(TagIndexType.CANDIDATE, 3L, "java");
+            return stale;
+        });
+
+        service.rebuildAll();
+
+        assertThat(service.query(TagIndexType.CANDIDATE, Set.of("java"), Set.of(), Set.of())).containsExactly(3);
+        assertThat(service.query(TagIndexType.CANDIDATE, Set.of("kotlin"), Set.of(), Set.of())).containsExactly(1);
+        assertThat(service.query(TagIndexType.CANDIDATE, Set.of("go"), Set.of(), Set.of())).containsExactly(2);
+    }
+
+    private static TagIndexService service(CandidateRepository candidates) {
+        return new TagIndexService(candidates, mock(PositionRepository.class),
+                mock(InterviewExperienceRepository.class));
+    }
+
+    private static TaggedRow row(Long id, String tags) {
+        return new TaggedRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getTags() {
+                return tags;
+            }
+        };
+    }
+}